@@ -0,0 +1,85 @@
+package com.qy.notes.cache;
+
+import com.qy.notes.mapper.UserMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 最后登录时间的写缓冲
+ * <p>
+ * 登录、注册以及每次打开页面的 whoami 都会刷新最后登录时间，逐条 UPDATE 相当于每次访问写一次 user 表。
+ * 这里先在内存中按用户合并，只保留最新的时间，每 10 秒用一条 UPDATE 批量写入；应用正常关闭时写入剩余的数据。
+ * 写入的是登录发生的时间而不是写库的时间，跨零点的登录不会被算到第二天；
+ * 每日统计在计数前先调用 flush，保证当天的登录人数完整
+ */
+@Log4j2
+@Component
+public class LastLoginBuffer {
+
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 记录用户登录
+     */
+    public void record(Long userId) {
+        if (userId != null) {
+            pending.merge(userId, LocalDateTime.now(), LastLoginBuffer::later);
+        }
+    }
+
+    /**
+     * 将缓冲中的登录时间写入数据库
+     */
+    @Scheduled(fixedDelay = 10000)
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Long, LocalDateTime> batch = new HashMap<>();
+        for (Map.Entry<Long, LocalDateTime> entry : pending.entrySet()) {
+            // 只移除取出时的值，期间的新登录留在缓冲中等下一轮
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.put(entry.getKey(), entry.getValue());
+            }
+            if (batch.size() >= FLUSH_BATCH_SIZE) {
+                write(batch);
+                batch = new HashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        flush();
+    }
+
+    private void write(Map<Long, LocalDateTime> batch) {
+        try {
+            userMapper.updateLastLoginAtBatch(batch);
+        } catch (Exception e) {
+            // 放回缓冲，下一轮重试
+            batch.forEach((userId, loginAt) -> pending.merge(userId, loginAt, LastLoginBuffer::later));
+            log.error("[定时任务]批量更新最后登录时间失败, 用户数={}, 错误详情={}", batch.size(), e.getMessage());
+        }
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,240 @@
+package com.qy.notes.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.qy.notes.mapper.NoteDailyAuthorCountMapper;
+import com.qy.notes.mapper.UserMapper;
+import com.qy.notes.model.entity.User;
+import com.qy.notes.model.vo.note.NoteRankListItem;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 笔记提交排行榜（Redis 有序集合）
+ * <p>
+ * 每天一个有序集合，member 为作者ID，score 为当天发布的笔记数，随笔记发布 / 删除增减；
+ * 本周、本月榜单由对应日期的有序集合 ZUNIONSTORE 合并得到，合并结果短暂缓存。
+ * Redis 中的数据丢失时可以根据 note_daily_author_count 重建，Redis 不可用时直接从该表查询。
+ */
+@Log4j2
+@Component
+public class NoteLeaderboard {
+
+    public static final String DAY = "day";
+    public static final String WEEK = "week";
+    public static final String MONTH = "month";
+
+    private static final String DAY_KEY_PREFIX = "note:rank:day:";
+    private static final String UNION_KEY_PREFIX = "note:rank:union:";
+
+    private static final DateTimeFormatter KEY_DATE_FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
+
+    /**
+     * 每日榜单至少要保留到本月榜单不再需要它为止
+     */
+    private static final long DAY_KEY_EXPIRE_DAYS = 40;
+
+    private static final long UNION_KEY_EXPIRE_SECONDS = 60;
+
+    private static final int TOP_N = 10;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private NoteDailyAuthorCountMapper noteDailyAuthorCountMapper;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    /**
+     * 排行榜接口轮询频繁，组装好的榜单（含作者信息）在本地缓存几秒
+     */
+    private final Cache<String, List<NoteRankListItem>> topCache = Caffeine.newBuilder()
+            .maximumSize(16)
+            .expireAfterWrite(Duration.ofSeconds(5))
+            .build();
+
+    public static boolean isValidWindow(String window) {
+        return DAY.equals(window) || WEEK.equals(window) || MONTH.equals(window);
+    }
+
+    /**
+     * 作者某天的笔记数变化
+     * 当天的有序集合不存在时（过期或 Redis 数据丢失）直接从数据库重建，避免只累加出部分数据
+     *
+     * @param noteDate 笔记的发布日期
+     * @param delta    发布为 1，删除为 -1
+     */
+    public void increment(LocalDate noteDate, Long authorId, int delta) {
+        String key = dayKey(noteDate);
+        try {
+            if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(key))) {
+                rebuild(noteDate);
+                return;
+            }
+
+            String member = String.valueOf(authorId);
+            Double score = stringRedisTemplate.opsForZSet().incrementScore(key, member, delta);
+            if (score != null && score <= 0) {
+                stringRedisTemplate.opsForZSet().remove(key, member);
+            }
+        } catch (Exception e) {
+            log.warn("更新笔记排行榜失败, date={}, authorId={}, 错误详情={}", noteDate, authorId, e.getMessage());
+        }
+    }
+
+    /**
+     * 查询榜单前 N 名
+     *
+     * @param window day：今天；week：本周（周一至今天）；month：本月（1 号至今天）
+     */
+    public List<NoteRankListItem> getTop(String window) {
+        return topCache.get(window, this::loadTop);
+    }
+
+    /**
+     * 根据 note_daily_author_count 重建某天的榜单
+     * 先写入临时键再 RENAME，重建过程中不会读到不完整的榜单
+     */
+    public void rebuild(LocalDate noteDate) {
+        String key = dayKey(noteDate);
+        List<NoteRankListItem> counts = noteDailyAuthorCountMapper.findAuthorCountsByDate(noteDate);
+
+        if (counts.isEmpty()) {
+            stringRedisTemplate.delete(key);
+            return;
+        }
+
+        Set<ZSetOperations.TypedTuple<String>> tuples = counts.stream()
+                .map(item -> ZSetOperations.TypedTuple.of(String.valueOf(item.getUserId()), item.getNoteCount().doubleValue()))
+                .collect(Collectors.toSet());
+
+        String tempKey = key + ":rebuild:" + UUID.randomUUID();
+        stringRedisTemplate.opsForZSet().add(tempKey, tuples);
+        stringRedisTemplate.rename(tempKey, key);
+        stringRedisTemplate.expire(key, DAY_KEY_EXPIRE_DAYS, TimeUnit.DAYS);
+    }
+
+    /**
+     * 重建最近若干天中缺失的榜单，用于启动时恢复 Redis 中丢失的数据
+     *
+     * @param days 包含今天在内的天数
+     */
+    public void rebuildMissing(int days) {
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < days; i++) {
+            LocalDate date = today.minusDays(i);
+            if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(dayKey(date)))) {
+                rebuild(date);
+            }
+        }
+    }
+
+    private List<NoteRankListItem> loadTop(String window) {
+        LocalDate today = LocalDate.now();
+        LocalDate startDate = switch (window) {
+            case WEEK -> today.with(DayOfWeek.MONDAY);
+            case MONTH -> today.withDayOfMonth(1);
+            default -> today;
+        };
+
+        List<NoteRankListItem> entries;
+        try {
+            entries = loadTopFromRedis(startDate, today);
+        } catch (Exception e) {
+            log.warn("读取笔记排行榜失败，改为查询数据库, window={}, 错误详情={}", window, e.getMessage());
+            entries = noteDailyAuthorCountMapper.findTopAuthors(startDate, today, TOP_N);
+        }
+
+        return fillAuthorAndRank(entries);
+    }
+
+    private List<NoteRankListItem> loadTopFromRedis(LocalDate startDate, LocalDate endDate) {
+        String key;
+
+        if (startDate.equals(endDate)) {
+            key = dayKey(endDate);
+            if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(key))) {
+                rebuild(endDate);
+            }
+        } else {
+            key = UNION_KEY_PREFIX + KEY_DATE_FORMATTER.format(startDate) + ":" + KEY_DATE_FORMATTER.format(endDate);
+            if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(key))) {
+                List<String> dayKeys = startDate.datesUntil(endDate.plusDays(1)).map(this::dayKey).toList();
+                stringRedisTemplate.opsForZSet().unionAndStore(dayKeys.get(0), dayKeys.subList(1, dayKeys.size()), key);
+                stringRedisTemplate.expire(key, UNION_KEY_EXPIRE_SECONDS, TimeUnit.SECONDS);
+            }
+        }
+
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                stringRedisTemplate.opsForZSet().reverseRangeWithScores(key, 0, TOP_N - 1);
+        if (tuples == null) {
+            return Collections.emptyList();
+        }
+
+        List<NoteRankListItem> entries = new ArrayList<>(tuples.size());
+        for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+            if (tuple.getValue() == null || tuple.getScore() == null) {
+                continue;
+            }
+            NoteRankListItem item = new NoteRankListItem();
+            item.setUserId(Long.valueOf(tuple.getValue()));
+            item.setNoteCount(tuple.getScore().intValue());
+            entries.add(item);
+        }
+        return entries;
+    }
+
+    /**
+     * 填充作者信息并按笔记数计算排名，笔记数相同的排名相同（与 SQL 的 RANK() 一致）
+     * 已不存在的用户不参与排名
+     */
+    private List<NoteRankListItem> fillAuthorAndRank(List<NoteRankListItem> entries) {
+        if (entries.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, User> userMap = userMapper.findByIdBatch(entries.stream().map(NoteRankListItem::getUserId).toList())
+                .stream()
+                .collect(Collectors.toMap(User::getUserId, Function.identity()));
+
+        List<NoteRankListItem> result = new ArrayList<>(entries.size());
+        Integer previousCount = null;
+        int rank = 0;
+
+        for (NoteRankListItem item : entries) {
+            User user = userMap.get(item.getUserId());
+            if (user == null) {
+                continue;
+            }
+
+            if (!item.getNoteCount().equals(previousCount)) {
+                rank = result.size() + 1;
+                previousCount = item.getNoteCount();
+            }
+
+            item.setUsername(user.getUsername());
+            item.setAvatarUrl(user.getAvatarUrl());
+            item.setRank(rank);
+            result.add(item);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private String dayKey(LocalDate date) {
+        return DAY_KEY_PREFIX + KEY_DATE_FORMATTER.format(date);
+    }
+}
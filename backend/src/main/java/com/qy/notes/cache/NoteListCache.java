@@ -0,0 +1,285 @@
+package com.qy.notes.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.qy.notes.model.dto.note.NoteQueryParams;
+import com.qy.notes.model.vo.note.NoteListPage;
+import com.qy.notes.model.vo.note.NoteVO;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 笔记列表页两级缓存（本地 Caffeine + Redis）
+ * 只缓存与当前用户无关的部分，点赞 / 收藏状态由调用方叠加
+ * <p>
+ * 失效策略：
+ * 1. 笔记内容或互动数变化时，通过 note_id -> 列表页 的反向索引精确删除包含该笔记的列表页
+ * 2. 笔记发布或删除会改变分页结构，此时递增版本号，旧版本的列表页自然失效
+ * 3. 本地缓存的失效通过 Redis 发布订阅同步到所有实例
+ * <p>
+ * 调用方先通过 lookup 取得缓存键（记录当时的版本号与失效序号），查库后用同一个 Lookup 写入；
+ * 查库期间发生过失效时放弃写入，避免把失效前读出的旧数据写到新版本下。
+ * 精确失效会递增 Redis 中的共享失效序号：读取 Redis 时一并取出该序号，写入 Redis 时 WATCH 该序号，
+ * 期间任一实例发生过精确失效则放弃写入；写入成功时其反向索引已登记，之后的失效一定能删除它
+ */
+@Log4j2
+@Component
+public class NoteListCache {
+
+    private static final String PAGE_KEY_PREFIX = "note:list:page:";
+    private static final String REFS_KEY_PREFIX = "note:list:refs:";
+    private static final String GENERATION_KEY = "note:list:generation";
+    private static final String INVALIDATION_SEQ_KEY = "note:list:invalidation";
+    private static final String INVALIDATE_CHANNEL = "note:list:invalidate";
+    private static final String GENERATION_MESSAGE_PREFIX = "gen:";
+
+    private static final long LOCAL_EXPIRE_SECONDS = 60;
+    private static final long REDIS_EXPIRE_SECONDS = 600;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private final Cache<String, NoteListPage> localCache = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(Duration.ofSeconds(LOCAL_EXPIRE_SECONDS))
+            .build();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 本实例处理过的精确失效次数（包括其他实例广播过来的），用于判断查库期间是否发生过失效
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        try {
+            String value = stringRedisTemplate.opsForValue().get(GENERATION_KEY);
+            if (value != null) {
+                generation.set(Long.parseLong(value));
+            }
+        } catch (Exception e) {
+            log.warn("读取笔记列表缓存版本号失败: {}", e.getMessage());
+        }
+
+        redisMessageListenerContainer.addMessageListener(
+                (message, pattern) -> onInvalidateMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    /**
+     * 按当前版本号构建缓存键，需要在查库之前调用
+     */
+    public Lookup lookup(NoteQueryParams params) {
+        // 先取失效序号再取版本号，保证两者都不晚于之后的查库
+        long invalidationSeq = invalidations.get();
+        long currentGeneration = generation.get();
+        return new Lookup(buildKey(params, currentGeneration), currentGeneration, invalidationSeq);
+    }
+
+    /**
+     * 读取列表页缓存，先查本地缓存，再查 Redis；查 Redis 时同时记录共享失效序号，供之后的 put 校验
+     *
+     * @return 缓存的列表页，未命中时返回 null
+     */
+    public NoteListPage get(Lookup lookup) {
+        String key = lookup.key;
+
+        NoteListPage page = localCache.getIfPresent(key);
+        if (page != null) {
+            return page;
+        }
+
+        try {
+            List<String> values = stringRedisTemplate.opsForValue().multiGet(List.of(key, INVALIDATION_SEQ_KEY));
+            if (values == null) {
+                return null;
+            }
+            lookup.sharedInvalidationSeq = Objects.requireNonNullElse(values.get(1), "0");
+            String json = values.get(0);
+            if (json != null) {
+                page = objectMapper.readValue(json, NoteListPage.class);
+                localCache.put(key, page);
+            }
+        } catch (Exception e) {
+            log.warn("读取笔记列表缓存失败, key={}, 错误详情={}", key, e.getMessage());
+        }
+        return page;
+    }
+
+    /**
+     * 写入列表页缓存，并为页内每条笔记登记反向索引
+     * lookup 之后版本号变化或任一实例发生过精确失效时不写入，该页可能是失效前读出的；
+     * get 未能读取共享失效序号时（Redis 不可用）也不写入
+     */
+    public void put(Lookup lookup, NoteListPage page) {
+        if (generation.get() != lookup.generation || invalidations.get() != lookup.invalidationSeq
+                || lookup.sharedInvalidationSeq == null) {
+            return;
+        }
+
+        String key = lookup.key;
+        try {
+            String json = objectMapper.writeValueAsString(page);
+            // 反向索引比列表页多保留一个本地缓存周期，保证本地缓存存活期间仍能被精确失效
+            long refsExpireSeconds = REDIS_EXPIRE_SECONDS + LOCAL_EXPIRE_SECONDS;
+
+            List<Object> results = stringRedisTemplate.execute(new SessionCallback<List<Object>>() {
+                @Override
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                public List<Object> execute(RedisOperations operations) {
+                    operations.watch(INVALIDATION_SEQ_KEY);
+                    Object current = operations.opsForValue().get(INVALIDATION_SEQ_KEY);
+                    if (!lookup.sharedInvalidationSeq.equals(Objects.requireNonNullElse(current, "0"))) {
+                        operations.unwatch();
+                        return null;
+                    }
+
+                    operations.multi();
+                    operations.opsForValue().set(key, json, REDIS_EXPIRE_SECONDS, TimeUnit.SECONDS);
+                    for (NoteVO note : page.getNotes()) {
+                        String refsKey = REFS_KEY_PREFIX + note.getNoteId();
+                        operations.opsForSet().add(refsKey, key);
+                        operations.expire(refsKey, refsExpireSeconds, TimeUnit.SECONDS);
+                    }
+                    return operations.exec();
+                }
+            });
+
+            // 序号已变化或事务因 WATCH 被放弃
+            if (results == null || results.isEmpty()) {
+                return;
+            }
+            // 写入本地前再检查一次，期间收到的失效广播可能针对的正是这一页
+            if (invalidations.get() == lookup.invalidationSeq && generation.get() == lookup.generation) {
+                localCache.put(key, page);
+            }
+        } catch (Exception e) {
+            log.warn("写入笔记列表缓存失败, key={}, 错误详情={}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * 笔记内容或互动数变化：精确失效包含该笔记的列表页
+     */
+    public void evictNote(Integer noteId) {
+        // 反向索引为空时也要计数并广播，各实例正在查库的请求可能即将写入包含该笔记的列表页
+        invalidations.incrementAndGet();
+        String refsKey = REFS_KEY_PREFIX + noteId;
+        try {
+            // 先递增共享序号再读取反向索引：在此之前写入的列表页会被删除，在此之后的写入会被放弃
+            stringRedisTemplate.opsForValue().increment(INVALIDATION_SEQ_KEY);
+
+            Set<String> pageKeys = stringRedisTemplate.opsForSet().members(refsKey);
+            if (pageKeys != null && !pageKeys.isEmpty()) {
+                List<String> keys = new ArrayList<>(pageKeys);
+                keys.add(refsKey);
+                stringRedisTemplate.delete(keys);
+                pageKeys.forEach(localCache::invalidate);
+            }
+
+            stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL,
+                    pageKeys == null ? "" : String.join(",", pageKeys));
+        } catch (Exception e) {
+            log.warn("失效笔记列表缓存失败, noteId={}, 错误详情={}", noteId, e.getMessage());
+        }
+    }
+
+    /**
+     * 笔记发布或删除：分页结构变化，递增版本号使所有旧列表页失效
+     */
+    public void bumpGeneration() {
+        try {
+            Long next = stringRedisTemplate.opsForValue().increment(GENERATION_KEY);
+            if (next != null) {
+                applyGeneration(next);
+                stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL, GENERATION_MESSAGE_PREFIX + next);
+            }
+        } catch (Exception e) {
+            // Redis 不可用时至少保证本实例不再读到旧数据
+            generation.incrementAndGet();
+            localCache.invalidateAll();
+            log.warn("更新笔记列表缓存版本号失败: {}", e.getMessage());
+        }
+    }
+
+    private void onInvalidateMessage(String body) {
+        if (body.startsWith(GENERATION_MESSAGE_PREFIX)) {
+            applyGeneration(Long.parseLong(body.substring(GENERATION_MESSAGE_PREFIX.length())));
+            return;
+        }
+        if (!body.isEmpty()) {
+            for (String key : body.split(",")) {
+                localCache.invalidate(key);
+            }
+        }
+        invalidations.incrementAndGet();
+    }
+
+    private void applyGeneration(long next) {
+        generation.accumulateAndGet(next, Math::max);
+        localCache.invalidateAll();
+    }
+
+    /**
+     * 由规范化后的查询参数构建缓存键，游标分页时页码无意义，页码分页时 withTotal 无意义
+     */
+    private static String buildKey(NoteQueryParams params, long generation) {
+        boolean cursorMode = params.getCursor() != null;
+        return PAGE_KEY_PREFIX + generation + ":" + String.join(":",
+                String.valueOf(params.getQuestionId()),
+                String.valueOf(params.getAuthorId()),
+                String.valueOf(params.getSort()),
+                String.valueOf(params.getOrder()),
+                String.valueOf(params.getRecentDays()),
+                String.valueOf(params.getPageSize()),
+                cursorMode ? "c" + params.getCursor() : "p" + params.getPage(),
+                cursorMode ? String.valueOf(Boolean.TRUE.equals(params.getWithTotal())) : "-");
+    }
+
+    /**
+     * 一次列表查询对应的缓存键，以及构建键时的版本号和失效序号
+     */
+    public static class Lookup {
+
+        private final String key;
+
+        private final long generation;
+
+        private final long invalidationSeq;
+
+        /**
+         * 读取 Redis 时的共享失效序号，未读取成功时为 null
+         */
+        private String sharedInvalidationSeq;
+
+        private Lookup(String key, long generation, long invalidationSeq) {
+            this.key = key;
+            this.generation = generation;
+            this.invalidationSeq = invalidationSeq;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.qy.notes.cache;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 笔记搜索结果缓存（Redis）
+ * <p>
+ * 缓存键由规范化后的检索词集合（去重、排序）生成，"Redis 持久化" 与 "redis,持久化" 命中同一条缓存；
+ * 缓存值只保存按相关度排序的笔记ID，笔记内容在返回前批量查询，不会返回已删除或过期的内容。
+ * <p>
+ * 失效策略：为每个检索词登记 词 -> 查询缓存键 的反向索引，笔记发布 / 更新 / 删除时，
+ * 按该笔记变更前后包含的词删除可能受影响的查询结果
+ */
+@Log4j2
+@Component
+public class NoteSearchCache {
+
+    private static final String RESULT_KEY_PREFIX = "search:note:ids:";
+    private static final String TERM_KEY_PREFIX = "search:note:term:";
+
+    private static final long EXPIRE_SECONDS = 1800;
+
+    /**
+     * 一次失效涉及的词较多时分批执行，避免单个管道过大
+     */
+    private static final int EVICT_BATCH_SIZE = 200;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 读取搜索结果
+     *
+     * @param terms 查询词
+     * @return 按相关度排序的笔记ID，未命中时返回 null
+     */
+    public List<Integer> get(Collection<String> terms) {
+        String key = buildKey(terms);
+        try {
+            String value = stringRedisTemplate.opsForValue().get(key);
+            if (value == null) {
+                return null;
+            }
+            if (value.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            String[] parts = value.split(",");
+            List<Integer> noteIds = new ArrayList<>(parts.length);
+            for (String part : parts) {
+                noteIds.add(Integer.valueOf(part));
+            }
+            return noteIds;
+        } catch (Exception e) {
+            log.warn("读取笔记搜索缓存失败, key={}, 错误详情={}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 写入搜索结果，并为每个查询词登记反向索引
+     */
+    public void put(Collection<String> terms, List<Integer> noteIds) {
+        String key = buildKey(terms);
+        StringJoiner joiner = new StringJoiner(",");
+        noteIds.forEach(noteId -> joiner.add(String.valueOf(noteId)));
+        String value = joiner.toString();
+
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                stringConnection.setEx(key, EXPIRE_SECONDS, value);
+                for (String term : normalize(terms)) {
+                    String termKey = TERM_KEY_PREFIX + term;
+                    stringConnection.sAdd(termKey, key);
+                    stringConnection.expire(termKey, EXPIRE_SECONDS);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("写入笔记搜索缓存失败, key={}, 错误详情={}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * 删除包含任一指定词的查询结果
+     *
+     * @param terms 笔记变更前后包含的词
+     */
+    public void evictByTerms(Collection<String> terms) {
+        List<String> termKeys = terms.stream().distinct().map(term -> TERM_KEY_PREFIX + term).toList();
+
+        for (int from = 0; from < termKeys.size(); from += EVICT_BATCH_SIZE) {
+            List<String> batch = termKeys.subList(from, Math.min(from + EVICT_BATCH_SIZE, termKeys.size()));
+            try {
+                List<Object> members = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                    batch.forEach(stringConnection::sMembers);
+                    return null;
+                });
+
+                Set<String> keys = new HashSet<>(batch);
+                for (Object resultKeys : members) {
+                    if (resultKeys instanceof Collection<?> collection) {
+                        collection.forEach(resultKey -> keys.add(String.valueOf(resultKey)));
+                    }
+                }
+                stringRedisTemplate.delete(keys);
+            } catch (Exception e) {
+                log.warn("失效笔记搜索缓存失败, 错误详情={}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 检索词去重并排序，与词的顺序、重复和大小写无关（大小写已在分词时统一）
+     */
+    private SortedSet<String> normalize(Collection<String> terms) {
+        return new TreeSet<>(terms);
+    }
+
+    /**
+     * 查询词可能很长，缓存键使用规范化后的检索词的摘要
+     */
+    private String buildKey(Collection<String> terms) {
+        String normalized = String.join(" ", normalize(terms));
+        return RESULT_KEY_PREFIX + DigestUtils.md5DigestAsHex(normalized.getBytes(StandardCharsets.UTF_8));
+    }
+}
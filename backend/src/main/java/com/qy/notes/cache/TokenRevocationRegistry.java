@@ -0,0 +1,157 @@
+package com.qy.notes.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * token 吊销登记
+ * <p>
+ * 退出所有设备：每个用户有一个 token 代数，签发 token 时写入当前代数，代数小于当前值的 token 视为已吊销。
+ * 代数保存在 Redis 的 user:token:generation:{userId} 中，取值为吊销时的毫秒时间戳（且大于原值），
+ * 过期时间与 token 有效期相同：键过期时此前签发的 token 也都已过期，代数回到 0 不会使旧 token 复活，
+ * 之后再次吊销得到的时间戳又一定大于之前签发的代数。
+ * <p>
+ * 本地按用户缓存代数，只在缓存未命中时读取该用户的键；吊销时通过 Redis 发布订阅通知所有实例，
+ * 并每分钟在后台刷新一次，补上丢失的通知。读取失败时保留已知的代数；从未读取成功的用户按已吊销处理，不放行。
+ * <p>
+ * 退出当前设备：token 摘要写入 user:token:revoked:{digest}，保留到 token 过期，
+ * 由 VerifiedTokenCache 在首次验证 token 时检查，并订阅 TOKEN_REVOKE_CHANNEL 删除本地已验证的缓存
+ */
+@Log4j2
+@Component
+public class TokenRevocationRegistry {
+
+    private static final String GENERATION_KEY_PREFIX = "user:token:generation:";
+    private static final String REVOKED_TOKEN_KEY_PREFIX = "user:token:revoked:";
+    private static final String GENERATION_CHANNEL = "user:token:generation";
+
+    /**
+     * 单个 token 被吊销时广播 token 摘要
+     */
+    public static final String TOKEN_REVOKE_CHANNEL = "user:token:revoke";
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    /**
+     * token 有效期（秒）
+     */
+    @Value("${jwt.expiration}")
+    private long tokenExpireSeconds;
+
+    private final LoadingCache<Long, Long> generations = Caffeine.newBuilder()
+            .maximumSize(100000)
+            .expireAfterAccess(Duration.ofDays(1))
+            .refreshAfterWrite(Duration.ofMinutes(1))
+            .build(this::loadGeneration);
+
+    @PostConstruct
+    public void init() {
+        redisMessageListenerContainer.addMessageListener(
+                (message, pattern) -> onGenerationMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(GENERATION_CHANNEL));
+    }
+
+    /**
+     * 用户当前的 token 代数，没有退出过所有设备（或上次退出已超过 token 有效期）的用户为 0
+     *
+     * @throws RuntimeException Redis 不可用且本地没有该用户的代数时
+     */
+    public long currentGeneration(Long userId) {
+        return generations.get(userId);
+    }
+
+    /**
+     * 以指定代数签发的 token 是否已被吊销，无法确定时按已吊销处理
+     */
+    public boolean isRevoked(Long userId, long generation) {
+        try {
+            return generation < currentGeneration(userId);
+        } catch (Exception e) {
+            log.warn("读取 token 代数失败，拒绝该 token, userId={}, 错误详情={}", userId, e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * 吊销用户已签发的所有 token，并通知所有实例
+     */
+    public void revokeAll(Long userId) {
+        String key = GENERATION_KEY_PREFIX + userId;
+        String value = stringRedisTemplate.opsForValue().get(key);
+        long previous = value == null ? 0 : Long.parseLong(value);
+        long generation = Math.max(System.currentTimeMillis(), previous + 1);
+
+        stringRedisTemplate.opsForValue().set(key, String.valueOf(generation), tokenExpireSeconds, TimeUnit.SECONDS);
+        generations.put(userId, generation);
+        try {
+            stringRedisTemplate.convertAndSend(GENERATION_CHANNEL, userId + ":" + generation);
+        } catch (Exception e) {
+            // 其他实例在下一次后台刷新时更新
+            log.warn("广播 token 吊销失败, userId={}, 错误详情={}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 吊销单个 token，并通知所有实例删除本地已验证的缓存
+     *
+     * @param tokenDigest token 的摘要
+     * @param expiresAt   token 的过期时间（epoch 毫秒）
+     */
+    public void revokeToken(String tokenDigest, long expiresAt) {
+        long remainingMillis = expiresAt - System.currentTimeMillis();
+        if (remainingMillis <= 0) {
+            return;
+        }
+        stringRedisTemplate.opsForValue().set(REVOKED_TOKEN_KEY_PREFIX + tokenDigest, "1",
+                remainingMillis, TimeUnit.MILLISECONDS);
+        try {
+            stringRedisTemplate.convertAndSend(TOKEN_REVOKE_CHANNEL, tokenDigest);
+        } catch (Exception e) {
+            // 其他实例在已验证缓存到期后重新检查
+            log.warn("广播 token 吊销失败, 错误详情={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 单个 token 是否已被吊销，需要访问 Redis，只在首次验证 token 时调用；无法确定时按已吊销处理
+     */
+    public boolean isTokenRevoked(String tokenDigest) {
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(REVOKED_TOKEN_KEY_PREFIX + tokenDigest));
+        } catch (Exception e) {
+            log.warn("读取 token 吊销记录失败，拒绝该 token, 错误详情={}", e.getMessage());
+            return true;
+        }
+    }
+
+    private Long loadGeneration(Long userId) {
+        String value = stringRedisTemplate.opsForValue().get(GENERATION_KEY_PREFIX + userId);
+        return value == null ? 0L : Long.parseLong(value);
+    }
+
+    private void onGenerationMessage(String body) {
+        int separator = body.indexOf(':');
+        if (separator < 0) {
+            return;
+        }
+        Long userId = Long.valueOf(body.substring(0, separator));
+        long generation = Long.parseLong(body.substring(separator + 1));
+        generations.asMap().merge(userId, generation, Math::max);
+    }
+}
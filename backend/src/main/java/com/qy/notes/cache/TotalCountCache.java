@@ -0,0 +1,149 @@
+package com.qy.notes.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.qy.notes.mapper.TableStatsMapper;
+import com.qy.notes.model.base.TotalCount;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 分页列表总数缓存
+ * <p>
+ * 翻页时查询条件不变，总数也不变，没有必要每一页都执行 COUNT(*)。
+ * 同一类列表（scope）的总数存放在同一个 Redis Hash 中，field 为规范化后的筛选条件；
+ * 该类数据发生新增 / 删除时直接删除整个 Hash，下一次请求重新统计。
+ * 过期时间只在创建 Hash 时设置，之后写入其他 field 不会延长，按时间范围筛选的总数最迟一个 TTL 后重新统计；
+ * 调用方应在事务提交后再调用 evict，否则并发的请求可能把提交前的总数重新写入缓存。
+ * <p>
+ * 没有任何筛选条件的列表统计的是整张表，表较大时直接返回 information_schema 中的估算行数。
+ */
+@Log4j2
+@Component
+public class TotalCountCache {
+
+    public static final String NOTE = "note";
+    public static final String QUESTION = "question";
+    public static final String USER = "user";
+
+    private static final String KEY_PREFIX = "count:";
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private TableStatsMapper tableStatsMapper;
+
+    @Value("${notes.count.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    /**
+     * 估算行数达到该值时，无筛选条件的列表改为返回估算总数，小于等于 0 表示不估算
+     */
+    @Value("${notes.count.estimate-threshold:100000}")
+    private long estimateThreshold;
+
+    /**
+     * 表的估算行数，本身就是近似值，本地缓存一分钟即可
+     */
+    private final Cache<String, Optional<Long>> estimateCache = Caffeine.newBuilder()
+            .maximumSize(64)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    /**
+     * 某个用户的消息列表，每个用户单独一个 scope
+     */
+    public static String messageScope(Long userId) {
+        return "message:" + userId;
+    }
+
+    /**
+     * 将筛选条件拼接为缓存 field，调用方需要保证各参数顺序固定，且不包含页码、排序等与总数无关的参数
+     */
+    public static String filterKey(Object... filters) {
+        StringBuilder builder = new StringBuilder();
+        for (Object filter : filters) {
+            if (!builder.isEmpty()) {
+                builder.append(':');
+            }
+            builder.append(filter);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 获取精确总数，优先读缓存，未命中时执行 counter 并写入缓存
+     */
+    public TotalCount count(String scope, String filterKey, Supplier<Integer> counter) {
+        String key = KEY_PREFIX + scope;
+
+        try {
+            Object cached = stringRedisTemplate.opsForHash().get(key, filterKey);
+            if (cached != null) {
+                return TotalCount.exact(Integer.parseInt(cached.toString()));
+            }
+        } catch (Exception e) {
+            log.warn("读取列表总数缓存失败, key={}, 错误详情={}", key, e.getMessage());
+        }
+
+        int total = counter.get();
+
+        try {
+            stringRedisTemplate.opsForHash().put(key, filterKey, String.valueOf(total));
+            // 没有过期时间说明 Hash 是刚创建的（-1），已有的 Hash 不续期
+            Long expire = stringRedisTemplate.getExpire(key);
+            if (expire != null && expire == -1) {
+                stringRedisTemplate.expire(key, ttlSeconds, TimeUnit.SECONDS);
+            }
+        } catch (Exception e) {
+            log.warn("写入列表总数缓存失败, key={}, 错误详情={}", key, e.getMessage());
+        }
+        return TotalCount.exact(total);
+    }
+
+    /**
+     * 无筛选条件时使用：表的估算行数超过阈值则直接返回估算值，否则与 count 相同
+     *
+     * @param table 列表对应的表名
+     */
+    public TotalCount countOrEstimate(String scope, String filterKey, String table, Supplier<Integer> counter) {
+        if (estimateThreshold > 0) {
+            Long estimate = estimateRowCount(table);
+            if (estimate != null && estimate >= estimateThreshold) {
+                return TotalCount.estimated((int) Math.min(estimate, Integer.MAX_VALUE));
+            }
+        }
+        return count(scope, filterKey, counter);
+    }
+
+    /**
+     * 该 scope 下的数据发生新增 / 删除，清空所有筛选条件的总数
+     */
+    public void evict(String scope) {
+        try {
+            stringRedisTemplate.delete(KEY_PREFIX + scope);
+        } catch (Exception e) {
+            log.warn("清除列表总数缓存失败, scope={}, 错误详情={}", scope, e.getMessage());
+        }
+    }
+
+    private Long estimateRowCount(String table) {
+        return estimateCache.get(table, t -> {
+            try {
+                return Optional.ofNullable(tableStatsMapper.estimateRowCount(t));
+            } catch (Exception e) {
+                log.warn("读取表估算行数失败, table={}, 错误详情={}", t, e.getMessage());
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+}
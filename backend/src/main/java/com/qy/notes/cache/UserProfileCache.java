@@ -0,0 +1,182 @@
+package com.qy.notes.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.qy.notes.mapper.UserMapper;
+import com.qy.notes.model.entity.User;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 用户公开资料的三级缓存（本地 Caffeine -> Redis -> 数据库）
+ * 用于笔记列表、评论列表、消息列表等批量展示作者 / 发送者的场景
+ * <p>
+ * 批量查询时先取本地缓存，未命中的用户一次 MGET 从 Redis 读取，仍未命中的用户一次 IN 查询从数据库读取并回填。
+ * 缓存中只保存公开字段，不包含密码、登录时间等；用户修改资料提交后删除 Redis 中的数据，
+ * 并通过 Redis 发布订阅让所有实例删除本地缓存
+ */
+@Log4j2
+@Component
+public class UserProfileCache {
+
+    private static final String PROFILE_KEY_PREFIX = "user:profile:";
+    private static final String INVALIDATE_CHANNEL = "user:profile:invalidate";
+
+    private static final long LOCAL_EXPIRE_SECONDS = 60;
+    private static final long REDIS_EXPIRE_SECONDS = 1800;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private final Cache<Long, User> localCache = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(Duration.ofSeconds(LOCAL_EXPIRE_SECONDS))
+            .build();
+
+    @PostConstruct
+    public void init() {
+        redisMessageListenerContainer.addMessageListener(
+                (message, pattern) -> localCache.invalidate(
+                        Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8))),
+                new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    /**
+     * 查询单个用户的公开资料
+     *
+     * @return 用户不存在时返回 null
+     */
+    public User get(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return getAll(List.of(userId)).get(userId);
+    }
+
+    /**
+     * 批量查询用户的公开资料
+     *
+     * @param userIds 用户ID，可以重复
+     * @return 用户ID -> 公开资料，不存在的用户不包含在结果中
+     */
+    public Map<Long, User> getAll(Collection<Long> userIds) {
+        Set<Long> distinctIds = new LinkedHashSet<>(userIds);
+        distinctIds.remove(null);
+        if (distinctIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Long, User> result = new HashMap<>(localCache.getAllPresent(distinctIds));
+        List<Long> missing = distinctIds.stream().filter(id -> !result.containsKey(id)).toList();
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        missing = loadFromRedis(missing, result);
+        if (!missing.isEmpty()) {
+            loadFromDatabase(missing, result);
+        }
+        return result;
+    }
+
+    /**
+     * 用户资料变化：删除 Redis 中的数据并通知所有实例删除本地缓存
+     */
+    public void evict(Long userId) {
+        localCache.invalidate(userId);
+        try {
+            stringRedisTemplate.delete(PROFILE_KEY_PREFIX + userId);
+            stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL, String.valueOf(userId));
+        } catch (Exception e) {
+            log.warn("失效用户资料缓存失败, userId={}, 错误详情={}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * @return Redis 中也没有的用户ID
+     */
+    private List<Long> loadFromRedis(List<Long> userIds, Map<Long, User> result) {
+        try {
+            List<String> keys = userIds.stream().map(id -> PROFILE_KEY_PREFIX + id).toList();
+            List<String> values = stringRedisTemplate.opsForValue().multiGet(keys);
+            if (values == null) {
+                return userIds;
+            }
+
+            List<Long> missing = new ArrayList<>();
+            for (int i = 0; i < userIds.size(); i++) {
+                String json = values.get(i);
+                if (json == null) {
+                    missing.add(userIds.get(i));
+                    continue;
+                }
+                User user = objectMapper.readValue(json, User.class);
+                result.put(user.getUserId(), user);
+                localCache.put(user.getUserId(), user);
+            }
+            return missing;
+        } catch (Exception e) {
+            log.warn("读取用户资料缓存失败, 错误详情={}", e.getMessage());
+            return userIds;
+        }
+    }
+
+    private void loadFromDatabase(List<Long> userIds, Map<Long, User> result) {
+        List<User> profiles = userMapper.findByIdBatch(userIds).stream().map(this::toProfile).toList();
+        for (User profile : profiles) {
+            result.put(profile.getUserId(), profile);
+            localCache.put(profile.getUserId(), profile);
+        }
+
+        try {
+            Map<String, String> values = new HashMap<>();
+            for (User profile : profiles) {
+                values.put(PROFILE_KEY_PREFIX + profile.getUserId(), objectMapper.writeValueAsString(profile));
+            }
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                values.forEach((key, json) -> stringConnection.setEx(key, REDIS_EXPIRE_SECONDS, json));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("写入用户资料缓存失败, 错误详情={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 只保留公开展示的字段
+     */
+    private User toProfile(User user) {
+        User profile = new User();
+        profile.setUserId(user.getUserId());
+        profile.setAccount(user.getAccount());
+        profile.setUsername(user.getUsername());
+        profile.setGender(user.getGender());
+        profile.setAvatarUrl(user.getAvatarUrl());
+        profile.setSchool(user.getSchool());
+        profile.setSignature(user.getSignature());
+        profile.setCreatedAt(user.getCreatedAt());
+        return profile;
+    }
+}
@@ -0,0 +1,165 @@
+package com.qy.notes.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.qy.notes.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已验证 token 的本地缓存
+ * <p>
+ * 每个请求都要验证 token，HS512 验签加上 JSON 解析是拦截器中最主要的开销；
+ * 同一个 token 验证通过后缓存其中的用户ID，之后的请求只计算一次 SHA-256 摘要即可命中。
+ * 缓存 key 为 token 的摘要，内存中不保存 token 原文；每条缓存最多保留 5 分钟，且不晚于 token 过期，不会延长 token 的有效期。
+ * 验证失败的 token 不缓存。
+ * <p>
+ * 吊销检查：首次验证时查询该 token 是否已退出登录；命中缓存后按 TokenRevocationRegistry 的本地代数检查是否已退出所有设备。
+ * 其他实例上退出登录的 token 通过 Redis 发布订阅从本地缓存中删除，通知丢失时最迟在缓存到期后重新检查
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final int MAX_SIZE = 10000;
+
+    private static final long MAX_CACHE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private final Cache<String, VerifiedToken> cache = Caffeine.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .expireAfter(new Expiry<String, VerifiedToken>() {
+                @Override
+                public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                    return remainingNanos(value);
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                    return remainingNanos(value);
+                }
+
+                @Override
+                public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    @PostConstruct
+    public void init() {
+        redisMessageListenerContainer.addMessageListener(
+                (message, pattern) -> cache.invalidate(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(TokenRevocationRegistry.TOKEN_REVOKE_CHANNEL));
+    }
+
+    /**
+     * 验证 token 并取出用户ID
+     *
+     * @param token JWT（不含 Bearer 前缀）
+     * @return 用户ID，token 无效、已过期或已被吊销时返回 null
+     */
+    public Long getUserId(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        String key = digest(token);
+        VerifiedToken verified = cache.getIfPresent(key);
+        if (verified != null && verified.expiresAt > System.currentTimeMillis()) {
+            if (tokenRevocationRegistry.isRevoked(verified.userId, verified.generation)) {
+                cache.invalidate(key);
+                return null;
+            }
+            return verified.userId;
+        }
+
+        // 只解析、验签一次
+        Claims claims = jwtUtil.parseToken(token);
+        if (claims == null || claims.get("userId") == null) {
+            return null;
+        }
+
+        Long userId = Long.valueOf(claims.get("userId").toString());
+        Object generationClaim = claims.get(JwtUtil.GENERATION_CLAIM);
+        long generation = generationClaim == null ? 0 : Long.parseLong(generationClaim.toString());
+        if (tokenRevocationRegistry.isRevoked(userId, generation) || tokenRevocationRegistry.isTokenRevoked(key)) {
+            return null;
+        }
+
+        // 没有过期时间的 token 不缓存，每次都重新验证
+        if (claims.getExpiration() != null) {
+            cache.put(key, new VerifiedToken(userId, generation, claims.getExpiration().getTime()));
+        }
+        return userId;
+    }
+
+    /**
+     * 退出当前设备：吊销该 token，并删除所有实例上已验证的缓存
+     *
+     * @param token JWT（不含 Bearer 前缀）
+     */
+    public void revoke(String token) {
+        Claims claims = jwtUtil.parseToken(token);
+        if (claims == null || claims.getExpiration() == null) {
+            return;
+        }
+        String key = digest(token);
+        tokenRevocationRegistry.revokeToken(key, claims.getExpiration().getTime());
+        cache.invalidate(key);
+    }
+
+    private static long remainingNanos(VerifiedToken value) {
+        long remainingMillis = Math.min(MAX_CACHE_MILLIS, value.expiresAt - System.currentTimeMillis());
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // JDK 必须支持 SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class VerifiedToken {
+
+        private final Long userId;
+
+        /**
+         * 签发时的 token 代数
+         */
+        private final long generation;
+
+        /**
+         * token 的过期时间（epoch 毫秒）
+         */
+        private final long expiresAt;
+
+        VerifiedToken(Long userId, long generation, long expiresAt) {
+            this.userId = userId;
+            this.generation = generation;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.qy.notes.config;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 业务线程池配置
+ */
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${notes.query-executor.core-size:8}")
+    private int queryCoreSize;
+
+    @Value("${notes.query-executor.max-size:16}")
+    private int queryMaxSize;
+
+    @Value("${notes.query-executor.queue-capacity:200}")
+    private int queryQueueCapacity;
+
+    @Value("${notes.password-hash.pool-size:4}")
+    private int passwordHashPoolSize;
+
+    @Value("${notes.password-hash.queue-capacity:32}")
+    private int passwordHashQueueCapacity;
+
+    @Value("${notes.mvc-async.pool-size:8}")
+    private int mvcAsyncPoolSize;
+
+    @Value("${notes.mvc-async.queue-capacity:16}")
+    private int mvcAsyncQueueCapacity;
+
+    /**
+     * 密码哈希（BCrypt）使用的线程池，与 Tomcat 工作线程隔离
+     * 单次哈希耗时几十到上百毫秒，固定线程数限制 CPU 占用；队列满时直接拒绝，由调用方返回繁忙，不在请求线程上执行
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(passwordHashPoolSize);
+        executor.setMaxPoolSize(passwordHashPoolSize);
+        executor.setQueueCapacity(passwordHashQueueCapacity);
+        executor.setThreadNamePrefix("PasswordHash-");
+        executor.setTaskDecorator(mdcTaskDecorator());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 列表查询并发补全数据使用的线程池
+     * 有界队列，队列满时由调用线程自己执行，起到背压作用
+     */
+    @Bean
+    public ThreadPoolTaskExecutor noteQueryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(queryCoreSize);
+        executor.setMaxPoolSize(queryMaxSize);
+        executor.setQueueCapacity(queryQueueCapacity);
+        executor.setThreadNamePrefix("NoteQuery-");
+        executor.setTaskDecorator(mdcTaskDecorator());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Spring MVC 异步请求（流式导出笔记）使用的线程池
+     * 定义了自己的 Executor 后 Boot 不再创建 applicationTaskExecutor，MVC 会退回到每个请求新建一个线程的 SimpleAsyncTaskExecutor；
+     * 导出可能持续数分钟，固定线程数限制同时进行的导出，队列满时拒绝，不在 Tomcat 线程上执行
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mvcAsyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(mvcAsyncPoolSize);
+        executor.setMaxPoolSize(mvcAsyncPoolSize);
+        executor.setQueueCapacity(mvcAsyncQueueCapacity);
+        executor.setThreadNamePrefix("MvcAsync-");
+        executor.setTaskDecorator(mdcTaskDecorator());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 将提交任务线程的 MDC（traceId 等）传递到工作线程
+     * 注意：请求作用域的 Bean（如 RequestScopeData）在工作线程中不可用，需要在提交前取出所需的值
+     */
+    private TaskDecorator mdcTaskDecorator() {
+        return runnable -> {
+            Map<String, String> context = MDC.getCopyOfContextMap();
+            return () -> {
+                // 队列满时任务会在调用线程上执行，结束后需要还原调用线程原有的 MDC
+                Map<String, String> previous = MDC.getCopyOfContextMap();
+                if (context != null) {
+                    MDC.setContextMap(context);
+                }
+                try {
+                    runnable.run();
+                } finally {
+                    if (previous != null) {
+                        MDC.setContextMap(previous);
+                    } else {
+                        MDC.clear();
+                    }
+                }
+            };
+        };
+    }
+}
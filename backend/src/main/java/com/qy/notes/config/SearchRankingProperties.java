@@ -0,0 +1,55 @@
+package com.qy.notes.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 笔记搜索排序配置
+ * 最终得分 = 文本权重 * 文本相关度 + 互动权重 * 互动热度 + 新鲜度权重 * 新鲜度，三项均归一化到 [0, 1]
+ */
+@Configuration
+@ConfigurationProperties(prefix = "notes.search.ranking")
+@Data
+public class SearchRankingProperties {
+
+    /**
+     * 参与重排的候选数，只对文本相关度最高的前 N 条重新打分，其余保持原顺序
+     */
+    private int candidateSize = 200;
+
+    /**
+     * 文本相关度（BM25 得分除以候选中的最高分）的权重
+     */
+    private double textWeight = 1.0;
+
+    /**
+     * 互动热度的权重
+     */
+    private double engagementWeight = 0.3;
+
+    /**
+     * 新鲜度的权重
+     */
+    private double freshnessWeight = 0.2;
+
+    /**
+     * 计算互动热度时一次点赞的分值
+     */
+    private double likeWeight = 1.0;
+
+    /**
+     * 计算互动热度时一次收藏的分值
+     */
+    private double collectWeight = 2.0;
+
+    /**
+     * 计算互动热度时一条评论的分值
+     */
+    private double commentWeight = 1.5;
+
+    /**
+     * 新鲜度的半衰期（天），发布满该天数的笔记新鲜度为 0.5
+     */
+    private double freshnessHalfLifeDays = 30;
+}
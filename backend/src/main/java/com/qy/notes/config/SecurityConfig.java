@@ -1,5 +1,6 @@
 package com.qy.notes.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -49,8 +50,14 @@ public class SecurityConfig {
         return source;
     }
 
+    /**
+     * BCrypt 的计算成本（log2 轮数），调整后已有用户在下次登录时按新成本重新哈希
+     */
+    @Value("${notes.password-hash.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 }
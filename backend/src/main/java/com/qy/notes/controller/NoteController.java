@@ -6,6 +6,7 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -13,7 +14,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.qy.notes.model.base.ApiResponse;
 import com.qy.notes.model.base.EmptyVO;
@@ -26,6 +29,7 @@ import com.qy.notes.model.vo.note.NoteHeatMapItem;
 import com.qy.notes.model.vo.note.NoteRankListItem;
 import com.qy.notes.model.vo.note.NoteVO;
 import com.qy.notes.model.vo.note.Top3Count;
+import com.qy.notes.service.NoteExportService;
 import com.qy.notes.service.NoteService;
 
 import lombok.extern.log4j.Log4j2;
@@ -42,6 +46,9 @@ public class NoteController {
     @Autowired
     private NoteService noteService;
 
+    @Autowired
+    private NoteExportService noteExportService;
+
     /**
      * 查询笔记列表
      *
@@ -102,12 +109,27 @@ public class NoteController {
         return noteService.downloadNote();
     }
 
+    /**
+     * 流式导出笔记
+     *
+     * @param format markdown：单个 Markdown 文件；zip：每个一级分类一个 Markdown 文件
+     * @return 直接写入响应的文件内容
+     */
+    @GetMapping("/notes/export")
+    public ResponseEntity<StreamingResponseBody> exportNotes(
+            @RequestParam(defaultValue = "markdown") String format) {
+        return noteExportService.exportNotes(format);
+    }
+
     /**
      * 提交笔记排行榜
+     *
+     * @param window 统计范围：day（今天，默认）、week（本周）、month（本月）
      */
     @GetMapping("/notes/ranklist")
-    public ApiResponse<List<NoteRankListItem>> submitNoteRank() {
-        return noteService.submitNoteRank();
+    public ApiResponse<List<NoteRankListItem>> submitNoteRank(
+            @RequestParam(defaultValue = "day") String window) {
+        return noteService.submitNoteRank(window);
     }
 
     /**
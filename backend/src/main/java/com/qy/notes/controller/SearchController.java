@@ -1,8 +1,9 @@
 package com.qy.notes.controller;
 
 import com.qy.notes.model.base.ApiResponse;
-import com.qy.notes.model.entity.Note;
 import com.qy.notes.model.entity.User;
+import com.qy.notes.model.vo.comment.CommentSearchGroupVO;
+import com.qy.notes.model.vo.note.NoteSearchHitVO;
 import com.qy.notes.service.SearchService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
@@ -18,7 +19,7 @@ public class SearchController {
     private final SearchService searchService;
 
     @GetMapping("/notes")
-    public ApiResponse<List<Note>> searchNotes(
+    public ApiResponse<List<NoteSearchHitVO>> searchNotes(
             @RequestParam String keyword,
             @RequestParam(defaultValue = "1") @Min(1) Integer page,
             @RequestParam(defaultValue = "20") @Min(1) Integer pageSize) {
@@ -34,11 +35,19 @@ public class SearchController {
     }
 
     @GetMapping("/notes/tag")
-    public ApiResponse<List<Note>> searchNotesByTag(
+    public ApiResponse<List<NoteSearchHitVO>> searchNotesByTag(
             @RequestParam String keyword,
             @RequestParam String tag,
             @RequestParam(defaultValue = "1") @Min(1) Integer page,
             @RequestParam(defaultValue = "20") @Min(1) Integer pageSize) {
         return searchService.searchNotesByTag(keyword, tag, page, pageSize);
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/comments")
+    public ApiResponse<List<CommentSearchGroupVO>> searchComments(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "1") @Min(1) Integer page,
+            @RequestParam(defaultValue = "20") @Min(1) Integer pageSize) {
+        return searchService.searchComments(keyword, page, pageSize);
+    }
+}
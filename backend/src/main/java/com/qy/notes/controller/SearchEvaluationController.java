@@ -0,0 +1,31 @@
+package com.qy.notes.controller;
+
+import com.qy.notes.model.base.ApiResponse;
+import com.qy.notes.model.dto.search.RankingEvaluationParams;
+import com.qy.notes.model.vo.search.RankingEvaluationVO;
+import com.qy.notes.service.SearchService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class SearchEvaluationController {
+
+    private final SearchService searchService;
+
+    /**
+     * 管理端离线评估搜索排序
+     * 重放最近的热门查询，比较当前权重与候选权重，调整 notes.search.ranking 前先确认效果
+     *
+     * @param params 统计区间、查询数及候选权重
+     * @return 评估结果
+     */
+    @GetMapping("/admin/search/ranking-evaluation")
+    public ApiResponse<RankingEvaluationVO> evaluateRanking(@Valid RankingEvaluationParams params) {
+        return searchService.evaluateRanking(params);
+    }
+}
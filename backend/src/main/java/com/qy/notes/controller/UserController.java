@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.qy.notes.model.base.ApiResponse;
+import com.qy.notes.model.base.EmptyVO;
 import com.qy.notes.model.dto.user.LoginRequest;
 import com.qy.notes.model.dto.user.RegisterRequest;
 import com.qy.notes.model.dto.user.UpdateUserRequest;
@@ -80,6 +81,28 @@ public class UserController {
         return userService.whoami();
     }
 
+    /**
+     * 退出登录接口
+     * 吊销本次请求携带的 token，只退出当前设备
+     *
+     * @return 返回退出结果
+     */
+    @PostMapping("/users/logout")
+    public ApiResponse<EmptyVO> logout() {
+        return userService.logout();
+    }
+
+    /**
+     * 退出所有设备接口
+     * 吊销当前用户已签发的所有 token，其他设备上的登录状态同时失效
+     *
+     * @return 返回退出结果
+     */
+    @PostMapping("/users/logout-all")
+    public ApiResponse<EmptyVO> logoutAll() {
+        return userService.logoutAll();
+    }
+
     /**
      * 查询用户信息接口
      * 根据用户ID查询用户信息，验证ID格式并调用userService获取用户详情
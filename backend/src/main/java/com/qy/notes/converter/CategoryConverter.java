@@ -0,0 +1,18 @@
+package com.qy.notes.converter;
+
+import com.qy.notes.model.entity.Category;
+import com.qy.notes.model.vo.category.CategoryVO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * 分类相关的 VO 映射
+ */
+@Mapper(config = ConverterConfig.class)
+public interface CategoryConverter {
+
+    @Mapping(target = "children", ignore = true)
+    CategoryVO toCategoryVO(Category category);
+
+    CategoryVO.ChildrenCategoryVO toChildrenCategoryVO(Category category);
+}
@@ -0,0 +1,17 @@
+package com.qy.notes.converter;
+
+import org.mapstruct.MapperConfig;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * 对象映射的公共配置
+ * 映射代码在编译期生成，运行时只是普通的 getter / setter 调用，不再依赖反射
+ * 与原先的 BeanUtils.copyProperties 一致，只复制同名属性，目标中多出的属性保持默认值
+ */
+@MapperConfig(
+        componentModel = MappingConstants.ComponentModel.SPRING,
+        unmappedTargetPolicy = ReportingPolicy.IGNORE
+)
+public interface ConverterConfig {
+}
@@ -0,0 +1,42 @@
+package com.qy.notes.converter;
+
+import com.qy.notes.model.entity.Note;
+import com.qy.notes.model.entity.Question;
+import com.qy.notes.model.entity.User;
+import com.qy.notes.model.vo.note.NoteSearchHitVO;
+import com.qy.notes.model.vo.note.NoteVO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * 笔记相关的 VO 映射
+ */
+@Mapper(config = ConverterConfig.class)
+public interface NoteConverter {
+
+    /**
+     * 作者、问题、用户行为需要调用方另行填充
+     */
+    @Mapping(target = "author", ignore = true)
+    @Mapping(target = "question", ignore = true)
+    @Mapping(target = "userActions", ignore = true)
+    NoteVO toNoteVO(Note note);
+
+    NoteVO.SimpleAuthorVO toSimpleAuthorVO(User user);
+
+    NoteVO.SimpleQuestionVO toSimpleQuestionVO(Question question);
+
+    /**
+     * 片段和高亮位置需要调用方根据检索词生成
+     */
+    @Mapping(target = "snippet", ignore = true)
+    @Mapping(target = "snippetStartOmitted", ignore = true)
+    @Mapping(target = "snippetEndOmitted", ignore = true)
+    @Mapping(target = "highlights", ignore = true)
+    NoteSearchHitVO toNoteSearchHitVO(Note note);
+
+    /**
+     * 浅拷贝，嵌套的作者、问题对象与原对象共享
+     */
+    NoteVO copy(NoteVO noteVO);
+}
@@ -0,0 +1,39 @@
+package com.qy.notes.converter;
+
+import com.qy.notes.model.entity.Note;
+import com.qy.notes.model.entity.Question;
+import com.qy.notes.model.vo.question.QuestionNoteVO;
+import com.qy.notes.model.vo.question.QuestionUserVO;
+import com.qy.notes.model.vo.question.QuestionVO;
+import com.qy.notes.model.vo.questionListItem.QuestionListItemUserVO;
+import com.qy.notes.model.vo.questionListItem.QuestionListItemVO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+/**
+ * 题目及题单项相关的 VO 映射
+ */
+@Mapper(config = ConverterConfig.class)
+public interface QuestionConverter {
+
+    QuestionVO toQuestionVO(Question question);
+
+    /**
+     * 用户完成状态需要调用方另行填充
+     */
+    @Mapping(target = "userQuestionStatus", ignore = true)
+    QuestionUserVO toQuestionUserVO(Question question);
+
+    @Mapping(target = "userNote", ignore = true)
+    QuestionNoteVO toQuestionNoteVO(Question question);
+
+    /**
+     * 将用户笔记的 noteId、内容写入已有的 UserNote，finished 由调用方设置
+     */
+    @Mapping(target = "finished", ignore = true)
+    void updateUserNote(Note note, @MappingTarget QuestionNoteVO.UserNote userNote);
+
+    @Mapping(target = "userQuestionStatus", ignore = true)
+    QuestionListItemUserVO toQuestionListItemUserVO(QuestionListItemVO questionListItemVO);
+}
@@ -0,0 +1,20 @@
+package com.qy.notes.converter;
+
+import com.qy.notes.model.entity.User;
+import com.qy.notes.model.vo.user.LoginUserVO;
+import com.qy.notes.model.vo.user.RegisterVO;
+import com.qy.notes.model.vo.user.UserVO;
+import org.mapstruct.Mapper;
+
+/**
+ * 用户相关的 VO 映射
+ */
+@Mapper(config = ConverterConfig.class)
+public interface UserConverter {
+
+    UserVO toUserVO(User user);
+
+    LoginUserVO toLoginUserVO(User user);
+
+    RegisterVO toRegisterVO(User user);
+}
@@ -0,0 +1,50 @@
+package com.qy.notes.event;
+
+import com.qy.notes.model.entity.Note;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 笔记变更事件
+ * 笔记发布、更新、删除以及点赞 / 收藏 / 评论数变化时发布，用于维护缓存和索引
+ */
+@Getter
+public class NoteEvent extends ApplicationEvent {
+
+    public static final String CREATE = "CREATE";
+    public static final String UPDATE = "UPDATE";
+    public static final String DELETE = "DELETE";
+    public static final String ENGAGEMENT = "ENGAGEMENT";
+
+    private final Integer noteId;
+
+    /**
+     * 变更后的笔记（删除时为删除前的笔记），互动数变化时可能为 null
+     */
+    private final Note note;
+
+    private final String eventType;
+
+    public NoteEvent(Object source, Integer noteId, Note note, String eventType) {
+        super(source);
+        this.noteId = noteId;
+        this.note = note;
+        this.eventType = eventType;
+    }
+
+    public static NoteEvent createEvent(Object source, Note note) {
+        return new NoteEvent(source, note.getNoteId(), note, CREATE);
+    }
+
+    public static NoteEvent updateEvent(Object source, Note note) {
+        return new NoteEvent(source, note.getNoteId(), note, UPDATE);
+    }
+
+    public static NoteEvent deleteEvent(Object source, Note note) {
+        return new NoteEvent(source, note.getNoteId(), note, DELETE);
+    }
+
+    public static NoteEvent engagementEvent(Object source, Integer noteId) {
+        return new NoteEvent(source, noteId, null, ENGAGEMENT);
+    }
+}
@@ -7,8 +7,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import com.qy.notes.cache.VerifiedTokenCache;
 import com.qy.notes.scope.RequestScopeData;
-import com.qy.notes.utils.JwtUtil;
 
 @Component
 public class TokenInterceptor implements HandlerInterceptor
@@ -17,7 +17,7 @@ public class TokenInterceptor implements HandlerInterceptor
     private RequestScopeData requestScopeData;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -36,8 +36,9 @@ public class TokenInterceptor implements HandlerInterceptor
 
         token = token.replace("Bearer ", "");
 
-        if (jwtUtil.validateToken(token)) {
-            Long userId = jwtUtil.getUserIdFromToken(token);
+        // 验证与取出用户ID只解析一次 token，已验证过的 token 直接命中缓存
+        Long userId = verifiedTokenCache.getUserId(token);
+        if (userId != null) {
             requestScopeData.setUserId(userId);
             requestScopeData.setToken(token);
             requestScopeData.setLogin(true);
@@ -0,0 +1,108 @@
+package com.qy.notes.listener;
+
+import com.qy.notes.cache.NoteLeaderboard;
+import com.qy.notes.cache.NoteListCache;
+import com.qy.notes.cache.TotalCountCache;
+import com.qy.notes.event.NoteEvent;
+import com.qy.notes.model.entity.Note;
+import com.qy.notes.search.CommentSearchIndex;
+import com.qy.notes.search.NoteFeatureCache;
+import com.qy.notes.search.NoteSearchIndex;
+import com.qy.notes.search.NoteTagIndex;
+import com.qy.notes.task.NoteDailyRankTask;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+
+/**
+ * 笔记变更事件监听器
+ * 在事务提交后维护笔记相关的缓存、搜索索引、搜索排序特征和搜索结果缓存
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NoteEventListener {
+
+    private final NoteListCache noteListCache;
+
+    private final TotalCountCache totalCountCache;
+
+    private final NoteDailyRankTask noteDailyRankTask;
+
+    private final NoteLeaderboard noteLeaderboard;
+
+    private final NoteSearchIndex noteSearchIndex;
+
+    private final NoteTagIndex noteTagIndex;
+
+    private final NoteFeatureCache noteFeatureCache;
+
+    private final CommentSearchIndex commentSearchIndex;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleNoteEvent(NoteEvent event) {
+        Integer noteId = event.getNoteId();
+
+        // 各项维护互不依赖，单独处理异常，一项失败不影响其他项
+        // 互动数、发布 / 删除都会改变搜索排序使用的特征
+        runSafely("标记搜索排序特征", noteId, () -> noteFeatureCache.markDirty(noteId));
+
+        switch (event.getEventType()) {
+            // 发布 / 删除会改变分页结构，整体失效
+            case NoteEvent.CREATE, NoteEvent.DELETE -> {
+                runSafely("失效笔记列表缓存", noteId, () -> {
+                    noteListCache.bumpGeneration();
+                    totalCountCache.evict(TotalCountCache.NOTE);
+                });
+
+                runSafely("更新笔记排行", noteId, () -> {
+                    LocalDate noteDate = noteDate(event);
+                    noteDailyRankTask.markDirty(noteDate);
+                    if (event.getNote() != null) {
+                        int delta = NoteEvent.CREATE.equals(event.getEventType()) ? 1 : -1;
+                        noteLeaderboard.increment(noteDate, event.getNote().getAuthorId(), delta);
+                    }
+                });
+
+                // 索引由后台批量刷新，刷新后删除受影响的搜索结果缓存
+                runSafely("标记搜索索引", noteId, () -> noteSearchIndex.markDirty(noteId));
+
+                if (NoteEvent.DELETE.equals(event.getEventType())) {
+                    runSafely("更新标签索引", noteId, () -> noteTagIndex.onNoteDeleted(noteId));
+                    // 评论随笔记级联删除
+                    runSafely("更新评论搜索索引", noteId, () -> commentSearchIndex.removeNote(noteId));
+                }
+            }
+            // 内容变化只影响包含该笔记的列表页，并重新索引该笔记
+            case NoteEvent.UPDATE -> {
+                runSafely("失效笔记列表缓存", noteId, () -> noteListCache.evictNote(noteId));
+                runSafely("标记搜索索引", noteId, () -> noteSearchIndex.markDirty(noteId));
+            }
+            // 互动数变化只影响包含该笔记的列表页
+            default -> runSafely("失效笔记列表缓存", noteId, () -> noteListCache.evictNote(noteId));
+        }
+    }
+
+    private void runSafely(String step, Integer noteId, Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.error("处理笔记变更事件时{}失败, noteId={}", step, noteId, e);
+        }
+    }
+
+    /**
+     * 笔记的发布日期，刚发布的笔记 createdAt 由数据库生成，实体中为空，按今天处理
+     */
+    private LocalDate noteDate(NoteEvent event) {
+        Note note = event.getNote();
+        if (note == null || note.getCreatedAt() == null) {
+            return LocalDate.now();
+        }
+        return note.getCreatedAt().toLocalDate();
+    }
+}
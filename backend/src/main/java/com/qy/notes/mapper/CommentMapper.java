@@ -88,4 +88,22 @@ public interface CommentMapper {
      * @param commentId 评论ID
      */
     void decrementReplyCount(Integer commentId);
-} 
\ No newline at end of file
+
+    /**
+     * 根据ID批量查询评论，已删除的评论不返回
+     *
+     * @param commentIds 评论ID列表
+     * @return 评论列表
+     */
+    List<Comment> findByIds(@Param("commentIds") List<Integer> commentIds);
+
+    /**
+     * 按 comment_id 分批读取评论，用于构建评论搜索索引
+     *
+     * @param afterCommentId 上一批最后一条评论的ID，第一批传 0
+     * @param limit          本批数量
+     * @return 评论列表，按 comment_id 升序
+     */
+    List<Comment> findAfterId(@Param("afterCommentId") Integer afterCommentId,
+                              @Param("limit") int limit);
+}
@@ -0,0 +1,101 @@
+package com.qy.notes.mapper;
+
+import com.qy.notes.model.vo.note.NoteHeatMapItem;
+import com.qy.notes.model.vo.note.NoteRankListItem;
+import com.qy.notes.model.vo.note.Top3Count;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Mapper
+public interface NoteDailyAuthorCountMapper {
+
+    /**
+     * 作者当天的笔记数加一，当天第一条笔记时插入新行
+     *
+     * @param noteDate 笔记发布日期
+     * @param authorId 作者ID
+     * @return 影响的行数
+     */
+    int increment(@Param("noteDate") LocalDate noteDate, @Param("authorId") Long authorId);
+
+    /**
+     * 作者当天的笔记数减一，不会减到负数
+     *
+     * @param noteDate 被删除笔记的发布日期
+     * @param authorId 作者ID
+     * @return 影响的行数
+     */
+    int decrement(@Param("noteDate") LocalDate noteDate, @Param("authorId") Long authorId);
+
+    /**
+     * 删除日期范围内笔记数已经减为 0 的行
+     */
+    int deleteEmpty(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * 重新计算日期范围内每天的排名
+     */
+    int refreshRanks(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * 删除日期范围内的统计，重建前使用
+     */
+    int deleteRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * 根据 note 表重新聚合日期范围内的每日笔记数（不含排名）
+     */
+    int rebuildRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * 统计表中是否已有数据
+     *
+     * @return 有数据时返回 1，否则返回 null
+     */
+    Integer existsAny();
+
+    /**
+     * 最早一条笔记的发布日期
+     *
+     * @return 没有任何笔记时返回 null
+     */
+    LocalDate findEarliestNoteDate();
+
+    /**
+     * 查询某天所有作者的笔记数，用于重建排行榜
+     *
+     * @return 只填充 userId 和 noteCount
+     */
+    List<NoteRankListItem> findAuthorCountsByDate(@Param("noteDate") LocalDate noteDate);
+
+    /**
+     * 按日期范围内的笔记总数查询前 limit 名作者，排行榜缓存不可用时使用
+     *
+     * @return 只填充 userId 和 noteCount，按笔记数降序
+     */
+    List<NoteRankListItem> findTopAuthors(@Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate,
+                                          @Param("limit") int limit);
+
+    /**
+     * 查询用户在日期范围内每天的笔记数和排名
+     */
+    List<NoteHeatMapItem> findHeatMap(@Param("authorId") Long authorId,
+                                      @Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate);
+
+    /**
+     * 统计用户上个月、本月进入当日前三的天数
+     *
+     * @param lastMonthStart 上个月第一天
+     * @param thisMonthStart 本月第一天
+     * @param thisMonthEnd   本月最后一天
+     */
+    Top3Count countTop3(@Param("authorId") Long authorId,
+                        @Param("lastMonthStart") LocalDate lastMonthStart,
+                        @Param("thisMonthStart") LocalDate thisMonthStart,
+                        @Param("thisMonthEnd") LocalDate thisMonthEnd);
+}
@@ -2,12 +2,12 @@ package com.qy.notes.mapper;
 
 import com.qy.notes.model.dto.note.NoteQueryParams;
 import com.qy.notes.model.entity.Note;
-import com.qy.notes.model.vo.note.NoteHeatMapItem;
-import com.qy.notes.model.vo.note.NoteRankListItem;
-import com.qy.notes.model.vo.note.Top3Count;
+import com.qy.notes.model.vo.note.NoteExportItem;
+import com.qy.notes.model.vo.note.NoteSearchDocument;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 
@@ -41,6 +41,20 @@ public interface NoteMapper {
                                  @Param("offset") int offset,
                                  @Param("limit") int limit);
 
+    /**
+     * 根据查询参数按游标获取笔记列表（按 created_at, note_id 定位，不使用 OFFSET）
+     *
+     * @param params          查询参数，用于过滤笔记
+     * @param cursorCreatedAt 上一页最后一条笔记的创建时间，为 null 时从第一页开始
+     * @param cursorNoteId    上一页最后一条笔记的ID
+     * @param limit           查询条数
+     * @return 笔记列表
+     */
+    List<Note> findByCursor(@Param("params") NoteQueryParams params,
+                            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                            @Param("cursorNoteId") Integer cursorNoteId,
+                            @Param("limit") int limit);
+
     /**
      * 根据用户ID和问题ID查询笔记
      *
@@ -58,6 +72,26 @@ public interface NoteMapper {
      */
     List<Note> findByAuthorId(@Param("authorId") Long authorId);
 
+    /**
+     * 按 note_id 分批读取用户笔记的导出索引（题目、分类、标题），不读取笔记内容
+     *
+     * @param authorId    用户ID
+     * @param afterNoteId 上一批最后一条笔记的ID，第一批传 0
+     * @param limit       本批数量
+     * @return 导出索引，按 note_id 升序
+     */
+    List<NoteExportItem> findExportIndexByAuthorId(@Param("authorId") Long authorId,
+                                                   @Param("afterNoteId") Integer afterNoteId,
+                                                   @Param("limit") int limit);
+
+    /**
+     * 批量查询笔记内容，只返回 noteId 和 content
+     *
+     * @param noteIds 笔记ID列表
+     * @return 笔记列表
+     */
+    List<Note> findContentByIds(@Param("noteIds") List<Integer> noteIds);
+
 
     /**
      * 根据用户ID和问题ID列表，过滤出用户已完成的问题ID列表
@@ -85,6 +119,28 @@ public interface NoteMapper {
      */
     int update(Note note);
 
+    /**
+     * 分批查询尚未生成预览的笔记（仅包含 noteId 和 content）
+     *
+     * @param afterNoteId 上一批最后一条笔记的ID，按 note_id 递增遍历
+     * @param limit       每批数量
+     * @return 尚未生成预览的笔记列表
+     */
+    List<Note> findPreviewMissing(@Param("afterNoteId") Integer afterNoteId,
+                                  @Param("limit") int limit);
+
+    /**
+     * 回填笔记预览信息，只更新尚未生成预览的笔记
+     *
+     * @param noteId         笔记ID
+     * @param needCollapsed  是否需要折叠
+     * @param displayContent 折叠时展示的简介
+     * @return 更新成功记录数，期间笔记已被更新（预览已由 updateNote 写入）时为 0
+     */
+    int updatePreview(@Param("noteId") Integer noteId,
+                      @Param("needCollapsed") Boolean needCollapsed,
+                      @Param("displayContent") String displayContent);
+
     /**
      * 点赞笔记
      *
@@ -125,27 +181,6 @@ public interface NoteMapper {
      */
     int deleteById(@Param("noteId") Integer noteId);
 
-    /**
-     * 每日笔记提交数排行榜
-     *
-     * @return 排行榜数组
-     */
-    List<NoteRankListItem> submitNoteRank();
-
-    /**
-     * 提交热力图
-     *
-     * @return 用户提交热力图信息
-     */
-    List<NoteHeatMapItem> submitNoteHeatMap(@Param("authorId") Long authorId);
-
-    /**
-     * 用户提交 top3Count
-     *
-     * @return 用户提交 top3Count
-     */
-    Top3Count submitNoteTop3Count(@Param("authorId") Long authorId);
-
     /**
      * 当日笔记数
      *
@@ -180,28 +215,46 @@ public interface NoteMapper {
     void decrementCommentCount(@Param("noteId") Integer noteId);
 
     /**
-     * 搜索笔记
+     * 批量查询笔记，返回顺序不确定
      *
-     * @param keyword 关键词
-     * @param limit 限制数量
-     * @param offset 偏移量
+     * @param noteIds 笔记ID列表
      * @return 笔记列表
      */
-    List<Note> searchNotes(@Param("keyword") String keyword,
-                          @Param("limit") int limit,
-                          @Param("offset") int offset);
+    List<Note> findByIds(@Param("noteIds") List<Integer> noteIds);
 
     /**
-     * 根据标签搜索笔记
+     * 按 note_id 分批读取搜索索引的文档（笔记内容及题目标题）
      *
-     * @param keyword 关键词
-     * @param tag 标签
-     * @param limit 限制数量
-     * @param offset 偏移量
-     * @return 笔记列表
+     * @param afterNoteId 上一批最后一条笔记的ID，第一批传 0
+     * @param limit       本批数量
+     * @return 文档列表，按 note_id 升序
+     */
+    List<NoteSearchDocument> findSearchDocuments(@Param("afterNoteId") Integer afterNoteId,
+                                                 @Param("limit") int limit);
+
+    /**
+     * 根据笔记ID批量读取搜索索引的文档，已删除的笔记不返回
+     *
+     * @param noteIds 笔记ID列表
+     * @return 文档列表
+     */
+    List<NoteSearchDocument> findSearchDocumentsByIds(@Param("noteIds") List<Integer> noteIds);
+
+    /**
+     * 按 note_id 分批读取搜索排序使用的特征（点赞数、收藏数、评论数、发布时间）
+     *
+     * @param afterNoteId 上一批最后一条笔记的ID，第一批传 0
+     * @param limit       本批数量
+     * @return 只填充了上述字段的笔记，按 note_id 升序
+     */
+    List<Note> findRankingFeatures(@Param("afterNoteId") Integer afterNoteId,
+                                   @Param("limit") int limit);
+
+    /**
+     * 根据笔记ID批量读取搜索排序使用的特征，已删除的笔记不返回
+     *
+     * @param noteIds 笔记ID列表
+     * @return 只填充了点赞数、收藏数、评论数、发布时间的笔记
      */
-    List<Note> searchNotesByTag(@Param("keyword") String keyword,
-                               @Param("tag") String tag,
-                               @Param("limit") int limit,
-                               @Param("offset") int offset);
+    List<Note> findRankingFeaturesByIds(@Param("noteIds") List<Integer> noteIds);
 }
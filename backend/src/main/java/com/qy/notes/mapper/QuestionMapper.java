@@ -47,12 +47,11 @@ public interface QuestionMapper {
                                     @Param("limit") int limit);
 
     /**
-     * 根据关键字搜索问题
+     * 查询所有问题，用于构建题目联想索引
      *
-     * @param keyword 关键字，用于匹配问题标题或内容
-     * @return 匹配关键字的问题列表
+     * @return 所有问题
      */
-    List<Question> findByKeyword(@Param("keyword") String keyword);
+    List<Question> findAll();
 
     /**
      * 更新问题
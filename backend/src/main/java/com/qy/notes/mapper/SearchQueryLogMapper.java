@@ -0,0 +1,31 @@
+package com.qy.notes.mapper;
+
+import com.qy.notes.model.entity.SearchQueryLog;
+import com.qy.notes.model.vo.search.SearchQueryCount;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface SearchQueryLogMapper {
+
+    /**
+     * 批量写入搜索日志
+     *
+     * @param logs 日志列表
+     * @return 写入的行数
+     */
+    int insertBatch(@Param("logs") List<SearchQueryLog> logs);
+
+    /**
+     * 统计某个时间之后搜索次数最多的笔记查询（包括按标签搜索），用于启动时恢复热门查询
+     *
+     * @param since 起始时间
+     * @param limit 条数
+     * @return 按搜索次数从高到低排序的查询
+     */
+    List<SearchQueryCount> findTopNoteQueries(@Param("since") LocalDateTime since,
+                                              @Param("limit") int limit);
+}
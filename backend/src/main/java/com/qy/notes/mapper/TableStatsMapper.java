@@ -0,0 +1,16 @@
+package com.qy.notes.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+@Mapper
+public interface TableStatsMapper {
+    /**
+     * 从 information_schema 读取表的估算行数，不扫描数据
+     * InnoDB 的该值来自采样统计，误差可能较大，只能用于展示
+     *
+     * @param tableName 当前库中的表名
+     * @return 估算行数，表不存在时返回 null
+     */
+    Long estimateRowCount(@Param("tableName") String tableName);
+}
@@ -0,0 +1,35 @@
+package com.qy.notes.mapper;
+
+import com.qy.notes.model.entity.NoteTag;
+import com.qy.notes.model.entity.Tag;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface TagMapper {
+    /**
+     * 查询所有标签名称（去重），用于构建分词的自定义词典
+     *
+     * @return 标签名称列表
+     */
+    List<String> findAllNames();
+
+    /**
+     * 查询所有标签，用于构建标签索引
+     *
+     * @return 标签列表
+     */
+    List<Tag> findAll();
+
+    /**
+     * 按 id 分批读取笔记-标签关联，用于构建标签索引
+     *
+     * @param afterId 上一批最后一条关联的ID，第一批传 0
+     * @param limit   本批数量
+     * @return 关联列表，按 id 升序
+     */
+    List<NoteTag> findNoteTagsAfterId(@Param("afterId") Integer afterId,
+                                      @Param("limit") int limit);
+}
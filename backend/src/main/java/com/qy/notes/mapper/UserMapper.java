@@ -5,7 +5,9 @@ import com.qy.notes.model.entity.User;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * UserMapper接口定义了用户数据访问对象（DAO）的方法
@@ -85,11 +87,25 @@ public interface UserMapper {
     int update(User user);
 
     /**
-     * 更新用户在线时间
+     * 更新密码哈希，用于登录时按新的 BCrypt 成本重新哈希
+     * 只在旧哈希未被修改时更新，避免覆盖并发修改的密码
      *
-     * @param userId 用户ID，用于标识需要更新在线时间的用户
+     * @param userId      用户ID
+     * @param oldPassword 旧的密码哈希
+     * @param newPassword 新的密码哈希
+     * @return 影响的行数
      */
-    int updateLastLoginAt(@Param("userId") Long userId);
+    int updatePassword(@Param("userId") Long userId,
+                       @Param("oldPassword") String oldPassword,
+                       @Param("newPassword") String newPassword);
+
+    /**
+     * 批量更新用户在线时间
+     *
+     * @param logins 用户ID -> 最后登录时间
+     * @return 影响的行数
+     */
+    int updateLastLoginAtBatch(@Param("logins") Map<Long, LocalDateTime> logins);
 
     /**
      * 绑定手机号
@@ -126,7 +142,17 @@ public interface UserMapper {
     User findByEmail(@Param("email") String email);
 
     /**
-     * 搜索用户
+     * 按 user_id 分批读取用户，用于重建用户搜索索引
+     *
+     * @param afterUserId 上一批最后一个用户的ID，第一批传 0
+     * @param limit       本批数量
+     * @return 用户列表，按 user_id 升序
+     */
+    List<User> findAfterId(@Param("afterUserId") Long afterUserId,
+                           @Param("limit") int limit);
+
+    /**
+     * 搜索用户，用户搜索索引重建完成前使用
      *
      * @param keyword 关键词
      * @param limit 限制数量
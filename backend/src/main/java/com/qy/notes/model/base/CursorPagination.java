@@ -0,0 +1,28 @@
+package com.qy.notes.model.base;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 游标分页信息
+ * 在 Pagination 的基础上携带下一页游标，total 仅在请求方要求时才返回
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class CursorPagination extends Pagination {
+    /**
+     * 下一页游标，为 null 表示已经没有更多数据
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有下一页
+     */
+    private Boolean hasMore;
+
+    public CursorPagination(Integer pageSize, Integer total, String nextCursor, Boolean hasMore) {
+        super(null, pageSize, total);
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+}
@@ -9,4 +9,13 @@ public class Pagination {
     private Integer page;  // 当前页码
     private Integer pageSize;  // 每页显示的记录数
     private Integer total;  // 总记录数
+    private Boolean estimated;  // total 是否为估算值
+
+    public Pagination(Integer page, Integer pageSize, Integer total) {
+        this(page, pageSize, total, false);
+    }
+
+    public Pagination(Integer page, Integer pageSize, TotalCount totalCount) {
+        this(page, pageSize, totalCount.getTotal(), totalCount.getEstimated());
+    }
 }
@@ -0,0 +1,22 @@
+package com.qy.notes.model.base;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 列表总数，estimated 为 true 时 total 来自表统计信息，只是近似值
+ */
+@Data
+@AllArgsConstructor
+public class TotalCount {
+    private Integer total;
+    private Boolean estimated;
+
+    public static TotalCount exact(Integer total) {
+        return new TotalCount(total, false);
+    }
+
+    public static TotalCount estimated(Integer total) {
+        return new TotalCount(total, true);
+    }
+}
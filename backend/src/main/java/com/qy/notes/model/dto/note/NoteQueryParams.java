@@ -78,4 +78,17 @@ public class NoteQueryParams {
     @Min(value = 1, message = "每页大小必须大于等于1")
     @Max(value = 200, message = "每页大小不能超过100")
     private Integer pageSize = 10;
+
+    /*
+     * 游标
+     * 传入该参数即启用游标分页（按 created_at, note_id 定位），此时忽略 page 参数。
+     * 首次请求传空字符串，后续请求传上一页返回的 nextCursor。
+     */
+    private String cursor;
+
+    /*
+     * 游标分页时是否返回总数
+     * 默认不返回，避免每次翻页都执行 COUNT(*)。
+     */
+    private Boolean withTotal = false;
 }
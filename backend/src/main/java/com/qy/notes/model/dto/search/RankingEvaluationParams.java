@@ -0,0 +1,50 @@
+package com.qy.notes.model.dto.search;
+
+import lombok.Data;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+/**
+ * 搜索排序离线评估参数
+ * 权重未指定时沿用当前配置（notes.search.ranking）
+ */
+@Data
+public class RankingEvaluationParams {
+
+    /*
+     * 统计最近几天的搜索日志
+     */
+    @Min(value = 1, message = "days 必须大于等于 1")
+    @Max(value = 30, message = "days 必须小于等于 30")
+    private Integer days = 7;
+
+    /*
+     * 最多重放的查询数
+     */
+    @Min(value = 1, message = "queryLimit 必须大于等于 1")
+    @Max(value = 1000, message = "queryLimit 必须小于等于 1000")
+    private Integer queryLimit = 200;
+
+    @DecimalMin(value = "0", message = "权重不能为负数")
+    private Double textWeight;
+
+    @DecimalMin(value = "0", message = "权重不能为负数")
+    private Double engagementWeight;
+
+    @DecimalMin(value = "0", message = "权重不能为负数")
+    private Double freshnessWeight;
+
+    @DecimalMin(value = "0", message = "权重不能为负数")
+    private Double likeWeight;
+
+    @DecimalMin(value = "0", message = "权重不能为负数")
+    private Double collectWeight;
+
+    @DecimalMin(value = "0", message = "权重不能为负数")
+    private Double commentWeight;
+
+    @DecimalMin(value = "0", inclusive = false, message = "半衰期必须大于 0")
+    private Double freshnessHalfLifeDays;
+}
@@ -48,6 +48,16 @@ public class Note {
      */
     private Integer collectCount;
 
+    /**
+     * 是否需要折叠，发布 / 更新笔记时计算
+     */
+    private Boolean needCollapsed;
+
+    /**
+     * 折叠时展示的简介，发布 / 更新笔记时计算
+     */
+    private String displayContent;
+
     /**
      * 创建时间
      */
@@ -0,0 +1,31 @@
+package com.qy.notes.model.entity;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 笔记-标签关联实体类
+ */
+@Data
+public class NoteTag {
+    /**
+     * 关联ID
+     */
+    private Integer id;
+
+    /**
+     * 笔记ID
+     */
+    private Integer noteId;
+
+    /**
+     * 标签ID
+     */
+    private Integer tagId;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+}
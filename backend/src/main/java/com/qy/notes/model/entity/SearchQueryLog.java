@@ -0,0 +1,51 @@
+package com.qy.notes.model.entity;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 搜索日志实体类
+ */
+@Data
+public class SearchQueryLog {
+
+    public static final String NOTE = "NOTE";
+    public static final String NOTE_TAG = "NOTE_TAG";
+    public static final String USER = "USER";
+
+    /**
+     * 日志ID
+     */
+    private Long id;
+
+    /**
+     * 搜索类型：NOTE / NOTE_TAG / USER
+     */
+    private String queryType;
+
+    /**
+     * 规范化后的查询：笔记搜索为去重排序后的检索词，以空格分隔；用户搜索为小写的关键词
+     */
+    private String query;
+
+    /**
+     * 按标签搜索时的标签
+     */
+    private String tag;
+
+    /**
+     * 命中的结果数
+     */
+    private Integer hitCount;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private Integer latencyMs;
+
+    /**
+     * 搜索时间
+     */
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,36 @@
+package com.qy.notes.model.entity;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 标签实体类
+ */
+@Data
+public class Tag {
+    /**
+     * 标签ID
+     */
+    private Integer id;
+
+    /**
+     * 标签名称
+     */
+    private String name;
+
+    /**
+     * 创建标签的用户ID
+     */
+    private Long userId;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
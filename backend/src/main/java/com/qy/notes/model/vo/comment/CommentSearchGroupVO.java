@@ -0,0 +1,26 @@
+package com.qy.notes.model.vo.comment;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 评论搜索结果，按笔记分组
+ */
+@Data
+public class CommentSearchGroupVO {
+    /**
+     * 笔记ID
+     */
+    private Integer noteId;
+
+    /**
+     * 该笔记下命中的评论总数
+     */
+    private Integer hitCount;
+
+    /**
+     * 最相关的几条评论
+     */
+    private List<CommentSearchHitVO> comments;
+}
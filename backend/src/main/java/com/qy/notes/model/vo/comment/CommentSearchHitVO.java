@@ -0,0 +1,33 @@
+package com.qy.notes.model.vo.comment;
+
+import com.qy.notes.model.vo.note.NoteSearchHitVO;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 评论搜索结果中的一条评论，只返回命中位置附近的片段
+ */
+@Data
+public class CommentSearchHitVO {
+    private Integer commentId;
+    private Integer parentId;
+    private Integer likeCount;
+    private LocalDateTime createdAt;
+    private CommentVO.SimpleAuthorVO author;
+
+    /**
+     * 评论内容中与关键词最相关的一段
+     */
+    private String snippet;
+
+    private Boolean snippetStartOmitted;
+
+    private Boolean snippetEndOmitted;
+
+    /**
+     * 片段中需要高亮的位置
+     */
+    private List<NoteSearchHitVO.Highlight> highlights;
+}
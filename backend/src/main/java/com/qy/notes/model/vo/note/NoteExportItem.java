@@ -0,0 +1,14 @@
+package com.qy.notes.model.vo.note;
+
+import lombok.Data;
+
+/**
+ * 导出笔记时的索引项，只包含分组和标题所需的字段，不包含笔记内容
+ */
+@Data
+public class NoteExportItem {
+    private Integer noteId;
+    private Integer questionId;
+    private Integer categoryId;
+    private String title;
+}
@@ -0,0 +1,22 @@
+package com.qy.notes.model.vo.note;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 笔记列表页中与当前用户无关的部分，用于缓存
+ * notes 中不包含 userActions，由调用方按当前用户叠加
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteListPage {
+    private List<NoteVO> notes;
+    private Integer total;
+    private Boolean totalEstimated;
+    private String nextCursor;
+    private Boolean hasMore;
+}
@@ -0,0 +1,13 @@
+package com.qy.notes.model.vo.note;
+
+import lombok.Data;
+
+/**
+ * 构建笔记搜索索引时读取的文档：笔记内容及所属题目的标题
+ */
+@Data
+public class NoteSearchDocument {
+    private Integer noteId;
+    private String title;
+    private String content;
+}
@@ -0,0 +1,55 @@
+package com.qy.notes.model.vo.note;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 笔记搜索结果，不返回完整的笔记内容，只返回命中位置附近的片段及高亮位置
+ */
+@Data
+public class NoteSearchHitVO {
+    private Integer noteId;
+    private Integer questionId;
+    private Long authorId;
+    private Integer likeCount;
+    private Integer commentCount;
+    private Integer collectCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    /**
+     * 笔记内容中与关键词最相关的一段
+     */
+    private String snippet;
+
+    /**
+     * 片段之前是否还有内容
+     */
+    private Boolean snippetStartOmitted;
+
+    /**
+     * 片段之后是否还有内容
+     */
+    private Boolean snippetEndOmitted;
+
+    /**
+     * 片段中需要高亮的位置，按 start 升序且互不重叠
+     */
+    private List<Highlight> highlights;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Highlight {
+        /**
+         * 在 snippet 中的起始下标（UTF-16 字符）
+         */
+        private Integer start;
+
+        private Integer length;
+    }
+}
@@ -0,0 +1,89 @@
+package com.qy.notes.model.vo.search;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 搜索排序离线评估结果
+ * 各项指标按查询的搜索次数加权平均，反映真实流量下的效果
+ */
+@Data
+public class RankingEvaluationVO {
+
+    /**
+     * 参与评估的查询数（索引中没有结果的查询不计入）
+     */
+    private Integer queryCount;
+
+    /**
+     * 这些查询在统计区间内的总搜索次数
+     */
+    private Long searchCount;
+
+    /**
+     * 只按文本相关度（BM25）排序
+     */
+    private Metrics text;
+
+    /**
+     * 按当前配置的权重重排
+     */
+    private Metrics current;
+
+    /**
+     * 按候选权重重排
+     */
+    private Metrics candidate;
+
+    /**
+     * 候选权重与当前权重前 K 条结果的重合比例
+     */
+    private Double candidateOverlapWithCurrent;
+
+    /**
+     * 与当前权重相比前 K 条变化最大的查询
+     */
+    private List<QueryDiff> mostChangedQueries;
+
+    @Data
+    public static class Metrics {
+
+        /**
+         * 前 K 条与纯文本排序前 K 条的重合比例，越低说明偏离文本相关度越多
+         */
+        private Double overlapWithText;
+
+        /**
+         * 前 K 条的平均互动热度 log1p(点赞 + 收藏 + 评论)
+         */
+        private Double meanEngagement;
+
+        /**
+         * 前 K 条的平均发布天数
+         */
+        private Double meanAgeDays;
+
+        /**
+         * 单次重排的平均耗时（微秒），纯文本排序为 0
+         */
+        private Double meanRerankMicros;
+    }
+
+    @Data
+    public static class QueryDiff {
+
+        private String query;
+
+        private Long searchCount;
+
+        /**
+         * 候选权重与当前权重前 K 条结果的重合比例
+         */
+        private Double overlap;
+
+        private List<Integer> currentTopNoteIds;
+
+        private List<Integer> candidateTopNoteIds;
+    }
+}
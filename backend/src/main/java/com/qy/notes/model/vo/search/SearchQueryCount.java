@@ -0,0 +1,14 @@
+package com.qy.notes.model.vo.search;
+
+import lombok.Data;
+
+/**
+ * 查询及其搜索次数
+ */
+@Data
+public class SearchQueryCount {
+
+    private String query;
+
+    private Long searchCount;
+}
@@ -0,0 +1,502 @@
+package com.qy.notes.search;
+
+import com.qy.notes.mapper.CommentMapper;
+import com.qy.notes.model.entity.Comment;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 评论全文检索的进程内倒排索引
+ * <p>
+ * 分词与笔记索引相同，按 BM25 打分，查询结果按笔记分组：笔记得分为最相关评论的得分加上其余命中评论得分的 10%，
+ * 同一笔记下命中多条评论时排名靠前，但不会压过单条高度相关的评论。
+ * <p>
+ * 评论发布 / 修改 / 删除、笔记删除提交后只把评论ID、笔记ID放入本地的待刷新集合，不访问 Redis，不增加评论接口的耗时；
+ * 后台每 2 秒把本实例产生的变更合并为一条消息通过 Redis 发布订阅通知其他实例，各实例批量从数据库读取并更新自己的索引。
+ * 删除评论时数据库会级联删除其回复，刷新时一并从索引中移除。启动时及每天凌晨由 CommentSearchIndexTask 全量重建，修正丢失的通知
+ */
+@Log4j2
+@Component
+public class CommentSearchIndex {
+
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    /**
+     * 同一笔记下除最相关评论外，其余命中评论计入笔记得分的比例
+     */
+    private static final double EXTRA_HIT_WEIGHT = 0.1;
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private static final int REFRESH_BATCH_SIZE = 200;
+
+    /**
+     * 消息格式为 "评论ID,评论ID|笔记ID,笔记ID"，竖线前为需要刷新的评论，之后为已删除的笔记
+     */
+    private static final String CHANGE_CHANNEL = "search:comment:changed";
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private TextSegmenter textSegmenter;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private IndexData data = new IndexData();
+
+    private volatile boolean ready = false;
+
+    private final Set<Integer> dirtyCommentIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 已删除、待从索引中移除其评论的笔记
+     */
+    private final Set<Integer> removedNoteIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 本实例产生、尚未广播的变更；收到的广播只进入待刷新集合，不再转发
+     */
+    private final Set<Integer> unpublishedCommentIds = ConcurrentHashMap.newKeySet();
+
+    private final Set<Integer> unpublishedNoteIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 全量重建与增量刷新互斥，重建期间产生的变更在替换索引后再应用
+     */
+    private final Object maintenanceLock = new Object();
+
+    @PostConstruct
+    public void init() {
+        redisMessageListenerContainer.addMessageListener(
+                (message, pattern) -> onChangeMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CHANGE_CHANNEL));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 查询与关键词相关的评论，按笔记分组
+     *
+     * @param terms    查询词（由 TextSegmenter.tokenize 得到）
+     * @param maxNotes 最多返回的笔记数
+     * @return 按得分从高到低排序的分组
+     */
+    public List<NoteGroup> search(List<String> terms, int maxNotes) {
+        if (terms.isEmpty() || maxNotes <= 0) {
+            return Collections.emptyList();
+        }
+
+        Map<Integer, Double> scores = new HashMap<>();
+        Map<Integer, NoteGroup> groups = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            int docCount = data.docs.size();
+            if (docCount == 0) {
+                return Collections.emptyList();
+            }
+            double avgLength = (double) data.totalLength / docCount;
+
+            for (String term : new LinkedHashSet<>(terms)) {
+                Map<Integer, Integer> postings = data.postings.get(term);
+                if (postings == null) {
+                    continue;
+                }
+
+                int df = postings.size();
+                double idf = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+
+                for (Map.Entry<Integer, Integer> posting : postings.entrySet()) {
+                    int tf = posting.getValue();
+                    int length = data.docs.get(posting.getKey()).length;
+                    double score = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / avgLength));
+                    scores.merge(posting.getKey(), score, Double::sum);
+                }
+            }
+
+            for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                Integer noteId = data.docs.get(entry.getKey()).noteId;
+                groups.computeIfAbsent(noteId, NoteGroup::new).add(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        groups.values().forEach(NoteGroup::finish);
+        return groups.values().stream()
+                .sorted(Comparator.comparingDouble(NoteGroup::getScore).reversed()
+                        .thenComparing(Comparator.comparing(NoteGroup::getNoteId).reversed()))
+                .limit(maxNotes)
+                .toList();
+    }
+
+    /**
+     * 标记评论需要重新索引，只修改本地集合，由下一次刷新通知其他实例
+     */
+    public void markDirty(Integer commentId) {
+        if (commentId == null) {
+            return;
+        }
+        dirtyCommentIds.add(commentId);
+        unpublishedCommentIds.add(commentId);
+    }
+
+    /**
+     * 笔记被删除，数据库级联删除了其下所有评论；与评论变更一样在下一次刷新时移除，并通知其他实例
+     */
+    public void removeNote(Integer noteId) {
+        if (noteId == null) {
+            return;
+        }
+        removedNoteIds.add(noteId);
+        unpublishedNoteIds.add(noteId);
+    }
+
+    /**
+     * 广播本实例产生的变更，然后批量刷新有变化的评论，移除已删除笔记下的评论
+     */
+    @Scheduled(fixedDelay = 2000)
+    public void refreshDirty() {
+        publishChanges();
+
+        if (dirtyCommentIds.isEmpty() && removedNoteIds.isEmpty()) {
+            return;
+        }
+
+        synchronized (maintenanceLock) {
+            removeNotes();
+
+            List<Integer> commentIds = new ArrayList<>(dirtyCommentIds);
+            dirtyCommentIds.removeAll(commentIds);
+
+            for (int from = 0; from < commentIds.size(); from += REFRESH_BATCH_SIZE) {
+                List<Integer> batch = commentIds.subList(from, Math.min(from + REFRESH_BATCH_SIZE, commentIds.size()));
+                try {
+                    refreshBatch(batch);
+                } catch (Exception e) {
+                    // 下一轮重试
+                    dirtyCommentIds.addAll(batch);
+                    log.error("[定时任务]刷新评论搜索索引失败, 错误详情={}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 根据 comment 表全量重建索引，新索引在锁外构建后整体替换
+     */
+    public void rebuild() {
+        synchronized (maintenanceLock) {
+            IndexData fresh = new IndexData();
+            int afterCommentId = 0;
+            while (true) {
+                List<Comment> batch = commentMapper.findAfterId(afterCommentId, REBUILD_BATCH_SIZE);
+                List<List<String>> tokensList = textSegmenter.tokenizeBatch(
+                        batch.stream().map(Comment::getContent).toList());
+                for (int i = 0; i < batch.size(); i++) {
+                    fresh.add(batch.get(i), tokensList.get(i));
+                }
+                if (batch.size() < REBUILD_BATCH_SIZE) {
+                    break;
+                }
+                afterCommentId = batch.get(batch.size() - 1).getCommentId();
+            }
+
+            lock.writeLock().lock();
+            try {
+                data = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            log.info("评论搜索索引重建完成, 评论数={}, 词数={}", fresh.docs.size(), fresh.postings.size());
+        }
+    }
+
+    /**
+     * 需要持有 maintenanceLock 调用，重建期间删除的笔记在替换索引后再移除
+     */
+    private void removeNotes() {
+        List<Integer> noteIds = new ArrayList<>(removedNoteIds);
+        removedNoteIds.removeAll(noteIds);
+
+        lock.writeLock().lock();
+        try {
+            for (Integer noteId : noteIds) {
+                Set<Integer> commentIds = data.commentsByNote.get(noteId);
+                if (commentIds != null) {
+                    for (Integer commentId : new ArrayList<>(commentIds)) {
+                        data.remove(commentId);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 把本实例积累的变更合并为一条消息发送
+     */
+    private void publishChanges() {
+        if (unpublishedCommentIds.isEmpty() && unpublishedNoteIds.isEmpty()) {
+            return;
+        }
+
+        List<Integer> commentIds = new ArrayList<>(unpublishedCommentIds);
+        unpublishedCommentIds.removeAll(commentIds);
+        List<Integer> noteIds = new ArrayList<>(unpublishedNoteIds);
+        unpublishedNoteIds.removeAll(noteIds);
+
+        String body = joinIds(commentIds) + "|" + joinIds(noteIds);
+        try {
+            stringRedisTemplate.convertAndSend(CHANGE_CHANNEL, body);
+        } catch (Exception e) {
+            // 其他实例在下一次全量重建时修正
+            log.warn("广播评论搜索索引变更失败, 评论数={}, 笔记数={}, 错误详情={}",
+                    commentIds.size(), noteIds.size(), e.getMessage());
+        }
+    }
+
+    private void onChangeMessage(String body) {
+        int separator = body.indexOf('|');
+        if (separator < 0) {
+            return;
+        }
+        dirtyCommentIds.addAll(parseIds(body.substring(0, separator)));
+        removedNoteIds.addAll(parseIds(body.substring(separator + 1)));
+    }
+
+    private static String joinIds(List<Integer> ids) {
+        StringJoiner joiner = new StringJoiner(",");
+        ids.forEach(id -> joiner.add(String.valueOf(id)));
+        return joiner.toString();
+    }
+
+    private static List<Integer> parseIds(String text) {
+        List<Integer> ids = new ArrayList<>();
+        for (String part : text.split(",")) {
+            if (!part.isEmpty()) {
+                ids.add(Integer.valueOf(part));
+            }
+        }
+        return ids;
+    }
+
+    private void refreshBatch(List<Integer> commentIds) {
+        List<Comment> comments = commentMapper.findByIds(commentIds);
+        List<List<String>> tokensList = textSegmenter.tokenizeBatch(comments.stream().map(Comment::getContent).toList());
+        Map<Integer, Integer> positions = new HashMap<>();
+        for (int i = 0; i < comments.size(); i++) {
+            positions.put(comments.get(i).getCommentId(), i);
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Integer commentId : commentIds) {
+                Integer position = positions.get(commentId);
+                if (position == null) {
+                    // 评论已删除，其回复被级联删除
+                    data.removeWithReplies(commentId);
+                } else {
+                    data.remove(commentId);
+                    data.add(comments.get(position), tokensList.get(position));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 一篇笔记下命中的评论
+     */
+    public static class NoteGroup {
+
+        private final Integer noteId;
+
+        private final List<Integer> commentIds = new ArrayList<>();
+
+        private final List<Double> commentScores = new ArrayList<>();
+
+        private double score;
+
+        NoteGroup(Integer noteId) {
+            this.noteId = noteId;
+        }
+
+        void add(Integer commentId, double commentScore) {
+            commentIds.add(commentId);
+            commentScores.add(commentScore);
+        }
+
+        /**
+         * 评论按得分从高到低排序，并计算笔记得分
+         */
+        void finish() {
+            Integer[] order = new Integer[commentIds.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(commentScores.get(b), commentScores.get(a)));
+
+            List<Integer> sortedIds = new ArrayList<>(order.length);
+            double best = commentScores.get(order[0]);
+            double rest = 0;
+            for (int i = 0; i < order.length; i++) {
+                sortedIds.add(commentIds.get(order[i]));
+                if (i > 0) {
+                    rest += commentScores.get(order[i]);
+                }
+            }
+            commentIds.clear();
+            commentIds.addAll(sortedIds);
+            score = best + EXTRA_HIT_WEIGHT * rest;
+        }
+
+        public Integer getNoteId() {
+            return noteId;
+        }
+
+        /**
+         * @return 命中的评论ID，按相关度从高到低排序
+         */
+        public List<Integer> getCommentIds() {
+            return commentIds;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * 倒排表及文档信息，只在持有写锁时修改
+     */
+    private static class IndexData {
+
+        /**
+         * 词 -> (评论ID -> 词频)
+         */
+        private final Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+
+        private final Map<Integer, DocInfo> docs = new HashMap<>();
+
+        /**
+         * 笔记ID -> 评论ID，用于删除笔记时清理
+         */
+        private final Map<Integer, Set<Integer>> commentsByNote = new HashMap<>();
+
+        /**
+         * 父评论ID -> 回复ID，用于删除评论时清理级联删除的回复
+         */
+        private final Map<Integer, Set<Integer>> replies = new HashMap<>();
+
+        private long totalLength;
+
+        void add(Comment comment, List<String> tokens) {
+            Integer commentId = comment.getCommentId();
+            Map<String, Integer> termFrequencies = new HashMap<>();
+            for (String token : tokens) {
+                termFrequencies.merge(token, 1, Integer::sum);
+            }
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(commentId, entry.getValue());
+            }
+
+            docs.put(commentId, new DocInfo(comment.getNoteId(), comment.getParentId(), tokens.size(),
+                    termFrequencies.keySet().toArray(new String[0])));
+            commentsByNote.computeIfAbsent(comment.getNoteId(), k -> new HashSet<>()).add(commentId);
+            if (comment.getParentId() != null) {
+                replies.computeIfAbsent(comment.getParentId(), k -> new HashSet<>()).add(commentId);
+            }
+            totalLength += tokens.size();
+        }
+
+        void remove(Integer commentId) {
+            DocInfo doc = docs.remove(commentId);
+            if (doc == null) {
+                return;
+            }
+
+            for (String term : doc.terms) {
+                Map<Integer, Integer> termPostings = postings.get(term);
+                if (termPostings != null) {
+                    termPostings.remove(commentId);
+                    if (termPostings.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+            removeFrom(commentsByNote, doc.noteId, commentId);
+            if (doc.parentId != null) {
+                removeFrom(replies, doc.parentId, commentId);
+            }
+            totalLength -= doc.length;
+        }
+
+        void removeWithReplies(Integer commentId) {
+            Deque<Integer> pending = new ArrayDeque<>();
+            pending.push(commentId);
+            while (!pending.isEmpty()) {
+                Integer current = pending.pop();
+                Set<Integer> children = replies.remove(current);
+                if (children != null) {
+                    children.forEach(pending::push);
+                }
+                remove(current);
+            }
+        }
+
+        private static void removeFrom(Map<Integer, Set<Integer>> map, Integer key, Integer value) {
+            Set<Integer> values = map.get(key);
+            if (values != null) {
+                values.remove(value);
+                if (values.isEmpty()) {
+                    map.remove(key);
+                }
+            }
+        }
+    }
+
+    private static class DocInfo {
+
+        private final Integer noteId;
+
+        private final Integer parentId;
+
+        private final int length;
+
+        private final String[] terms;
+
+        DocInfo(Integer noteId, Integer parentId, int length, String[] terms) {
+            this.noteId = noteId;
+            this.parentId = parentId;
+            this.length = length;
+            this.terms = terms;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.qy.notes.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * 热门笔记查询统计（Space-Saving 算法）
+ * <p>
+ * 只保留固定数量的计数器：查询已有计数器时加一；计数器已满时替换计数最小的一个，
+ * 新查询继承其计数并记为误差上限。出现频率超过 1/CAPACITY 的查询一定会被保留，内存占用与查询种类无关。
+ * <p>
+ * 由 SearchQueryLogger 在后台线程写入，每天由 HotQueryWarmupTask 将计数减半，使统计偏向近期的查询
+ */
+@Component
+public class HotQueryTracker {
+
+    /**
+     * 计数器个数，需要明显大于实际使用的热门查询数，保证前 K 个的准确性
+     */
+    private static final int CAPACITY = 500;
+
+    private final Map<String, Counter> counters = new HashMap<>();
+
+    /**
+     * 记录一次查询
+     */
+    public synchronized void add(String query, long count) {
+        Counter counter = counters.get(query);
+        if (counter != null) {
+            counter.count += count;
+            return;
+        }
+
+        if (counters.size() < CAPACITY) {
+            counters.put(query, new Counter(count, 0));
+            return;
+        }
+
+        Map.Entry<String, Counter> min = null;
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            if (min == null || entry.getValue().count < min.getValue().count) {
+                min = entry;
+            }
+        }
+        counters.remove(min.getKey());
+        long minCount = min.getValue().count;
+        counters.put(query, new Counter(minCount + count, minCount));
+    }
+
+    /**
+     * 搜索次数最多的 k 个查询，按次数从高到低排序
+     * 优先返回保证计数（计数减去误差）较高的查询，避免刚替换进来的查询排在前面
+     */
+    public synchronized List<String> top(int k) {
+        return counters.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Counter> entry) ->
+                                entry.getValue().count - entry.getValue().error)
+                        .reversed())
+                .limit(k)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * 所有计数减半，计数降为 0 的查询被移除
+     */
+    public synchronized void decay() {
+        Iterator<Counter> iterator = counters.values().iterator();
+        while (iterator.hasNext()) {
+            Counter counter = iterator.next();
+            counter.count /= 2;
+            counter.error /= 2;
+            if (counter.count == 0) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static class Counter {
+
+        private long count;
+
+        /**
+         * 替换时继承的计数，真实次数在 [count - error, count] 之间
+         */
+        private long error;
+
+        Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
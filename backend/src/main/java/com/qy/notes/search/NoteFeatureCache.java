@@ -0,0 +1,236 @@
+package com.qy.notes.search;
+
+import com.qy.notes.mapper.NoteMapper;
+import com.qy.notes.model.entity.Note;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 搜索排序使用的笔记特征（点赞数、收藏数、评论数、发布时间）的进程内缓存
+ * <p>
+ * note_id 为自增主键，分布稠密，特征按 note_id 存放在基本类型数组中，排序时直接按下标读取，不产生任何对象。
+ * 读取不加锁：单个计数短暂读到旧值只影响排序的细微差别；数组扩容或全量重建时整体替换 Features。
+ * <p>
+ * 笔记变更事件只标记脏数据，每 30 秒批量从数据库刷新一次；启动时及每小时全量重建。
+ * 全量重建在锁外扫描全表，期间刷新过的笔记在替换后重新标记为脏数据，避免被扫描读到的旧数据覆盖
+ */
+@Log4j2
+@Component
+public class NoteFeatureCache {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private static final int REFRESH_BATCH_SIZE = 200;
+
+    @Autowired
+    private NoteMapper noteMapper;
+
+    private volatile Features features = new Features(0);
+
+    private final Set<Integer> dirtyNoteIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 是否正在全量重建，只在 synchronized 内读写
+     */
+    private boolean rebuilding = false;
+
+    /**
+     * 全量重建期间刷新过的笔记，替换后重新刷新，只在 synchronized 内读写
+     */
+    private final Set<Integer> refreshedDuringRebuild = new HashSet<>();
+
+    /**
+     * 当前的特征数据，调用方在一次排序中应只获取一次
+     */
+    public Features features() {
+        return features;
+    }
+
+    /**
+     * 标记笔记的特征需要刷新
+     */
+    public void markDirty(Integer noteId) {
+        if (noteId != null) {
+            dirtyNoteIds.add(noteId);
+        }
+    }
+
+    /**
+     * 刷新有变化的笔记，同一笔记的多次变化只查询一次
+     */
+    @Scheduled(fixedDelay = 30000)
+    public void refreshDirty() {
+        if (dirtyNoteIds.isEmpty()) {
+            return;
+        }
+
+        List<Integer> noteIds = new ArrayList<>(dirtyNoteIds);
+        dirtyNoteIds.removeAll(noteIds);
+
+        for (int from = 0; from < noteIds.size(); from += REFRESH_BATCH_SIZE) {
+            List<Integer> batch = noteIds.subList(from, Math.min(from + REFRESH_BATCH_SIZE, noteIds.size()));
+            try {
+                Map<Integer, Note> notes = new HashMap<>();
+                for (Note note : noteMapper.findRankingFeaturesByIds(batch)) {
+                    notes.put(note.getNoteId(), note);
+                }
+                synchronized (this) {
+                    for (Integer noteId : batch) {
+                        Note note = notes.get(noteId);
+                        // 笔记已删除时清空特征
+                        ensureCapacity(noteId).set(noteId, note);
+                    }
+                    if (rebuilding) {
+                        refreshedDuringRebuild.addAll(batch);
+                    }
+                }
+            } catch (Exception e) {
+                // 下一轮重试
+                dirtyNoteIds.addAll(batch);
+                log.error("[定时任务]刷新笔记排序特征失败, 错误详情={}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 根据 note 表全量重建
+     */
+    @Scheduled(fixedDelay = 3600000)
+    public void rebuild() {
+        synchronized (this) {
+            rebuilding = true;
+            refreshedDuringRebuild.clear();
+        }
+
+        try {
+            List<Note> all = new ArrayList<>();
+            int afterNoteId = 0;
+            while (true) {
+                List<Note> batch = noteMapper.findRankingFeatures(afterNoteId, REBUILD_BATCH_SIZE);
+                all.addAll(batch);
+                if (batch.size() < REBUILD_BATCH_SIZE) {
+                    break;
+                }
+                afterNoteId = batch.get(batch.size() - 1).getNoteId();
+            }
+
+            int maxNoteId = all.isEmpty() ? 0 : all.get(all.size() - 1).getNoteId();
+            Features fresh = new Features(capacityFor(maxNoteId));
+            for (Note note : all) {
+                fresh.set(note.getNoteId(), note);
+            }
+            synchronized (this) {
+                features = fresh;
+                // 扫描期间刷新过的值（包括新笔记的扩容）随旧数组一起被替换，下一轮重新读取
+                dirtyNoteIds.addAll(refreshedDuringRebuild);
+            }
+            log.info("笔记排序特征重建完成, 笔记数={}", all.size());
+        } catch (Exception e) {
+            log.error("[定时任务]重建笔记排序特征失败, 错误详情={}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                rebuilding = false;
+                refreshedDuringRebuild.clear();
+            }
+        }
+    }
+
+    /**
+     * 需要在 synchronized 内调用，容量不足时按 1.5 倍扩容
+     */
+    private Features ensureCapacity(int noteId) {
+        Features current = features;
+        if (noteId < current.capacity()) {
+            return current;
+        }
+        Features grown = current.copyOf(capacityFor(noteId));
+        features = grown;
+        return grown;
+    }
+
+    private static int capacityFor(int noteId) {
+        return Math.max(1024, noteId + (noteId >> 1) + 1);
+    }
+
+    /**
+     * 按 note_id 存放的特征数组
+     */
+    public static final class Features {
+
+        private final int[] likeCounts;
+
+        private final int[] collectCounts;
+
+        private final int[] commentCounts;
+
+        /**
+         * 发布时间（epoch 秒），0 表示缓存中没有该笔记
+         */
+        private final long[] createdAts;
+
+        Features(int capacity) {
+            likeCounts = new int[capacity];
+            collectCounts = new int[capacity];
+            commentCounts = new int[capacity];
+            createdAts = new long[capacity];
+        }
+
+        int capacity() {
+            return createdAts.length;
+        }
+
+        Features copyOf(int capacity) {
+            Features copy = new Features(capacity);
+            System.arraycopy(likeCounts, 0, copy.likeCounts, 0, likeCounts.length);
+            System.arraycopy(collectCounts, 0, copy.collectCounts, 0, collectCounts.length);
+            System.arraycopy(commentCounts, 0, copy.commentCounts, 0, commentCounts.length);
+            System.arraycopy(createdAts, 0, copy.createdAts, 0, createdAts.length);
+            return copy;
+        }
+
+        void set(int noteId, Note note) {
+            if (note == null) {
+                likeCounts[noteId] = 0;
+                collectCounts[noteId] = 0;
+                commentCounts[noteId] = 0;
+                createdAts[noteId] = 0;
+                return;
+            }
+            likeCounts[noteId] = Objects.requireNonNullElse(note.getLikeCount(), 0);
+            collectCounts[noteId] = Objects.requireNonNullElse(note.getCollectCount(), 0);
+            commentCounts[noteId] = Objects.requireNonNullElse(note.getCommentCount(), 0);
+            createdAts[noteId] = note.getCreatedAt() == null
+                    ? 0
+                    : note.getCreatedAt().atZone(ZoneId.systemDefault()).toEpochSecond();
+        }
+
+        public boolean contains(int noteId) {
+            return noteId >= 0 && noteId < createdAts.length && createdAts[noteId] != 0;
+        }
+
+        public int likeCount(int noteId) {
+            return noteId >= 0 && noteId < likeCounts.length ? likeCounts[noteId] : 0;
+        }
+
+        public int collectCount(int noteId) {
+            return noteId >= 0 && noteId < collectCounts.length ? collectCounts[noteId] : 0;
+        }
+
+        public int commentCount(int noteId) {
+            return noteId >= 0 && noteId < commentCounts.length ? commentCounts[noteId] : 0;
+        }
+
+        /**
+         * @return 发布时间（epoch 秒），缓存中没有该笔记时为 0
+         */
+        public long createdAt(int noteId) {
+            return noteId >= 0 && noteId < createdAts.length ? createdAts[noteId] : 0;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.qy.notes.search;
+
+import com.qy.notes.config.SearchRankingProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 笔记搜索的重排阶段
+ * <p>
+ * 全文索引按 BM25 召回后，对相关度最高的前 N 条结合互动数据和发布时间重新打分：
+ * <ul>
+ *     <li>文本相关度：BM25 得分除以候选中的最高分</li>
+ *     <li>互动热度：点赞、收藏、评论加权求和后取 log1p，再除以候选中的最大值，避免头部笔记的互动数压过相关度</li>
+ *     <li>新鲜度：按半衰期指数衰减，刚发布为 1，满一个半衰期为 0.5</li>
+ * </ul>
+ * 打分和排序都在 Hits 的数组上原地进行，不创建对象
+ */
+@Component
+public class NoteRanker {
+
+    private static final double SECONDS_PER_DAY = 86400;
+
+    @Autowired
+    private SearchRankingProperties properties;
+
+    @Autowired
+    private NoteFeatureCache noteFeatureCache;
+
+    /**
+     * 重排前 N 条结果，hits 的分数被替换为综合得分
+     *
+     * @param hits 按 BM25 得分从高到低排序的结果
+     */
+    public void rerank(NoteSearchIndex.Hits hits) {
+        rerank(hits, properties);
+    }
+
+    /**
+     * 按指定的权重重排，离线评估时用于比较不同的权重
+     */
+    public void rerank(NoteSearchIndex.Hits hits, SearchRankingProperties properties) {
+        int n = Math.min(properties.getCandidateSize(), hits.size());
+        if (n <= 1) {
+            return;
+        }
+
+        int[] noteIds = hits.noteIds();
+        double[] scores = hits.scores();
+        NoteFeatureCache.Features features = noteFeatureCache.features();
+
+        double maxText = 0;
+        double maxEngagement = 0;
+        for (int i = 0; i < n; i++) {
+            maxText = Math.max(maxText, scores[i]);
+            maxEngagement = Math.max(maxEngagement, engagement(properties, features, noteIds[i]));
+        }
+        double engagementNorm = maxEngagement > 0 ? Math.log1p(maxEngagement) : 0;
+
+        long now = System.currentTimeMillis() / 1000;
+        double decay = Math.log(2) / (Math.max(properties.getFreshnessHalfLifeDays(), 1e-6) * SECONDS_PER_DAY);
+
+        for (int i = 0; i < n; i++) {
+            int noteId = noteIds[i];
+
+            double text = maxText > 0 ? scores[i] / maxText : 0;
+            double engagement = engagementNorm > 0 ? Math.log1p(engagement(properties, features, noteId)) / engagementNorm : 0;
+            // 缓存中没有的笔记基本都是刚发布、特征尚未刷新的，按最新处理
+            long createdAt = features.createdAt(noteId);
+            double freshness = createdAt == 0 ? 1 : Math.exp(-decay * Math.max(0, now - createdAt));
+
+            scores[i] = properties.getTextWeight() * text
+                    + properties.getEngagementWeight() * engagement
+                    + properties.getFreshnessWeight() * freshness;
+        }
+
+        sortDescending(noteIds, scores, n);
+    }
+
+    private static double engagement(SearchRankingProperties properties, NoteFeatureCache.Features features, int noteId) {
+        return properties.getLikeWeight() * features.likeCount(noteId)
+                + properties.getCollectWeight() * features.collectCount(noteId)
+                + properties.getCommentWeight() * features.commentCount(noteId);
+    }
+
+    /**
+     * 对前 n 个元素按得分从高到低原地堆排序，得分相同时新笔记（ID 较大）在前
+     */
+    private static void sortDescending(int[] noteIds, double[] scores, int n) {
+        // 建小顶堆，依次把堆顶（最差的）换到末尾，结果即为降序
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(noteIds, scores, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(noteIds, scores, 0, end);
+            siftDown(noteIds, scores, 0, end);
+        }
+    }
+
+    private static void siftDown(int[] noteIds, double[] scores, int i, int size) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && worse(noteIds, scores, left, smallest)) {
+                smallest = left;
+            }
+            if (right < size && worse(noteIds, scores, right, smallest)) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(noteIds, scores, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static boolean worse(int[] noteIds, double[] scores, int a, int b) {
+        return scores[a] < scores[b] || (scores[a] == scores[b] && noteIds[a] < noteIds[b]);
+    }
+
+    private static void swap(int[] noteIds, double[] scores, int a, int b) {
+        int noteId = noteIds[a];
+        noteIds[a] = noteIds[b];
+        noteIds[b] = noteId;
+
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
@@ -0,0 +1,421 @@
+package com.qy.notes.search;
+
+import com.qy.notes.cache.NoteSearchCache;
+import com.qy.notes.mapper.NoteMapper;
+import com.qy.notes.model.vo.note.NoteSearchDocument;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 笔记全文检索的进程内倒排索引
+ * <p>
+ * 文档为笔记内容加所属题目的标题，使用 jieba 分词（与查询使用同一套规则），按 BM25 打分。
+ * <p>
+ * 笔记发布 / 更新 / 删除提交后，NoteEventListener 只标记笔记待刷新，并通过 Redis 发布订阅通知所有实例；
+ * 各实例每 2 秒批量从数据库读取并更新自己的索引，随后删除受影响的搜索结果缓存，不增加笔记接口的耗时。
+ * 刷新与全量重建串行执行，先读库的变更一定先应用。启动时及每天凌晨由 NoteSearchIndexTask 全量重建，修正丢失的通知
+ */
+@Log4j2
+@Component
+public class NoteSearchIndex {
+
+    /**
+     * BM25 词频饱和参数
+     */
+    private static final double K1 = 1.2;
+
+    /**
+     * BM25 文档长度归一化参数
+     */
+    private static final double B = 0.75;
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private static final int REFRESH_BATCH_SIZE = 200;
+
+    private static final String DIRTY_CHANNEL = "search:note:dirty";
+
+    @Autowired
+    private NoteMapper noteMapper;
+
+    @Autowired
+    private TextSegmenter textSegmenter;
+
+    @Autowired
+    private NoteSearchCache noteSearchCache;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 当前生效的索引，全量重建时整体替换
+     */
+    private IndexData data = new IndexData();
+
+    /**
+     * 全量重建完成前索引不完整，不对外提供查询
+     */
+    private volatile boolean ready = false;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    /**
+     * 索引每变化一次加一，用于判断一次查询期间索引是否发生过变化
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    private final Set<Integer> dirtyNoteIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 全量重建与增量刷新互斥，读库与更新索引整体串行，重建期间产生的变更在替换索引后再应用
+     */
+    private final Object maintenanceLock = new Object();
+
+    @PostConstruct
+    public void init() {
+        redisMessageListenerContainer.addMessageListener(
+                (message, pattern) -> dirtyNoteIds.add(
+                        Integer.valueOf(new String(message.getBody(), StandardCharsets.UTF_8))),
+                new ChannelTopic(DIRTY_CHANNEL));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * 查询与关键词相关的笔记，按 BM25 得分从高到低排序
+     *
+     * @param terms      查询词（由 TextSegmenter.tokenize 得到）
+     * @param maxResults 最多返回的条数
+     * @return 笔记ID及其得分
+     */
+    public Hits search(List<String> terms, int maxResults) {
+        if (terms.isEmpty() || maxResults <= 0) {
+            return Hits.EMPTY;
+        }
+
+        Map<Integer, Double> scores = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            int docCount = data.docs.size();
+            if (docCount == 0) {
+                return Hits.EMPTY;
+            }
+            double avgLength = (double) data.totalLength / docCount;
+
+            // 查询中重复的词只计算一次
+            for (String term : new LinkedHashSet<>(terms)) {
+                Map<Integer, Integer> postings = data.postings.get(term);
+                if (postings == null) {
+                    continue;
+                }
+
+                int df = postings.size();
+                double idf = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+
+                for (Map.Entry<Integer, Integer> posting : postings.entrySet()) {
+                    int tf = posting.getValue();
+                    int length = data.docs.get(posting.getKey()).length;
+                    double score = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / avgLength));
+                    scores.merge(posting.getKey(), score, Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return topK(scores, maxResults);
+    }
+
+    /**
+     * 标记笔记需要重新索引（发布、更新、删除），并通知其他实例，调用方不等待
+     */
+    public void markDirty(Integer noteId) {
+        if (noteId == null) {
+            return;
+        }
+        dirtyNoteIds.add(noteId);
+        try {
+            stringRedisTemplate.convertAndSend(DIRTY_CHANNEL, String.valueOf(noteId));
+        } catch (Exception e) {
+            // 其他实例在下一次全量重建时修正
+            log.warn("广播笔记搜索索引变更失败, noteId={}, 错误详情={}", noteId, e.getMessage());
+        }
+    }
+
+    /**
+     * 批量刷新有变化的笔记，并删除受影响的搜索结果缓存
+     */
+    @Scheduled(fixedDelay = 2000)
+    public void refreshDirty() {
+        // 重建期间不刷新，变更保留到替换索引之后
+        if (dirtyNoteIds.isEmpty() || rebuilding.get()) {
+            return;
+        }
+
+        Set<String> affectedTerms = new HashSet<>();
+        synchronized (maintenanceLock) {
+            List<Integer> noteIds = new ArrayList<>(dirtyNoteIds);
+            dirtyNoteIds.removeAll(noteIds);
+
+            for (int from = 0; from < noteIds.size(); from += REFRESH_BATCH_SIZE) {
+                List<Integer> batch = noteIds.subList(from, Math.min(from + REFRESH_BATCH_SIZE, noteIds.size()));
+                try {
+                    affectedTerms.addAll(refreshBatch(batch));
+                } catch (Exception e) {
+                    // 下一轮重试
+                    dirtyNoteIds.addAll(batch);
+                    log.error("[定时任务]刷新笔记搜索索引失败, 错误详情={}", e.getMessage());
+                }
+            }
+        }
+
+        // 每个实例更新完自己的索引后都会删除一次，其他实例在刷新前写入的旧结果也会被清除
+        noteSearchCache.evictByTerms(affectedTerms);
+    }
+
+    /**
+     * 根据 note 表全量重建索引
+     * 新索引在锁外构建，构建完成后整体替换，重建期间查询仍使用旧索引
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.info("笔记搜索索引正在重建，跳过本次重建");
+            return;
+        }
+
+        try {
+            synchronized (maintenanceLock) {
+                IndexData fresh = new IndexData();
+                int afterNoteId = 0;
+                while (true) {
+                    List<NoteSearchDocument> batch = noteMapper.findSearchDocuments(afterNoteId, REBUILD_BATCH_SIZE);
+                    List<List<String>> tokensList = tokenize(batch);
+                    for (int i = 0; i < batch.size(); i++) {
+                        fresh.add(batch.get(i).getNoteId(), tokensList.get(i));
+                    }
+                    if (batch.size() < REBUILD_BATCH_SIZE) {
+                        break;
+                    }
+                    afterNoteId = batch.get(batch.size() - 1).getNoteId();
+                }
+
+                lock.writeLock().lock();
+                try {
+                    data = fresh;
+                    version.incrementAndGet();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                ready = true;
+                log.info("笔记搜索索引重建完成, 文档数={}, 词数={}", fresh.docs.size(), fresh.postings.size());
+            }
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 需要持有 maintenanceLock 调用，读库与更新索引之间不会插入其他刷新
+     *
+     * @return 变更前后这些笔记包含的所有词，包含这些词的查询结果可能发生变化
+     */
+    private Set<String> refreshBatch(List<Integer> noteIds) {
+        List<NoteSearchDocument> documents = noteMapper.findSearchDocumentsByIds(noteIds);
+        List<List<String>> tokensList = tokenize(documents);
+        Map<Integer, List<String>> tokensMap = new HashMap<>();
+        for (int i = 0; i < documents.size(); i++) {
+            tokensMap.put(documents.get(i).getNoteId(), tokensList.get(i));
+        }
+
+        Set<String> affectedTerms = new HashSet<>();
+        lock.writeLock().lock();
+        try {
+            for (Integer noteId : noteIds) {
+                Collections.addAll(affectedTerms, data.remove(noteId));
+                // 笔记已删除时只从索引中移除
+                List<String> tokens = tokensMap.get(noteId);
+                if (tokens != null) {
+                    data.add(noteId, tokens);
+                    affectedTerms.addAll(tokens);
+                }
+            }
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return affectedTerms;
+    }
+
+    /**
+     * 批量分词，每个文档的检索词为题目标题与笔记内容的分词结果
+     */
+    private List<List<String>> tokenize(List<NoteSearchDocument> documents) {
+        List<String> texts = documents.stream()
+                .map(document -> Objects.requireNonNullElse(document.getTitle(), "") + "\n" + document.getContent())
+                .toList();
+        return textSegmenter.tokenizeBatch(texts);
+    }
+
+    /**
+     * 取得分最高的 k 个，得分相同时新笔记（ID 较大）在前
+     */
+    private Hits topK(Map<Integer, Double> scores, int k) {
+        Comparator<Map.Entry<Integer, Double>> order = Map.Entry.<Integer, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey());
+
+        // 小顶堆，堆顶是当前保留的结果中最差的一个
+        PriorityQueue<Map.Entry<Integer, Double>> heap = new PriorityQueue<>(k + 1, order);
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+
+        int[] noteIds = new int[heap.size()];
+        double[] topScores = new double[heap.size()];
+        for (int i = heap.size() - 1; i >= 0; i--) {
+            Map.Entry<Integer, Double> entry = heap.poll();
+            noteIds[i] = entry.getKey();
+            topScores[i] = entry.getValue();
+        }
+        return new Hits(noteIds, topScores);
+    }
+
+    /**
+     * 查询结果，noteIds 与 scores 一一对应，按得分从高到低排序
+     * 使用基本类型数组，重排阶段可以直接原地修改
+     */
+    public static final class Hits {
+
+        static final Hits EMPTY = new Hits(new int[0], new double[0]);
+
+        private final int[] noteIds;
+
+        private final double[] scores;
+
+        Hits(int[] noteIds, double[] scores) {
+            this.noteIds = noteIds;
+            this.scores = scores;
+        }
+
+        public int size() {
+            return noteIds.length;
+        }
+
+        public int[] noteIds() {
+            return noteIds;
+        }
+
+        public double[] scores() {
+            return scores;
+        }
+
+        /**
+         * 复制一份，重排会原地修改数组
+         */
+        Hits copy() {
+            return new Hits(noteIds.clone(), scores.clone());
+        }
+
+        public List<Integer> toNoteIdList() {
+            List<Integer> result = new ArrayList<>(noteIds.length);
+            for (int noteId : noteIds) {
+                result.add(noteId);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 倒排表及文档信息，只在持有写锁时修改
+     */
+    private static class IndexData {
+
+        /**
+         * 词 -> (笔记ID -> 词频)
+         */
+        private final Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+
+        /**
+         * 笔记ID -> 文档信息，删除时据此清理倒排表
+         */
+        private final Map<Integer, DocInfo> docs = new HashMap<>();
+
+        private long totalLength;
+
+        void add(Integer noteId, List<String> tokens) {
+            Map<String, Integer> termFrequencies = new HashMap<>();
+            for (String token : tokens) {
+                termFrequencies.merge(token, 1, Integer::sum);
+            }
+
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(noteId, entry.getValue());
+            }
+
+            docs.put(noteId, new DocInfo(tokens.size(), termFrequencies.keySet().toArray(new String[0])));
+            totalLength += tokens.size();
+        }
+
+        /**
+         * @return 被删除的笔记包含的词，笔记不在索引中时返回空数组
+         */
+        String[] remove(Integer noteId) {
+            DocInfo doc = docs.remove(noteId);
+            if (doc == null) {
+                return new String[0];
+            }
+
+            for (String term : doc.terms) {
+                Map<Integer, Integer> termPostings = postings.get(term);
+                if (termPostings != null) {
+                    termPostings.remove(noteId);
+                    if (termPostings.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+            totalLength -= doc.length;
+            return doc.terms;
+        }
+    }
+
+    private static class DocInfo {
+
+        private final int length;
+
+        private final String[] terms;
+
+        DocInfo(int length, String[] terms) {
+            this.length = length;
+            this.terms = terms;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.qy.notes.search;
+
+import com.qy.notes.mapper.TagMapper;
+import com.qy.notes.model.entity.NoteTag;
+import com.qy.notes.model.entity.Tag;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 笔记标签索引（进程内位图）
+ * <p>
+ * 每个标签一个位图，第 n 位表示 note_id 为 n 的笔记带有该标签；note_id 为自增主键，分布稠密，
+ * 直接使用 BitSet 每篇笔记只占 1 bit，无需引入压缩位图的依赖。
+ * 按标签筛选时先按名称模糊匹配（与原 SQL 的 LIKE '%tag%' 一致）得到标签，合并其位图后与全文检索的结果求交集。
+ * <p>
+ * 应用内没有修改 note_tag 的接口，标签只会通过直接写库变化，由启动时及每 10 分钟根据 tag、note_tag 表的全量重建同步；
+ * 笔记删除时通过 onNoteDeleted 立即移除，重建期间删除的笔记在替换索引时再次移除，避免被重建读到的旧数据恢复
+ */
+@Log4j2
+@Component
+public class NoteTagIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 2000;
+
+    @Autowired
+    private TagMapper tagMapper;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 标签ID -> 带有该标签的笔记
+     */
+    private Map<Integer, BitSet> bitmaps = new HashMap<>();
+
+    /**
+     * 标签ID -> 规范化后的标签名称，用于模糊匹配
+     */
+    private Map<Integer, String> tagNames = new HashMap<>();
+
+    private volatile boolean ready = false;
+
+    /**
+     * 是否正在重建，只在持有写锁时读写
+     */
+    private boolean rebuilding = false;
+
+    /**
+     * 重建期间删除的笔记，替换索引时从新索引中移除，只在持有写锁时读写
+     */
+    private final Set<Integer> deletedDuringRebuild = new HashSet<>();
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 名称包含 keyword 的所有标签下的笔记（不区分大小写）
+     *
+     * @param keyword 标签关键词
+     * @return 笔记位图，没有匹配的标签时为空位图；返回的是副本，调用方可以修改
+     */
+    public BitSet findNotesByTagName(String keyword) {
+        String query = normalize(keyword);
+        BitSet result = new BitSet();
+        if (query.isEmpty()) {
+            return result;
+        }
+
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Integer, String> entry : tagNames.entrySet()) {
+                if (entry.getValue().contains(query)) {
+                    BitSet bitmap = bitmaps.get(entry.getKey());
+                    if (bitmap != null) {
+                        result.or(bitmap);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * 笔记被删除，从所有标签中移除
+     */
+    public void onNoteDeleted(Integer noteId) {
+        lock.writeLock().lock();
+        try {
+            for (BitSet bitmap : bitmaps.values()) {
+                bitmap.clear(noteId);
+            }
+            if (rebuilding) {
+                deletedDuringRebuild.add(noteId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 根据 tag、note_tag 表全量重建，新索引在锁外构建后整体替换
+     */
+    @Scheduled(fixedDelay = 600000)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+            deletedDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            Map<Integer, String> freshNames = new HashMap<>();
+            for (Tag tag : tagMapper.findAll()) {
+                freshNames.put(tag.getId(), normalize(tag.getName()));
+            }
+
+            Map<Integer, BitSet> freshBitmaps = new HashMap<>();
+            int afterId = 0;
+            while (true) {
+                List<NoteTag> batch = tagMapper.findNoteTagsAfterId(afterId, REBUILD_BATCH_SIZE);
+                for (NoteTag noteTag : batch) {
+                    freshBitmaps.computeIfAbsent(noteTag.getTagId(), k -> new BitSet()).set(noteTag.getNoteId());
+                }
+                if (batch.size() < REBUILD_BATCH_SIZE) {
+                    break;
+                }
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (Integer noteId : deletedDuringRebuild) {
+                    for (BitSet bitmap : freshBitmaps.values()) {
+                        bitmap.clear(noteId);
+                    }
+                }
+                bitmaps = freshBitmaps;
+                tagNames = freshNames;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+        } catch (Exception e) {
+            // 下一次重建前继续使用旧索引
+            log.error("[定时任务]重建笔记标签索引失败, 错误详情={}", e.getMessage());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                deletedDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
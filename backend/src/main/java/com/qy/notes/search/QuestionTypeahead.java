@@ -0,0 +1,234 @@
+package com.qy.notes.search;
+
+import com.qy.notes.mapper.QuestionMapper;
+import com.qy.notes.model.entity.Question;
+import com.qy.notes.utils.TransactionUtils;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * 题目标题的输入联想（进程内索引）
+ * <p>
+ * 题库由管理员维护，数据量小，整体加载到内存：为每个标题的所有 1~2 字子串建立倒排表，
+ * 倒排表按浏览量从高到低排好序，查询时只需顺序取前 K 个。
+ * 关键词较长时取其中最少命中的二元组作为候选，再逐个校验标题是否包含关键词（与 LIKE '%kw%' 语义一致）；
+ * 连续匹配不足 K 个时，再按 jieba 分词结果匹配同时包含所有词的标题。
+ * <p>
+ * 索引不可变，题目增删改后整体重建并替换；浏览量的变化由定时任务定期重建同步
+ */
+@Log4j2
+@Component
+public class QuestionTypeahead {
+
+    private static final int MAX_GRAM = 2;
+
+    @Autowired
+    private QuestionMapper questionMapper;
+
+    @Autowired
+    private TextSegmenter textSegmenter;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 按关键词联想题目
+     *
+     * @param keyword 用户输入
+     * @param limit   最多返回的条数
+     * @return 按浏览量从高到低排序的题目
+     */
+    public List<Question> suggest(String keyword, int limit) {
+        String query = normalize(keyword);
+        if (query.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = load();
+        }
+
+        // LinkedHashSet 保持浏览量顺序，同时对两轮匹配的结果去重
+        Set<Integer> hits = new LinkedHashSet<>();
+        current.collect(List.of(query), limit, hits);
+
+        if (hits.size() < limit) {
+            List<String> tokens = textSegmenter.tokenize(keyword).stream()
+                    .map(QuestionTypeahead::normalize)
+                    .filter(token -> !token.isEmpty())
+                    .distinct()
+                    .toList();
+            if (tokens.size() > 1) {
+                current.collect(tokens, limit, hits);
+            }
+        }
+
+        List<Question> result = new ArrayList<>(hits.size());
+        for (Integer position : hits) {
+            result.add(current.questions[position]);
+        }
+        return result;
+    }
+
+    /**
+     * 从数据库重新加载题目并替换索引
+     */
+    public void rebuild() {
+        load();
+    }
+
+    private synchronized Snapshot load() {
+        Snapshot fresh = new Snapshot(questionMapper.findAll());
+        snapshot = fresh;
+        return fresh;
+    }
+
+    /**
+     * 题目发生增删改时调用：在事务中时等提交后再重建，避免读到未提交或被回滚的数据
+     */
+    public void rebuildAfterCommit() {
+        TransactionUtils.afterCommit(this::rebuildQuietly);
+    }
+
+    /**
+     * 定期重建，同步题目浏览量的变化
+     */
+    @Scheduled(fixedDelay = 600000, initialDelay = 600000)
+    public void refreshViewCounts() {
+        rebuildQuietly();
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // 下一次重建前继续使用旧索引
+            log.error("重建题目联想索引失败, 错误详情={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 统一转小写并去掉空白，"Redis 持久化" 与 "redis持久化" 视为相同
+     */
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).replaceAll("\\s+", "");
+    }
+
+    /**
+     * 某一时刻的题目及其倒排表，构建后不再修改，可以无锁并发读取
+     */
+    private static class Snapshot {
+
+        private static final int[] EMPTY = new int[0];
+
+        /**
+         * 按浏览量从高到低排序的题目
+         */
+        private final Question[] questions;
+
+        /**
+         * 与 questions 一一对应的规范化标题
+         */
+        private final String[] titles;
+
+        /**
+         * 子串 -> 包含该子串的题目下标（升序，即按浏览量从高到低）
+         */
+        private final Map<String, int[]> grams;
+
+        Snapshot(List<Question> source) {
+            questions = source.stream()
+                    .sorted(Comparator.comparing((Question question) -> Objects.requireNonNullElse(question.getViewCount(), 0))
+                            .reversed()
+                            .thenComparing(Question::getQuestionId))
+                    .toArray(Question[]::new);
+            titles = new String[questions.length];
+
+            Map<String, List<Integer>> postings = new HashMap<>();
+            for (int i = 0; i < questions.length; i++) {
+                titles[i] = normalize(questions[i].getTitle());
+
+                Set<String> titleGrams = new HashSet<>();
+                for (int start = 0; start < titles[i].length(); start++) {
+                    for (int length = 1; length <= MAX_GRAM && start + length <= titles[i].length(); length++) {
+                        titleGrams.add(titles[i].substring(start, start + length));
+                    }
+                }
+                for (String gram : titleGrams) {
+                    postings.computeIfAbsent(gram, k -> new ArrayList<>()).add(i);
+                }
+            }
+
+            grams = new HashMap<>(postings.size() * 4 / 3 + 1);
+            postings.forEach((gram, positions) ->
+                    grams.put(gram, positions.stream().mapToInt(Integer::intValue).toArray()));
+        }
+
+        /**
+         * 按浏览量顺序收集同时包含所有词的题目，直到结果达到 limit 个
+         */
+        void collect(List<String> terms, int limit, Set<Integer> hits) {
+            // 以候选最少的词驱动遍历，其余词逐个校验
+            int[] candidates = null;
+            for (String term : terms) {
+                int[] termCandidates = candidates(term);
+                if (candidates == null || termCandidates.length < candidates.length) {
+                    candidates = termCandidates;
+                }
+            }
+            if (candidates == null) {
+                return;
+            }
+
+            for (int position : candidates) {
+                if (hits.size() >= limit) {
+                    return;
+                }
+                if (hits.contains(position)) {
+                    continue;
+                }
+
+                if (containsAll(titles[position], terms)) {
+                    hits.add(position);
+                }
+            }
+        }
+
+        /**
+         * 可能包含该词的题目：短词直接查倒排表；长词取其中最少命中的二元组，需要调用方再校验
+         */
+        private int[] candidates(String term) {
+            if (term.length() <= MAX_GRAM) {
+                return grams.getOrDefault(term, EMPTY);
+            }
+
+            int[] best = null;
+            for (int start = 0; start + MAX_GRAM <= term.length(); start++) {
+                int[] positions = grams.getOrDefault(term.substring(start, start + MAX_GRAM), EMPTY);
+                if (best == null || positions.length < best.length) {
+                    best = positions;
+                }
+                if (best.length == 0) {
+                    break;
+                }
+            }
+            return best;
+        }
+
+        private static boolean containsAll(String title, List<String> terms) {
+            for (String term : terms) {
+                if (!title.contains(term)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.qy.notes.search;
+
+import com.qy.notes.config.SearchRankingProperties;
+import com.qy.notes.mapper.SearchQueryLogMapper;
+import com.qy.notes.model.vo.search.RankingEvaluationVO;
+import com.qy.notes.model.vo.search.SearchQueryCount;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 搜索排序的离线评估
+ * <p>
+ * 从 search_query_log 取出统计区间内搜索次数最多的笔记查询，逐条在全文索引上重放，
+ * 分别按纯文本相关度、当前权重、候选权重排序，比较前 K 条结果的重合度、互动热度和新鲜度。
+ * 搜索日志中没有点击数据，评估的是调整权重后结果的变化方向与幅度，用于上线前确认新权重不会过度偏离文本相关度
+ */
+@Component
+public class RankingEvaluator {
+
+    /**
+     * 比较前 K 条结果
+     */
+    public static final int TOP_K = 10;
+
+    private static final int MAX_RESULTS = 1000;
+
+    private static final int MAX_CHANGED_QUERIES = 20;
+
+    private static final double SECONDS_PER_DAY = 86400;
+
+    @Autowired
+    private SearchQueryLogMapper searchQueryLogMapper;
+
+    @Autowired
+    private NoteSearchIndex noteSearchIndex;
+
+    @Autowired
+    private NoteRanker noteRanker;
+
+    @Autowired
+    private NoteFeatureCache noteFeatureCache;
+
+    @Autowired
+    private SearchRankingProperties properties;
+
+    /**
+     * 重放最近的热门查询，比较当前权重与候选权重
+     *
+     * @param days       统计最近几天的搜索日志
+     * @param queryLimit 最多重放的查询数
+     * @param candidate  候选权重
+     */
+    public RankingEvaluationVO evaluate(int days, int queryLimit, SearchRankingProperties candidate) {
+        List<SearchQueryCount> queries = searchQueryLogMapper.findTopNoteQueries(
+                LocalDateTime.now().minusDays(days), queryLimit);
+        NoteFeatureCache.Features features = noteFeatureCache.features();
+        long now = System.currentTimeMillis() / 1000;
+
+        MetricsAccumulator text = new MetricsAccumulator();
+        MetricsAccumulator current = new MetricsAccumulator();
+        MetricsAccumulator candidateMetrics = new MetricsAccumulator();
+        double overlapSum = 0;
+        long searchCount = 0;
+        int queryCount = 0;
+        List<RankingEvaluationVO.QueryDiff> diffs = new ArrayList<>();
+
+        for (SearchQueryCount query : queries) {
+            if (query.getQuery() == null || query.getQuery().isEmpty()) {
+                continue;
+            }
+            // 日志中的查询为去重排序后以空格连接的检索词
+            List<String> terms = List.of(query.getQuery().split(" "));
+            NoteSearchIndex.Hits hits = noteSearchIndex.search(terms, MAX_RESULTS);
+            if (hits.size() == 0) {
+                continue;
+            }
+
+            long weight = query.getSearchCount() == null ? 1 : query.getSearchCount();
+            int[] textTop = topK(hits);
+
+            NoteSearchIndex.Hits currentHits = hits.copy();
+            long start = System.nanoTime();
+            noteRanker.rerank(currentHits, properties);
+            long currentNanos = System.nanoTime() - start;
+            int[] currentTop = topK(currentHits);
+
+            NoteSearchIndex.Hits candidateHits = hits.copy();
+            start = System.nanoTime();
+            noteRanker.rerank(candidateHits, candidate);
+            long candidateNanos = System.nanoTime() - start;
+            int[] candidateTop = topK(candidateHits);
+
+            text.add(weight, textTop, textTop, features, now, 0);
+            current.add(weight, currentTop, textTop, features, now, currentNanos);
+            candidateMetrics.add(weight, candidateTop, textTop, features, now, candidateNanos);
+
+            double overlap = overlap(candidateTop, currentTop);
+            overlapSum += weight * overlap;
+            searchCount += weight;
+            queryCount++;
+
+            RankingEvaluationVO.QueryDiff diff = new RankingEvaluationVO.QueryDiff();
+            diff.setQuery(query.getQuery());
+            diff.setSearchCount(weight);
+            diff.setOverlap(overlap);
+            diff.setCurrentTopNoteIds(toList(currentTop));
+            diff.setCandidateTopNoteIds(toList(candidateTop));
+            diffs.add(diff);
+        }
+
+        RankingEvaluationVO result = new RankingEvaluationVO();
+        result.setQueryCount(queryCount);
+        result.setSearchCount(searchCount);
+        result.setText(text.toMetrics());
+        result.setCurrent(current.toMetrics());
+        result.setCandidate(candidateMetrics.toMetrics());
+        result.setCandidateOverlapWithCurrent(searchCount == 0 ? null : overlapSum / searchCount);
+        // 重合度低且搜索次数多的查询排在前面
+        result.setMostChangedQueries(diffs.stream()
+                .filter(diff -> diff.getOverlap() < 1)
+                .sorted(Comparator.comparingDouble(RankingEvaluationVO.QueryDiff::getOverlap)
+                        .thenComparing(RankingEvaluationVO.QueryDiff::getSearchCount, Comparator.reverseOrder()))
+                .limit(MAX_CHANGED_QUERIES)
+                .toList());
+        return result;
+    }
+
+    private static int[] topK(NoteSearchIndex.Hits hits) {
+        return Arrays.copyOf(hits.noteIds(), Math.min(TOP_K, hits.size()));
+    }
+
+    /**
+     * 两组结果的重合比例（交集大小除以较短一组的长度）
+     */
+    static double overlap(int[] a, int[] b) {
+        int size = Math.min(a.length, b.length);
+        if (size == 0) {
+            return 1;
+        }
+        Set<Integer> set = new HashSet<>();
+        for (int noteId : a) {
+            set.add(noteId);
+        }
+        int common = 0;
+        for (int noteId : b) {
+            if (set.contains(noteId)) {
+                common++;
+            }
+        }
+        return (double) Math.min(common, size) / size;
+    }
+
+    private static List<Integer> toList(int[] noteIds) {
+        List<Integer> result = new ArrayList<>(noteIds.length);
+        for (int noteId : noteIds) {
+            result.add(noteId);
+        }
+        return result;
+    }
+
+    /**
+     * 按搜索次数加权累计一种排序的指标
+     */
+    private static class MetricsAccumulator {
+
+        private double overlapWithText;
+
+        private double engagement;
+
+        private double ageDays;
+
+        private double rerankMicros;
+
+        private long weight;
+
+        void add(long queryWeight, int[] top, int[] textTop, NoteFeatureCache.Features features, long now, long rerankNanos) {
+            double engagementSum = 0;
+            double ageSum = 0;
+            for (int noteId : top) {
+                engagementSum += Math.log1p(features.likeCount(noteId)
+                        + features.collectCount(noteId) + features.commentCount(noteId));
+                long createdAt = features.createdAt(noteId);
+                ageSum += createdAt == 0 ? 0 : Math.max(0, now - createdAt) / SECONDS_PER_DAY;
+            }
+
+            overlapWithText += queryWeight * overlap(top, textTop);
+            engagement += queryWeight * engagementSum / top.length;
+            ageDays += queryWeight * ageSum / top.length;
+            rerankMicros += queryWeight * rerankNanos / 1000.0;
+            weight += queryWeight;
+        }
+
+        RankingEvaluationVO.Metrics toMetrics() {
+            RankingEvaluationVO.Metrics metrics = new RankingEvaluationVO.Metrics();
+            if (weight == 0) {
+                return metrics;
+            }
+            metrics.setOverlapWithText(overlapWithText / weight);
+            metrics.setMeanEngagement(engagement / weight);
+            metrics.setMeanAgeDays(ageDays / weight);
+            metrics.setMeanRerankMicros(rerankMicros / weight);
+            return metrics;
+        }
+    }
+}
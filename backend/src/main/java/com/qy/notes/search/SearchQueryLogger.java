@@ -0,0 +1,113 @@
+package com.qy.notes.search;
+
+import com.qy.notes.mapper.SearchQueryLogMapper;
+import com.qy.notes.model.entity.SearchQueryLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 搜索日志
+ * <p>
+ * 搜索请求只把日志放入内存队列，不等待写库；后台每 5 秒批量写入 search_query_log，并更新热门查询统计。
+ * 队列满时（数据库长时间不可用）直接丢弃新日志，不影响搜索接口
+ */
+@Log4j2
+@Component
+public class SearchQueryLogger {
+
+    private static final int QUEUE_CAPACITY = 10000;
+
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private static final int MAX_QUERY_LENGTH = 255;
+
+    private static final int MAX_TAG_LENGTH = 50;
+
+    @Autowired
+    private SearchQueryLogMapper searchQueryLogMapper;
+
+    @Autowired
+    private HotQueryTracker hotQueryTracker;
+
+    private final BlockingQueue<SearchQueryLog> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    /**
+     * 记录一次笔记搜索
+     *
+     * @param terms 检索词
+     * @param tag   按标签搜索时的标签，普通搜索为 null
+     */
+    public void logNoteSearch(List<String> terms, String tag, int hitCount, long startNanos) {
+        String queryType = tag == null ? SearchQueryLog.NOTE : SearchQueryLog.NOTE_TAG;
+        offer(queryType, normalizeTerms(terms), tag, hitCount, startNanos);
+    }
+
+    /**
+     * 记录一次用户搜索
+     */
+    public void logUserSearch(String keyword, int hitCount, long startNanos) {
+        String query = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+        offer(SearchQueryLog.USER, query, null, hitCount, startNanos);
+    }
+
+    /**
+     * 检索词去重排序后以空格连接，与搜索结果缓存的命中规则一致；检索词本身不含空白，可以按空格还原
+     */
+    public static String normalizeTerms(List<String> terms) {
+        return String.join(" ", new TreeSet<>(terms));
+    }
+
+    private void offer(String queryType, String query, String tag, int hitCount, long startNanos) {
+        SearchQueryLog entry = new SearchQueryLog();
+        entry.setQueryType(queryType);
+        entry.setQuery(truncate(query, MAX_QUERY_LENGTH));
+        entry.setTag(StringUtils.hasText(tag) ? truncate(tag.trim(), MAX_TAG_LENGTH) : null);
+        entry.setHitCount(hitCount);
+        entry.setLatencyMs((int) ((System.nanoTime() - startNanos) / 1_000_000));
+        entry.setCreatedAt(LocalDateTime.now());
+        queue.offer(entry);
+    }
+
+    /**
+     * 批量写入队列中的日志
+     */
+    @Scheduled(fixedDelay = 5000)
+    public void flush() {
+        List<SearchQueryLog> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        while (queue.drainTo(batch, INSERT_BATCH_SIZE) > 0) {
+            for (SearchQueryLog entry : batch) {
+                boolean noteSearch = SearchQueryLog.NOTE.equals(entry.getQueryType())
+                        || SearchQueryLog.NOTE_TAG.equals(entry.getQueryType());
+                if (noteSearch && !entry.getQuery().isEmpty()) {
+                    hotQueryTracker.add(entry.getQuery(), 1);
+                }
+            }
+
+            try {
+                searchQueryLogMapper.insertBatch(batch);
+            } catch (Exception e) {
+                // 日志只用于统计，写入失败直接丢弃，不重试
+                log.warn("写入搜索日志失败, 条数={}, 错误详情={}", batch.size(), e.getMessage());
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        flush();
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
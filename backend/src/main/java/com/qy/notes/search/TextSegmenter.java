@@ -0,0 +1,210 @@
+package com.qy.notes.search;
+
+import com.huaban.analysis.jieba.JiebaSegmenter;
+import com.huaban.analysis.jieba.WordDictionary;
+import com.qy.notes.mapper.QuestionMapper;
+import com.qy.notes.mapper.TagMapper;
+import com.qy.notes.model.entity.Question;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 检索分词服务，建索引和查询共用同一套规则，保证两边切出的词一致
+ * <p>
+ * jieba 的词典在第一次分词时才加载，耗时数秒，因此在启动时预热；
+ * 同时加载技术词汇自定义词典：resources/dict/tech.dict 中的常用术语，以及从题目标题、标签中提取的术语，
+ * 避免 "红黑树"、"ConcurrentHashMap"、"B+树" 这类词被切碎。
+ * 词典只在启动时加载一次，之后只读，分词可以并发执行
+ */
+@Log4j2
+@Component
+public class TextSegmenter {
+
+    private static final String TECH_DICT_PATH = "dict/tech.dict";
+
+    /**
+     * 自定义词的词频，需要高于常用词，保证分词时优先整体切出
+     */
+    private static final int CUSTOM_WORD_FREQ = 2000;
+
+    /**
+     * 标点、符号替换为空格；保留 + 和 #，否则 "C++"、"C#"、"B+树" 无法与词典匹配
+     */
+    private static final Pattern SEPARATOR_PATTERN = Pattern.compile("[\\p{P}\\p{S}&&[^+#]]+");
+
+    /**
+     * 题目标题中的英文技术术语，如 ConcurrentHashMap、C++、Node.js
+     */
+    private static final Pattern TERM_PATTERN = Pattern.compile("[A-Za-z][A-Za-z0-9]*(?:[+#]+|(?:[._-][A-Za-z0-9]+)+)?");
+
+    /**
+     * 不参与检索的常见虚词
+     */
+    private static final Set<String> STOP_WORDS = Set.of(
+            "的", "了", "是", "在", "和", "与", "及", "或", "等", "也", "就", "都", "而", "把", "被", "这", "那",
+            "a", "an", "the", "of", "to", "in", "on", "and", "or", "is", "are"
+    );
+
+    @Autowired
+    private QuestionMapper questionMapper;
+
+    @Autowired
+    private TagMapper tagMapper;
+
+    private JiebaSegmenter segmenter;
+
+    /**
+     * 批量分词使用的线程池，并行度为 CPU 核数的一半，避免重建索引时占满 CPU 影响接口响应
+     */
+    private final ForkJoinPool batchPool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
+    @PostConstruct
+    public void init() {
+        long start = System.currentTimeMillis();
+
+        // 创建分词器时加载主词典
+        segmenter = new JiebaSegmenter();
+
+        Set<String> words = new LinkedHashSet<>();
+        loadTechDict(words);
+        loadDomainTerms(words);
+        loadUserDict(words);
+
+        // 预热：触发 HMM 模型等其余懒加载的部分
+        segmenter.sentenceProcess("红黑树与ConcurrentHashMap的实现原理");
+
+        log.info("分词词典加载完成, 自定义词数={}, 耗时={}ms", words.size(), System.currentTimeMillis() - start);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        batchPool.shutdown();
+    }
+
+    /**
+     * 将文本切分为检索词
+     * 1. 标点、符号替换为空格
+     * 2. 转小写，英文大小写不敏感
+     * 3. 分词，去掉空白和虚词
+     *
+     * @param text 原始文本
+     * @return 检索词列表，保留重复的词（用于计算词频）
+     */
+    public List<String> tokenize(String text) {
+        if (!StringUtils.hasText(text)) {
+            return new ArrayList<>();
+        }
+
+        text = SEPARATOR_PATTERN.matcher(text).replaceAll(" ").toLowerCase(Locale.ROOT);
+
+        List<String> tokens = new ArrayList<>();
+        for (String word : segmenter.sentenceProcess(text)) {
+            String token = word.trim();
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 批量分词，供重建索引等批处理任务使用，多个文本并行处理
+     *
+     * @param texts 文本列表
+     * @return 与 texts 一一对应的检索词列表
+     */
+    public List<List<String>> tokenizeBatch(List<String> texts) {
+        if (texts.size() <= 1) {
+            return texts.stream().map(this::tokenize).toList();
+        }
+        return batchPool.submit(() -> texts.parallelStream().map(this::tokenize).toList()).join();
+    }
+
+    private void loadTechDict(Set<String> words) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(TECH_DICT_PATH).getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.trim().split("\\s+");
+                if (!parts[0].isEmpty()) {
+                    words.add(parts[0]);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("加载技术词典失败, path={}, 错误详情={}", TECH_DICT_PATH, e.getMessage());
+        }
+    }
+
+    /**
+     * 从题目标题中提取英文技术术语，标签整体作为一个词
+     * 数据库不可用时只使用静态词典，不影响启动
+     */
+    private void loadDomainTerms(Set<String> words) {
+        try {
+            for (Question question : questionMapper.findAll()) {
+                if (question.getTitle() == null) {
+                    continue;
+                }
+                Matcher matcher = TERM_PATTERN.matcher(question.getTitle());
+                while (matcher.find()) {
+                    addWord(words, matcher.group());
+                }
+            }
+            for (String tag : tagMapper.findAllNames()) {
+                addWord(words, tag);
+            }
+        } catch (Exception e) {
+            log.warn("从题目和标签加载自定义词失败, 错误详情={}", e.getMessage());
+        }
+    }
+
+    private void addWord(Set<String> words, String word) {
+        String normalized = word.trim().toLowerCase(Locale.ROOT);
+        // 词典按空白分隔，包含空白的词无法加载；单个字符没有加入词典的必要
+        if (normalized.length() > 1 && !normalized.matches(".*\\s.*")) {
+            words.add(normalized);
+        }
+    }
+
+    /**
+     * jieba 只支持从文件加载用户词典，写入临时文件后加载
+     */
+    private void loadUserDict(Set<String> words) {
+        if (words.isEmpty()) {
+            return;
+        }
+
+        Path dictFile = null;
+        try {
+            dictFile = Files.createTempFile("notes-user", ".dict");
+            List<String> lines = words.stream().map(word -> word + " " + CUSTOM_WORD_FREQ).toList();
+            Files.write(dictFile, lines, StandardCharsets.UTF_8);
+            WordDictionary.getInstance().loadUserDict(dictFile, StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            log.warn("加载自定义词典失败, 错误详情={}", e.getMessage());
+        } finally {
+            if (dictFile != null) {
+                try {
+                    Files.deleteIfExists(dictFile);
+                } catch (Exception ignored) {
+                    // 临时文件删除失败不影响使用
+                }
+            }
+        }
+    }
+}
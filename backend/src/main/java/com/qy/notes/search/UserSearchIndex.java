@@ -0,0 +1,341 @@
+package com.qy.notes.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qy.notes.mapper.UserMapper;
+import com.qy.notes.model.entity.User;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户搜索的前缀索引（Redis 有序集合按字典序查询）
+ * <p>
+ * 用户名、账号、邮箱各一个有序集合，score 均为 0，member 为 "小写值\0用户ID"，
+ * 前缀查询即 ZRANGEBYLEX [kw (kw\xFF；展示所需的用户信息存放在一个 Hash 中，搜索全程不查询数据库。
+ * 排序规则与原 SQL 一致：用户名、账号、邮箱完全匹配优先，其次是三者的前缀匹配。
+ * <p>
+ * 注册、修改资料提交后更新索引；索引不存在时（首次上线或 Redis 数据丢失）由 UserSearchIndexTask 根据 user 表重建，
+ * 重建完成前搜索回退到数据库。
+ * <p>
+ * 重建时先写入临时键，完成后在一个事务中 RENAME 到正式键，重建期间搜索仍使用旧索引；
+ * 多个实例同时启动时只有拿到重建锁的实例执行重建；重建期间更新过的用户在替换后重新写入，避免被重建读到的旧数据覆盖
+ */
+@Log4j2
+@Component
+public class UserSearchIndex {
+
+    private static final String KEY_PREFIX = "user:search:";
+    private static final String USERNAME_KEY = KEY_PREFIX + "username";
+    private static final String ACCOUNT_KEY = KEY_PREFIX + "account";
+    private static final String EMAIL_KEY = KEY_PREFIX + "email";
+    private static final String PROFILE_KEY = KEY_PREFIX + "profile";
+    private static final String READY_KEY = KEY_PREFIX + "ready";
+    private static final String REBUILD_LOCK_KEY = KEY_PREFIX + "rebuild:lock";
+    /**
+     * 最近更新过的用户ID，重建替换索引后据此重新写入
+     */
+    private static final String TOUCHED_KEY = KEY_PREFIX + "touched";
+
+    private static final long REBUILD_LOCK_SECONDS = 600;
+
+    private static final List<String> FIELD_KEYS = List.of(USERNAME_KEY, ACCOUNT_KEY, EMAIL_KEY);
+
+    private static final List<String> INDEX_KEYS = List.of(USERNAME_KEY, ACCOUNT_KEY, EMAIL_KEY, PROFILE_KEY);
+
+    private static final char SEPARATOR = '\0';
+
+    /**
+     * UTF-8 编码中不会出现 0xFF，作为前缀查询的上界
+     */
+    private static final byte MAX_BYTE = (byte) 0xFF;
+
+    /**
+     * 搜索结果最多翻到的条数
+     */
+    public static final int MAX_RESULTS = 200;
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 索引是否已构建完成
+     */
+    public boolean isReady() {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(READY_KEY));
+    }
+
+    /**
+     * 按用户名、账号、邮箱前缀搜索用户（不区分大小写）
+     *
+     * @param keyword 关键词
+     * @param offset  偏移量
+     * @param limit   条数
+     * @return 用户列表，只包含公开的资料字段
+     */
+    public List<User> search(String keyword, int offset, int limit) {
+        String prefix = normalize(keyword);
+        int window = Math.min(offset + limit, MAX_RESULTS);
+        if (prefix.isEmpty() || offset >= window) {
+            return Collections.emptyList();
+        }
+
+        byte[] lower = prefix.getBytes(StandardCharsets.UTF_8);
+        byte[] upper = Arrays.copyOf(lower, lower.length + 1);
+        upper[lower.length] = MAX_BYTE;
+        Range<byte[]> range = Range.of(Range.Bound.inclusive(lower), Range.Bound.exclusive(upper));
+        Limit rangeLimit = Limit.limit().count(window);
+
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : FIELD_KEYS) {
+                connection.zSetCommands().zRangeByLex(key.getBytes(StandardCharsets.UTF_8), range, rangeLimit);
+            }
+            return null;
+        });
+
+        // 完全匹配在字典序中排在同一前缀的最前面，取前 window 个即可覆盖
+        Set<Long> exactMatches = new LinkedHashSet<>();
+        Set<Long> prefixMatches = new LinkedHashSet<>();
+        for (Object result : results) {
+            if (!(result instanceof Collection<?> members)) {
+                continue;
+            }
+            for (Object member : members) {
+                String value = String.valueOf(member);
+                int separatorIndex = value.lastIndexOf(SEPARATOR);
+                if (separatorIndex < 0) {
+                    continue;
+                }
+                Long userId = Long.valueOf(value.substring(separatorIndex + 1));
+                if (value.substring(0, separatorIndex).equals(prefix)) {
+                    exactMatches.add(userId);
+                } else {
+                    prefixMatches.add(userId);
+                }
+            }
+        }
+
+        Set<Long> ordered = new LinkedHashSet<>(exactMatches);
+        ordered.addAll(prefixMatches);
+        List<Long> userIds = ordered.stream().skip(offset).limit(limit).toList();
+        if (userIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Object> profiles = stringRedisTemplate.opsForHash()
+                .multiGet(PROFILE_KEY, userIds.stream().map(String::valueOf).map(id -> (Object) id).toList());
+
+        List<User> users = new ArrayList<>(userIds.size());
+        for (Object profile : profiles) {
+            if (profile == null) {
+                continue;
+            }
+            try {
+                users.add(objectMapper.readValue(profile.toString(), User.class));
+            } catch (Exception e) {
+                log.warn("解析用户搜索资料失败, 错误详情={}", e.getMessage());
+            }
+        }
+        return users;
+    }
+
+    /**
+     * 从数据库读取用户并更新索引，先删除该用户旧的用户名 / 邮箱
+     */
+    public void refresh(Long userId) {
+        User user = userMapper.findById(userId);
+        if (user == null) {
+            return;
+        }
+
+        try {
+            User previous = readProfile(userId);
+            String profile = objectMapper.writeValueAsString(toProfile(user));
+
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                if (previous != null) {
+                    removeMembers(connection, previous);
+                }
+                addMembers(connection, "", user, profile);
+                // 与正在进行的重建配合，保留时间与重建锁一致
+                byte[] touchedKey = TOUCHED_KEY.getBytes(StandardCharsets.UTF_8);
+                connection.setCommands().sAdd(touchedKey, String.valueOf(userId).getBytes(StandardCharsets.UTF_8));
+                connection.keyCommands().expire(touchedKey, REBUILD_LOCK_SECONDS);
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("更新用户搜索索引失败, userId={}, 错误详情={}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 根据 user 表全量重建索引，完成后写入就绪标记
+     * 其他实例正在重建时直接返回
+     */
+    public void rebuild() throws Exception {
+        String lockValue = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue()
+                .setIfAbsent(REBUILD_LOCK_KEY, lockValue, REBUILD_LOCK_SECONDS, TimeUnit.SECONDS))) {
+            log.info("用户搜索索引正在由其他实例重建，跳过本次重建");
+            return;
+        }
+
+        String suffix = ":rebuild:" + lockValue;
+        try {
+            stringRedisTemplate.delete(TOUCHED_KEY);
+
+            long afterUserId = 0;
+            int total = 0;
+            while (true) {
+                List<User> batch = userMapper.findAfterId(afterUserId, REBUILD_BATCH_SIZE);
+
+                List<String> profiles = new ArrayList<>(batch.size());
+                for (User user : batch) {
+                    profiles.add(objectMapper.writeValueAsString(toProfile(user)));
+                }
+                stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        addMembers(connection, suffix, batch.get(i), profiles.get(i));
+                    }
+                    return null;
+                });
+
+                total += batch.size();
+                if (batch.size() < REBUILD_BATCH_SIZE) {
+                    break;
+                }
+                afterUserId = batch.get(batch.size() - 1).getUserId();
+            }
+
+            swapIn(suffix, total);
+
+            // 重建期间更新过资料的用户，重建读到的可能是旧数据
+            Set<String> touched = stringRedisTemplate.opsForSet().members(TOUCHED_KEY);
+            if (touched != null) {
+                touched.forEach(userId -> refresh(Long.valueOf(userId)));
+            }
+            log.info("用户搜索索引重建完成, 用户数={}", total);
+        } finally {
+            List<String> tempKeys = new ArrayList<>();
+            for (String key : INDEX_KEYS) {
+                tempKeys.add(key + suffix);
+            }
+            stringRedisTemplate.delete(tempKeys);
+            if (lockValue.equals(stringRedisTemplate.opsForValue().get(REBUILD_LOCK_KEY))) {
+                stringRedisTemplate.delete(REBUILD_LOCK_KEY);
+            }
+        }
+    }
+
+    /**
+     * 在一个事务中用临时键替换正式键并写入就绪标记；没有数据的临时键不存在，对应的正式键直接删除
+     */
+    private void swapIn(String suffix, int total) {
+        List<Boolean> exists = new ArrayList<>();
+        for (String key : INDEX_KEYS) {
+            exists.add(Boolean.TRUE.equals(stringRedisTemplate.hasKey(key + suffix)));
+        }
+
+        stringRedisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            public List<Object> execute(RedisOperations operations) {
+                operations.multi();
+                for (int i = 0; i < INDEX_KEYS.size(); i++) {
+                    String key = INDEX_KEYS.get(i);
+                    if (exists.get(i)) {
+                        operations.rename(key + suffix, key);
+                    } else {
+                        operations.delete(key);
+                    }
+                }
+                operations.opsForValue().set(READY_KEY, String.valueOf(total));
+                return operations.exec();
+            }
+        });
+    }
+
+    private void addMembers(RedisConnection connection, String suffix, User user, String profile) {
+        byte[] userId = String.valueOf(user.getUserId()).getBytes(StandardCharsets.UTF_8);
+        zAdd(connection, USERNAME_KEY + suffix, user.getUsername(), user.getUserId());
+        zAdd(connection, ACCOUNT_KEY + suffix, user.getAccount(), user.getUserId());
+        zAdd(connection, EMAIL_KEY + suffix, user.getEmail(), user.getUserId());
+        connection.hashCommands().hSet((PROFILE_KEY + suffix).getBytes(StandardCharsets.UTF_8), userId,
+                profile.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void removeMembers(RedisConnection connection, User user) {
+        zRem(connection, USERNAME_KEY, user.getUsername(), user.getUserId());
+        zRem(connection, ACCOUNT_KEY, user.getAccount(), user.getUserId());
+        zRem(connection, EMAIL_KEY, user.getEmail(), user.getUserId());
+    }
+
+    private void zAdd(RedisConnection connection, String key, String value, Long userId) {
+        String normalized = normalize(value);
+        if (!normalized.isEmpty()) {
+            connection.zSetCommands().zAdd(key.getBytes(StandardCharsets.UTF_8), 0, member(normalized, userId));
+        }
+    }
+
+    private void zRem(RedisConnection connection, String key, String value, Long userId) {
+        String normalized = normalize(value);
+        if (!normalized.isEmpty()) {
+            connection.zSetCommands().zRem(key.getBytes(StandardCharsets.UTF_8), member(normalized, userId));
+        }
+    }
+
+    private byte[] member(String normalized, Long userId) {
+        return (normalized + SEPARATOR + userId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private User readProfile(Long userId) throws Exception {
+        Object profile = stringRedisTemplate.opsForHash().get(PROFILE_KEY, String.valueOf(userId));
+        return profile == null ? null : objectMapper.readValue(profile.toString(), User.class);
+    }
+
+    /**
+     * 搜索结果中展示的资料，不包含密码、登录时间等字段
+     * 索引未就绪、回退到数据库查询时也使用同样的字段
+     */
+    public static User toProfile(User user) {
+        User profile = new User();
+        profile.setUserId(user.getUserId());
+        profile.setAccount(user.getAccount());
+        profile.setUsername(user.getUsername());
+        profile.setGender(user.getGender());
+        profile.setAvatarUrl(user.getAvatarUrl());
+        profile.setEmail(user.getEmail());
+        profile.setSchool(user.getSchool());
+        profile.setSignature(user.getSignature());
+        profile.setCreatedAt(user.getCreatedAt());
+        return profile;
+    }
+
+    /**
+     * 与数据库的 utf8mb4_unicode_ci 一样不区分大小写；值中的 \0 会与分隔符混淆，直接去掉
+     */
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.trim().toLowerCase(Locale.ROOT).replace(String.valueOf(SEPARATOR), "");
+    }
+}
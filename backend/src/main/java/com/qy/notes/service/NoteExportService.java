@@ -0,0 +1,23 @@
+package com.qy.notes.service;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface NoteExportService {
+    /**
+     * 流式导出当前登录用户的全部笔记
+     * 笔记内容分批读取并直接写入响应，不在内存中拼接完整文件
+     *
+     * @param format markdown：单个 Markdown 文件；zip：每个一级分类一个 Markdown 文件
+     * @return 未登录返回 401，格式非法返回 400，没有任何笔记返回 404
+     */
+    ResponseEntity<StreamingResponseBody> exportNotes(String format);
+
+    /**
+     * 生成用户全部笔记的 Markdown 文本，供仍以 JSON 返回的旧下载接口使用
+     *
+     * @param userId 用户ID
+     * @return Markdown 文本，没有任何笔记时返回 null
+     */
+    String exportMarkdown(Long userId);
+}
@@ -54,9 +54,10 @@ public interface NoteService {
 
     /**
      * 笔记排行榜
+     * @param window 统计范围：day（今天）、week（本周）、month（本月）
      * @return 包含笔记排行榜视图对象的响应
      */
-    ApiResponse<List<NoteRankListItem>> submitNoteRank();
+    ApiResponse<List<NoteRankListItem>> submitNoteRank(String window);
 
     /**
      * 用户提交热力图
@@ -1,8 +1,11 @@
 package com.qy.notes.service;
 
 import com.qy.notes.model.base.ApiResponse;
-import com.qy.notes.model.entity.Note;
+import com.qy.notes.model.dto.search.RankingEvaluationParams;
 import com.qy.notes.model.entity.User;
+import com.qy.notes.model.vo.comment.CommentSearchGroupVO;
+import com.qy.notes.model.vo.note.NoteSearchHitVO;
+import com.qy.notes.model.vo.search.RankingEvaluationVO;
 
 import java.util.List;
 
@@ -13,9 +16,9 @@ public interface SearchService {
      * @param keyword 关键词
      * @param page 页码
      * @param pageSize 每页大小
-     * @return 笔记列表
+     * @return 笔记列表，只包含命中位置附近的片段
      */
-    ApiResponse<List<Note>> searchNotes(String keyword, int page, int pageSize);
+    ApiResponse<List<NoteSearchHitVO>> searchNotes(String keyword, int page, int pageSize);
 
     /**
      * 搜索用户
@@ -34,7 +37,33 @@ public interface SearchService {
      * @param tag 标签
      * @param page 页码
      * @param pageSize 每页大小
-     * @return 笔记列表
+     * @return 笔记列表，只包含命中位置附近的片段
      */
-    ApiResponse<List<Note>> searchNotesByTag(String keyword, String tag, int page, int pageSize);
-} 
\ No newline at end of file
+    ApiResponse<List<NoteSearchHitVO>> searchNotesByTag(String keyword, String tag, int page, int pageSize);
+
+    /**
+     * 搜索评论，结果按笔记分组
+     *
+     * @param keyword 关键词
+     * @param page 页码
+     * @param pageSize 每页的笔记数
+     * @return 笔记分组列表，每组包含最相关的几条评论片段
+     */
+    ApiResponse<List<CommentSearchGroupVO>> searchComments(String keyword, int page, int pageSize);
+
+    /**
+     * 预先计算笔记查询的结果并写入搜索结果缓存，已有缓存时重新计算并覆盖
+     *
+     * @param query 规范化后的查询（检索词以空格分隔）
+     * @return 结果数，索引未就绪时返回 -1
+     */
+    int warmUpNoteSearch(String query);
+
+    /**
+     * 离线评估搜索排序：重放最近的热门查询，比较当前权重与候选权重的排序结果
+     *
+     * @param params 统计区间、查询数及候选权重
+     * @return 评估结果
+     */
+    ApiResponse<RankingEvaluationVO> evaluateRanking(RankingEvaluationParams params);
+}
@@ -1,6 +1,7 @@
 package com.qy.notes.service;
 
 import com.qy.notes.model.base.ApiResponse;
+import com.qy.notes.model.base.EmptyVO;
 import com.qy.notes.model.dto.user.LoginRequest;
 import com.qy.notes.model.dto.user.RegisterRequest;
 import com.qy.notes.model.dto.user.UpdateUserRequest;
@@ -41,6 +42,22 @@ public interface UserService {
      */
     ApiResponse<LoginUserVO> whoami();
 
+    /**
+     * 退出登录服务
+     * 吊销本次请求携带的 token，其他设备上的登录状态不受影响
+     *
+     * @return 退出结果
+     */
+    ApiResponse<EmptyVO> logout();
+
+    /**
+     * 退出所有设备服务
+     * 吊销当前用户已签发的所有 token，所有设备都需要重新登录
+     *
+     * @return 退出结果
+     */
+    ApiResponse<EmptyVO> logoutAll();
+
     /**
      * 查询用户信息服务
      *
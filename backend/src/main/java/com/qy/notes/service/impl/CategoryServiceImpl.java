@@ -1,5 +1,7 @@
 package com.qy.notes.service.impl;
 
+import com.qy.notes.cache.TotalCountCache;
+import com.qy.notes.converter.CategoryConverter;
 import com.qy.notes.mapper.CategoryMapper;
 import com.qy.notes.mapper.QuestionMapper;
 import com.qy.notes.model.base.ApiResponse;
@@ -9,8 +11,10 @@ import com.qy.notes.model.dto.category.UpdateCategoryBody;
 import com.qy.notes.model.entity.Category;
 import com.qy.notes.model.vo.category.CategoryVO;
 import com.qy.notes.model.vo.category.CreateCategoryVO;
+import com.qy.notes.search.QuestionTypeahead;
 import com.qy.notes.service.CategoryService;
 import com.qy.notes.utils.ApiResponseUtil;
+import com.qy.notes.utils.TransactionUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -30,6 +34,15 @@ public class CategoryServiceImpl implements CategoryService {
     @Autowired
     private QuestionMapper QuestionMapper;
 
+    @Autowired
+    private CategoryConverter categoryConverter;
+
+    @Autowired
+    private TotalCountCache totalCountCache;
+
+    @Autowired
+    private QuestionTypeahead questionTypeahead;
+
     public List<CategoryVO> buildCategoryTree() {
         // 获取所有分类
         List<Category> categories = categoryMapper.categoryList();
@@ -41,14 +54,12 @@ public class CategoryServiceImpl implements CategoryService {
         categories.forEach(category -> {
             if (category.getParentCategoryId() == 0) {
                 // 父分类
-                CategoryVO categoryVO = new CategoryVO();
-                BeanUtils.copyProperties(category, categoryVO);
+                CategoryVO categoryVO = categoryConverter.toCategoryVO(category);
                 categoryVO.setChildren(new ArrayList<>());
                 categoryMap.put(category.getCategoryId(), categoryVO);
             } else {
                 // 子分类
-                CategoryVO.ChildrenCategoryVO childrenCategoryVO = new CategoryVO.ChildrenCategoryVO();
-                BeanUtils.copyProperties(category, childrenCategoryVO);
+                CategoryVO.ChildrenCategoryVO childrenCategoryVO = categoryConverter.toChildrenCategoryVO(category);
 
                 // 将子分类加入对应父分类的 children 列表
                 CategoryVO parentCategory = categoryMap.get(category.getParentCategoryId());
@@ -92,6 +103,8 @@ public class CategoryServiceImpl implements CategoryService {
             // TODO: 如果用户做了笔记，笔记和问题是对应的，删除了问题，笔记对应的问题就不存在了
             //   需要额外考虑讨论在删除分类的时候是否需要删除对应的笔记信息
             QuestionMapper.deleteByCategoryIdBatch(categoryIds);
+            TransactionUtils.afterCommit(() -> totalCountCache.evict(TotalCountCache.QUESTION));
+            questionTypeahead.rebuildAfterCommit();
             return ApiResponseUtil.success("删除分类成功");
         } catch (Exception e) {
             // 这里不能处理异常，需要抛出异常，让事务自动回滚
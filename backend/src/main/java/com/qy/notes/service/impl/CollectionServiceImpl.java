@@ -1,6 +1,7 @@
 package com.qy.notes.service.impl;
 
 import com.qy.notes.annotation.NeedLogin;
+import com.qy.notes.event.NoteEvent;
 import com.qy.notes.mapper.CollectionMapper;
 import com.qy.notes.mapper.CollectionNoteMapper;
 import com.qy.notes.mapper.NoteMapper;
@@ -18,6 +19,7 @@ import com.qy.notes.service.CollectionService;
 import com.qy.notes.utils.ApiResponseUtil;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -39,6 +41,9 @@ public class CollectionServiceImpl implements CollectionService {
     @Autowired
     private NoteMapper noteMapper;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public ApiResponse<List<CollectionVO>> getCollections(CollectionQueryParams queryParams) {
         // 收藏夹列表
@@ -146,6 +151,7 @@ public class CollectionServiceImpl implements CollectionService {
                     if (collectionMapper.countByCreatorIdAndNoteId(userId, noteId) == 0) {
                         // 笔记不存在，给笔记增加收藏量
                         noteMapper.collectNote(noteId);
+                        eventPublisher.publishEvent(NoteEvent.engagementEvent(this, noteId));
                     }
                     CollectionNote collectionNote = new CollectionNote();
                     collectionNote.setCollectionId(collectionId);
@@ -162,6 +168,7 @@ public class CollectionServiceImpl implements CollectionService {
                     if (collectionMapper.countByCreatorIdAndNoteId(userId, noteId) == 0) {
                         // 笔记不存在，给笔记减少收藏量
                         noteMapper.unCollectNote(noteId);
+                        eventPublisher.publishEvent(NoteEvent.engagementEvent(this, noteId));
                     }
                 } catch (Exception e) {
                     return ApiResponseUtil.error("取消收藏失败");
@@ -1,11 +1,12 @@
 package com.qy.notes.service.impl;
 
 import com.qy.notes.annotation.NeedLogin;
+import com.qy.notes.cache.UserProfileCache;
+import com.qy.notes.event.NoteEvent;
 import com.qy.notes.model.base.ApiResponse;
 import com.qy.notes.model.base.EmptyVO;
 import com.qy.notes.mapper.CommentMapper;
 import com.qy.notes.mapper.NoteMapper;
-import com.qy.notes.mapper.UserMapper;
 import com.qy.notes.mapper.CommentLikeMapper;
 import com.qy.notes.model.entity.Comment;
 import com.qy.notes.model.entity.Note;
@@ -16,16 +17,20 @@ import com.qy.notes.model.dto.comment.UpdateCommentRequest;
 import com.qy.notes.model.vo.comment.CommentVO;
 import com.qy.notes.model.vo.user.UserActionVO;
 import com.qy.notes.scope.RequestScopeData;
+import com.qy.notes.search.CommentSearchIndex;
 import com.qy.notes.service.CommentService;
 import com.qy.notes.service.MessageService;
+import com.qy.notes.utils.TransactionUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.http.HttpStatus;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -37,10 +42,12 @@ import java.util.stream.Collectors;
 public class CommentServiceImpl implements CommentService {
     private final CommentMapper commentMapper;
     private final NoteMapper noteMapper;
-    private final UserMapper userMapper;
     private final CommentLikeMapper commentLikeMapper;
     private final MessageService messageService;
     private final RequestScopeData requestScopeData;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CommentSearchIndex commentSearchIndex;
+    private final UserProfileCache userProfileCache;
 
     @Override
     @NeedLogin
@@ -71,9 +78,12 @@ public class CommentServiceImpl implements CommentService {
             
             commentMapper.insert(comment);
             log.info("评论创建结果: commentId={}", comment.getCommentId());
+            // 提交后由后台批量写入搜索索引
+            TransactionUtils.afterCommit(() -> commentSearchIndex.markDirty(comment.getCommentId()));
             
             // 增加笔记评论数
             noteMapper.incrementCommentCount(request.getNoteId());
+            eventPublisher.publishEvent(NoteEvent.engagementEvent(this, request.getNoteId()));
             
             // 如果是回复评论，增加父评论的回复数
             if (request.getParentId() != null) {
@@ -119,6 +129,7 @@ public class CommentServiceImpl implements CommentService {
             comment.setContent(request.getContent());
             comment.setUpdatedAt(LocalDateTime.now());
             commentMapper.update(comment);
+            TransactionUtils.afterCommit(() -> commentSearchIndex.markDirty(commentId));
             return ApiResponse.success(new EmptyVO());
         } catch (Exception e) {
             log.error("更新评论失败", e);
@@ -146,6 +157,7 @@ public class CommentServiceImpl implements CommentService {
         try {
             // 删除评论
             commentMapper.deleteById(commentId);
+            TransactionUtils.afterCommit(() -> commentSearchIndex.markDirty(commentId));
             return ApiResponse.success(new EmptyVO());
         } catch (Exception e) {
             log.error("删除评论失败", e);
@@ -161,6 +173,9 @@ public class CommentServiceImpl implements CommentService {
                 return ApiResponse.success(List.of());
             }
 
+            // 作者信息一次批量获取
+            Map<Long, User> authors = userProfileCache.getAll(comments.stream().map(Comment::getAuthorId).toList());
+
             List<CommentVO> commentVOs = comments.stream()
                 .map(comment -> {
                     CommentVO vo = new CommentVO();
@@ -172,7 +187,7 @@ public class CommentServiceImpl implements CommentService {
                     vo.setUpdatedAt(comment.getUpdatedAt());
                     
                     // 设置作者信息
-                    User author = userMapper.findById(comment.getAuthorId());
+                    User author = authors.get(comment.getAuthorId());
                     if (author != null) {
                         CommentVO.SimpleAuthorVO authorVO = new CommentVO.SimpleAuthorVO();
                         authorVO.setUserId(author.getUserId());
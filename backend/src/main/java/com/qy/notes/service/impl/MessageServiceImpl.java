@@ -1,7 +1,8 @@
 package com.qy.notes.service.impl;
 
+import com.qy.notes.cache.TotalCountCache;
+import com.qy.notes.cache.UserProfileCache;
 import com.qy.notes.mapper.MessageMapper;
-import com.qy.notes.mapper.UserMapper;
 import com.qy.notes.model.base.ApiResponse;
 import com.qy.notes.model.base.EmptyVO;
 import com.qy.notes.model.base.PageVO;
@@ -21,6 +22,7 @@ import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -32,8 +34,9 @@ import java.util.stream.Collectors;
 public class MessageServiceImpl implements MessageService {
 
     private final MessageMapper messageMapper;
-    private final UserMapper userMapper;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final TotalCountCache totalCountCache;
+    private final UserProfileCache userProfileCache;
     private static final Logger log = LoggerFactory.getLogger(MessageServiceImpl.class);
 
     // Redis键前缀
@@ -74,8 +77,11 @@ public class MessageServiceImpl implements MessageService {
     public ApiResponse<PageVO<MessageVO>> getMessages(MessageQueryParams params) {
         Long currentUserId = SecurityUtils.getCurrentUserId();
         
-        // 获取总记录数
-        int total = messageMapper.countByParams(currentUserId, params);
+        // 获取总记录数，翻页时复用缓存的总数
+        String filterKey = TotalCountCache.filterKey(
+                params.getType(), params.getIsRead(), params.getStartTime(), params.getEndTime());
+        int total = totalCountCache.count(TotalCountCache.messageScope(currentUserId), filterKey,
+                () -> messageMapper.countByParams(currentUserId, params)).getTotal();
         
         // 计算偏移量
         int offset = (params.getPage() - 1) * params.getPageSize();
@@ -83,6 +89,9 @@ public class MessageServiceImpl implements MessageService {
         // 获取当前页数据
         List<Message> messages = messageMapper.selectByParams(currentUserId, params, offset);
 
+        // 发送者信息一次批量获取
+        Map<Long, User> senders = userProfileCache.getAll(messages.stream().map(Message::getSenderId).toList());
+
         // 转换为VO对象
         List<MessageVO> messageVOs = messages.stream().map(message -> {
             MessageVO vo = new MessageVO();
@@ -93,8 +102,7 @@ public class MessageServiceImpl implements MessageService {
             vo.setIsRead(message.getIsRead());
             vo.setCreatedAt(message.getCreatedAt());
 
-            // 从缓存获取发送者信息
-            User sender = getUserFromCache(message.getSenderId());
+            User sender = senders.get(message.getSenderId());
             if (sender != null) {
                 MessageVO.SimpleUserVO senderVO = new MessageVO.SimpleUserVO();
                 senderVO.setUserId(sender.getUserId());
@@ -137,6 +145,10 @@ public class MessageServiceImpl implements MessageService {
     public ApiResponse<EmptyVO> deleteMessage(Integer messageId) {
         Long currentUserId = SecurityUtils.getCurrentUserId();
         messageMapper.deleteMessage(messageId, currentUserId);
+
+        // 清除相关缓存
+        clearMessageCache(currentUserId);
+
         return ApiResponse.success();
     }
 
@@ -175,26 +187,12 @@ public class MessageServiceImpl implements MessageService {
         return ApiResponse.success(result);
     }
 
-    /**
-     * 从缓存获取用户信息
-     */
-    private User getUserFromCache(Long userId) {
-        String cacheKey = "user:detail:" + userId;
-        User user = (User) redisTemplate.opsForValue().get(cacheKey);
-        if (user == null) {
-            user = userMapper.findById(userId);
-            if (user != null) {
-                redisTemplate.opsForValue().set(cacheKey, user, 30, TimeUnit.MINUTES);
-            }
-        }
-        return user;
-    }
-
     /**
      * 清除用户相关的消息缓存
      */
     private void clearMessageCache(Long userId) {
         redisTemplate.delete(UNREAD_COUNT_KEY + userId);
         redisTemplate.delete(UNREAD_COUNT_BY_TYPE_KEY + userId);
+        totalCountCache.evict(TotalCountCache.messageScope(userId));
     }
 } 
\ No newline at end of file
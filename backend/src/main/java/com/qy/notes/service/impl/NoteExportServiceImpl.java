@@ -0,0 +1,243 @@
+package com.qy.notes.service.impl;
+
+import com.qy.notes.mapper.NoteMapper;
+import com.qy.notes.model.vo.category.CategoryVO;
+import com.qy.notes.model.vo.note.NoteExportItem;
+import com.qy.notes.scope.RequestScopeData;
+import com.qy.notes.service.CategoryService;
+import com.qy.notes.service.NoteExportService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+@Log4j2
+@Service
+public class NoteExportServiceImpl implements NoteExportService {
+
+    private static final String FORMAT_MARKDOWN = "markdown";
+    private static final String FORMAT_ZIP = "zip";
+
+    private static final String QUESTION_URL_PREFIX = "https://notes.kamacoder.com/questions/";
+
+    /**
+     * 每批读取的导出索引条数，索引不含笔记内容，可以取大一些
+     */
+    private static final int INDEX_BATCH_SIZE = 500;
+
+    /**
+     * 每批读取的笔记内容条数，写完一批再读下一批，内存中最多只有这么多条笔记内容
+     */
+    private static final int CONTENT_BATCH_SIZE = 50;
+
+    private static final MediaType TEXT_MARKDOWN = new MediaType("text", "markdown", StandardCharsets.UTF_8);
+
+    @Autowired
+    private NoteMapper noteMapper;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private RequestScopeData requestScopeData;
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportNotes(String format) {
+
+        if (!requestScopeData.isLogin() || requestScopeData.getUserId() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        boolean zip = FORMAT_ZIP.equals(format);
+        if (!zip && !FORMAT_MARKDOWN.equals(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // 响应体在异步线程中写出，请求作用域的数据需要在这里提前取出
+        List<ExportSection> sections = buildSections(requestScopeData.getUserId());
+        if (sections.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String filename = zip ? "notes.zip" : "notes.md";
+        StreamingResponseBody body = zip
+                ? outputStream -> writeZip(sections, outputStream)
+                : outputStream -> writeMarkdown(sections, outputStream);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(filename, StandardCharsets.UTF_8)
+                        .build()
+                        .toString())
+                .contentType(zip ? MediaType.parseMediaType("application/zip") : TEXT_MARKDOWN)
+                .body(body);
+    }
+
+    @Override
+    public String exportMarkdown(Long userId) {
+
+        List<ExportSection> sections = buildSections(userId);
+        if (sections.isEmpty()) {
+            return null;
+        }
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            writeMarkdown(sections, outputStream);
+        } catch (IOException e) {
+            // 写入内存不会发生 IO 异常
+            throw new UncheckedIOException(e);
+        }
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 分批读取导出索引，一次遍历按分类分组，再按分类树的顺序组织成章节
+     * 只有二级分类下的题目会被导出，与分类树的结构保持一致
+     */
+    private List<ExportSection> buildSections(Long userId) {
+
+        Map<Integer, List<NoteExportItem>> itemsByCategory = new HashMap<>();
+
+        int afterNoteId = 0;
+        while (true) {
+            List<NoteExportItem> batch = noteMapper.findExportIndexByAuthorId(userId, afterNoteId, INDEX_BATCH_SIZE);
+            for (NoteExportItem item : batch) {
+                itemsByCategory.computeIfAbsent(item.getCategoryId(), k -> new ArrayList<>()).add(item);
+            }
+            if (batch.size() < INDEX_BATCH_SIZE) {
+                break;
+            }
+            afterNoteId = batch.get(batch.size() - 1).getNoteId();
+        }
+
+        if (itemsByCategory.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<ExportSection> sections = new ArrayList<>();
+        for (CategoryVO categoryVO : categoryService.buildCategoryTree()) {
+
+            List<ExportSubSection> subSections = new ArrayList<>();
+            for (CategoryVO.ChildrenCategoryVO childrenCategoryVO : categoryVO.getChildren()) {
+                List<NoteExportItem> items = itemsByCategory.get(childrenCategoryVO.getCategoryId());
+                if (items != null) {
+                    subSections.add(new ExportSubSection(childrenCategoryVO.getName(), items));
+                }
+            }
+
+            if (!subSections.isEmpty()) {
+                sections.add(new ExportSection(categoryVO.getName(), subSections));
+            }
+        }
+        return sections;
+    }
+
+    private void writeMarkdown(List<ExportSection> sections, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        for (ExportSection section : sections) {
+            writeSection(section, writer);
+        }
+        writer.flush();
+    }
+
+    /**
+     * 每个一级分类一个文件，文件名重复时追加序号
+     */
+    private void writeZip(List<ExportSection> sections, OutputStream outputStream) throws IOException {
+        ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(zipOutputStream, StandardCharsets.UTF_8));
+        Set<String> entryNames = new HashSet<>();
+
+        for (ExportSection section : sections) {
+            String baseName = toFileName(section.getName());
+            String entryName = baseName + ".md";
+            for (int i = 2; !entryNames.add(entryName); i++) {
+                entryName = baseName + "-" + i + ".md";
+            }
+
+            zipOutputStream.putNextEntry(new ZipEntry(entryName));
+            writeSection(section, writer);
+            writer.flush();
+            zipOutputStream.closeEntry();
+        }
+        zipOutputStream.finish();
+    }
+
+    /**
+     * 写出一个一级分类，笔记内容按批读取，每写完一批刷新一次
+     */
+    private void writeSection(ExportSection section, Writer writer) throws IOException {
+
+        writer.append("# ").append(section.getName()).append("\n");
+
+        for (ExportSubSection subSection : section.getChildren()) {
+
+            writer.append("## ").append(subSection.getName()).append("\n");
+
+            List<NoteExportItem> items = subSection.getItems();
+            for (int from = 0; from < items.size(); from += CONTENT_BATCH_SIZE) {
+                List<NoteExportItem> batch = items.subList(from, Math.min(from + CONTENT_BATCH_SIZE, items.size()));
+
+                Map<Integer, String> contentMap = new HashMap<>();
+                noteMapper.findContentByIds(batch.stream().map(NoteExportItem::getNoteId).toList())
+                        .forEach(note -> contentMap.put(note.getNoteId(), note.getContent()));
+
+                for (NoteExportItem item : batch) {
+                    String content = contentMap.get(item.getNoteId());
+                    // 导出过程中被删除的笔记直接跳过
+                    if (content == null) {
+                        continue;
+                    }
+                    writer.append("### [")
+                            .append(item.getTitle())
+                            .append("](")
+                            .append(QUESTION_URL_PREFIX)
+                            .append(String.valueOf(item.getQuestionId()))
+                            .append(")\n")
+                            .append(content)
+                            .append("\n");
+                }
+                writer.flush();
+            }
+        }
+    }
+
+    private String toFileName(String name) {
+        String fileName = name.replaceAll("[\\\\/:*?\"<>|\\s]+", "_");
+        return fileName.isEmpty() ? "notes" : fileName;
+    }
+
+    /**
+     * 一级分类
+     */
+    @Data
+    @AllArgsConstructor
+    private static class ExportSection {
+        private String name;
+        private List<ExportSubSection> children;
+    }
+
+    /**
+     * 二级分类及其下的笔记索引
+     */
+    @Data
+    @AllArgsConstructor
+    private static class ExportSubSection {
+        private String name;
+        private List<NoteExportItem> items;
+    }
+}
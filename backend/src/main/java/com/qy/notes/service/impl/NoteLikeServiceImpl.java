@@ -1,6 +1,7 @@
 package com.qy.notes.service.impl;
 
 import com.qy.notes.annotation.NeedLogin;
+import com.qy.notes.event.NoteEvent;
 import com.qy.notes.mapper.NoteLikeMapper;
 import com.qy.notes.mapper.NoteMapper;
 import com.qy.notes.model.base.ApiResponse;
@@ -12,6 +13,7 @@ import com.qy.notes.service.MessageService;
 import com.qy.notes.service.NoteLikeService;
 import com.qy.notes.utils.ApiResponseUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +30,7 @@ public class NoteLikeServiceImpl implements NoteLikeService {
     private final NoteMapper noteMapper;
     private final RequestScopeData requestScopeData;
     private final MessageService messageService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @NeedLogin
@@ -51,6 +54,7 @@ public class NoteLikeServiceImpl implements NoteLikeService {
 
             // 增加笔记点赞数
             noteMapper.likeNote(noteId);
+            eventPublisher.publishEvent(NoteEvent.engagementEvent(this, noteId));
 
             // 发送点赞通知
             messageService.createMessage(
@@ -86,6 +90,7 @@ public class NoteLikeServiceImpl implements NoteLikeService {
                 noteLikeMapper.delete(noteLike);
                 // 减少笔记点赞数
                 noteMapper.unlikeNote(noteId);
+                eventPublisher.publishEvent(NoteEvent.engagementEvent(this, noteId));
             }
             return ApiResponseUtil.success("取消点赞成功");
         } catch (Exception e) {
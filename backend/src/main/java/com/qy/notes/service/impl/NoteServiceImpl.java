@@ -1,36 +1,59 @@
 package com.qy.notes.service.impl;
 
 import com.qy.notes.annotation.NeedLogin;
-import com.qy.notes.mapper.QuestionMapper;
+import com.qy.notes.cache.NoteLeaderboard;
+import com.qy.notes.cache.NoteListCache;
+import com.qy.notes.cache.TotalCountCache;
+import com.qy.notes.converter.NoteConverter;
+import com.qy.notes.event.NoteEvent;
 import com.qy.notes.model.base.ApiResponse;
+import com.qy.notes.model.base.CursorPagination;
 import com.qy.notes.model.base.EmptyVO;
 import com.qy.notes.model.base.Pagination;
+import com.qy.notes.model.base.TotalCount;
 import com.qy.notes.model.dto.note.CreateNoteRequest;
 import com.qy.notes.model.dto.note.NoteQueryParams;
 import com.qy.notes.model.dto.note.UpdateNoteRequest;
 import com.qy.notes.model.entity.Note;
+import com.qy.notes.mapper.NoteDailyAuthorCountMapper;
 import com.qy.notes.mapper.NoteMapper;
 import com.qy.notes.model.entity.Question;
 import com.qy.notes.model.entity.User;
-import com.qy.notes.model.vo.category.CategoryVO;
 import com.qy.notes.model.vo.note.*;
 import com.qy.notes.scope.RequestScopeData;
 import com.qy.notes.service.*;
 import com.qy.notes.utils.ApiResponseUtil;
+import com.qy.notes.utils.CursorUtils;
 import com.qy.notes.utils.MarkdownUtil;
 import com.qy.notes.utils.PaginationUtils;
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Log4j2
 @Service
 public class NoteServiceImpl implements NoteService {
 
+    /**
+     * 热力图展示的天数（不含今天）
+     */
+    private static final int HEAT_MAP_DAYS = 94;
+
     @Autowired
     private NoteMapper noteMapper;
 
@@ -50,103 +73,341 @@ public class NoteServiceImpl implements NoteService {
     private RequestScopeData requestScopeData;
 
     @Autowired
-    private CategoryService categoryService;
+    private NoteListCache noteListCache;
+
+    @Autowired
+    private TotalCountCache totalCountCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ThreadPoolTaskExecutor noteQueryExecutor;
 
     @Autowired
-    private QuestionMapper questionMapper;
+    private NoteConverter noteConverter;
+
+    @Autowired
+    private NoteExportService noteExportService;
+
+    @Autowired
+    private NoteDailyAuthorCountMapper noteDailyAuthorCountMapper;
+
+    @Autowired
+    private NoteLeaderboard noteLeaderboard;
+
+    /**
+     * 列表补全查询（作者、问题、点赞、收藏）的时间预算
+     */
+    @Value("${notes.query-executor.enrich-timeout-ms:500}")
+    private long enrichTimeoutMillis;
 
     @Override
     public ApiResponse<List<NoteVO>> getNotes(NoteQueryParams params) {
 
+        boolean cursorMode = params.getCursor() != null;
+
+        // 收藏夹筛选的列表与个人强相关，复用率低，不走缓存
+        boolean cacheable = params.getCollectionId() == null;
+
+        // RequestScopeData 是请求作用域的代理，不能在线程池中访问，这里先在请求线程上取出当前用户
+        Long currentUserId = requestScopeData.isLogin() ? requestScopeData.getUserId() : null;
+
+        try {
+            // 与当前用户无关的部分（笔记、作者、问题、预览）优先从缓存获取
+            // 缓存键需要在查库之前确定，查库期间发生失效时不写入缓存
+            NoteListCache.Lookup cacheLookup = cacheable ? noteListCache.lookup(params) : null;
+            NoteListPage listPage = cacheLookup != null ? noteListCache.get(cacheLookup) : null;
+
+            CompletableFuture<Set<Integer>> likedFuture;
+            CompletableFuture<Set<Integer>> collectedFuture;
+            long deadline;
+
+            if (listPage == null) {
+                NotePage notePage;
+                try {
+                    // 传入 cursor 时使用游标分页，否则保持原有的页码分页
+                    notePage = cursorMode ? loadNotesByCursor(params) : loadNotesByPage(params);
+                } catch (IllegalArgumentException e) {
+                    return ApiResponseUtil.error(e.getMessage());
+                }
+
+                // 补全数据的时间预算从笔记查出后开始计算，不包含主查询的耗时
+                deadline = enrichDeadline();
+
+                // 四个补全查询互不依赖，同时发起
+                List<Integer> noteIds = notePage.getNotes().stream().map(Note::getNoteId).toList();
+                likedFuture = findUserLikedNoteIdsAsync(currentUserId, noteIds);
+                collectedFuture = findUserCollectedNoteIdsAsync(currentUserId, noteIds);
+
+                SharedNoteVOs sharedNoteVOs = buildSharedNoteVOs(notePage.getNotes(), deadline);
+                listPage = new NoteListPage(
+                        sharedNoteVOs.getNotes(),
+                        notePage.getTotal(),
+                        notePage.getTotalEstimated(),
+                        notePage.getNextCursor(),
+                        notePage.getHasMore());
+
+                // 缺少作者或问题信息的页面不缓存，下次请求重新补全
+                if (cacheLookup != null && sharedNoteVOs.isComplete()) {
+                    noteListCache.put(cacheLookup, listPage);
+                }
+            } else {
+                deadline = enrichDeadline();
+                List<Integer> noteIds = listPage.getNotes().stream().map(NoteVO::getNoteId).toList();
+                likedFuture = findUserLikedNoteIdsAsync(currentUserId, noteIds);
+                collectedFuture = findUserCollectedNoteIdsAsync(currentUserId, noteIds);
+            }
+
+            Pagination pagination = cursorMode
+                    ? new CursorPagination(params.getPageSize(), listPage.getTotal(), listPage.getNextCursor(), listPage.getHasMore())
+                    : new Pagination(params.getPage(), params.getPageSize(), listPage.getTotal());
+            pagination.setEstimated(Boolean.TRUE.equals(listPage.getTotalEstimated()));
+
+            // 叠加当前用户的点赞 / 收藏状态，超出时间预算时降级为未点赞 / 未收藏
+            List<NoteVO> noteVOs = applyUserActions(
+                    listPage.getNotes(),
+                    awaitOrDefault(likedFuture, deadline, Collections.emptySet(), "点赞状态"),
+                    awaitOrDefault(collectedFuture, deadline, Collections.emptySet(), "收藏状态"));
+
+            return ApiResponseUtil.success("获取笔记列表成功", noteVOs, pagination);
+        } catch (Exception e) {
+            log.error("获取笔记列表失败", e);
+            return ApiResponseUtil.error("获取笔记列表失败");
+        }
+    }
+
+    /**
+     * 页码分页查询笔记列表
+     */
+    private NotePage loadNotesByPage(NoteQueryParams params) {
+
         // 计算分页参数
         int offset = PaginationUtils.calculateOffset(params.getPage(), params.getPageSize());
 
         // 查询当前查询条件下的笔记总数
-        int total = noteMapper.countNotes(params);
-
-        Pagination pagination = new Pagination(params.getPage(), params.getPageSize(), total);
+        TotalCount total = countNotes(params);
 
         // 获取笔记列表
         List<Note> notes = noteMapper.findByQueryParams(params, offset, params.getPageSize());
 
+        return new NotePage(notes, total.getTotal(), total.getEstimated(), null, null);
+    }
+
+    /**
+     * 游标分页查询笔记列表
+     * 按 (created_at, note_id) 定位下一页，不再执行 OFFSET 扫描，默认也不执行 COUNT(*)
+     */
+    private NotePage loadNotesByCursor(NoteQueryParams params) {
+
+        CursorUtils.Cursor cursor = CursorUtils.decode(params.getCursor());
+
+        int pageSize = params.getPageSize();
+
+        // 多查询一条，用于判断是否还有下一页
+        List<Note> notes = noteMapper.findByCursor(
+                params,
+                cursor == null ? null : cursor.getCreatedAt(),
+                cursor == null ? null : cursor.getId(),
+                pageSize + 1);
+
+        boolean hasMore = notes.size() > pageSize;
+        if (hasMore) {
+            notes = notes.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Note last = notes.get(notes.size() - 1);
+            nextCursor = CursorUtils.encode(last.getCreatedAt(), last.getNoteId());
+        }
+
+        // 只有请求方明确需要时才统计总数
+        TotalCount total = Boolean.TRUE.equals(params.getWithTotal()) ? countNotes(params) : null;
+
+        return new NotePage(
+                notes,
+                total == null ? null : total.getTotal(),
+                total != null && total.getEstimated(),
+                nextCursor,
+                hasMore);
+    }
+
+    /**
+     * 统计笔记总数，翻页时复用缓存的总数，不带筛选条件时可能返回估算值
+     */
+    private TotalCount countNotes(NoteQueryParams params) {
+
+        // 收藏夹中的笔记随收藏操作变化，不缓存
+        if (params.getCollectionId() != null) {
+            return TotalCount.exact(noteMapper.countNotes(params));
+        }
+
+        String filterKey = TotalCountCache.filterKey(
+                params.getQuestionId(), params.getAuthorId(), params.getRecentDays());
+
+        boolean unfiltered = params.getQuestionId() == null
+                && params.getAuthorId() == null
+                && params.getRecentDays() == null;
+
+        return unfiltered
+                ? totalCountCache.countOrEstimate(TotalCountCache.NOTE, filterKey, "note", () -> noteMapper.countNotes(params))
+                : totalCountCache.count(TotalCountCache.NOTE, filterKey, () -> noteMapper.countNotes(params));
+    }
+
+    /**
+     * 为笔记列表填充作者、问题以及折叠内容，这部分与当前用户无关，可以缓存
+     * 作者和问题并发查询，超出时间预算或查询失败时不填充对应信息，并标记结果不完整，调用方不缓存不完整的数据
+     */
+    private SharedNoteVOs buildSharedNoteVOs(List<Note> notes, long deadline) {
+
         // 从 笔记列表 中提取 questionIds 和 authorIds，并去重
         List<Integer> questionIds = notes.stream().map(Note::getQuestionId).distinct().toList();
         List<Long> authorIds = notes.stream().map(Note::getAuthorId).distinct().toList();
-        List<Integer> noteIds = notes.stream().map(Note::getNoteId).toList();
 
         // 笔记的作者信息
-        Map<Long, User> userMapByIds = userService.getUserMapByIds(authorIds);
+        CompletableFuture<Map<Long, User>> userFuture =
+                CompletableFuture.supplyAsync(() -> userService.getUserMapByIds(authorIds), noteQueryExecutor);
         // 笔记的问题信息
-        Map<Integer, Question> questionMapByIds = questionService.getQuestionMapByIds(questionIds);
-
-        // 当前登录用户点赞的笔记列表和收藏的笔记列表
-        Set<Integer> userLikedNoteIds;
-        Set<Integer> userCollectedNoteIds;
-
-        // 如果是登录状态，则对当前查询的笔记列表进行是否点赞过 / 收藏过的判断
-        if (requestScopeData.isLogin() && requestScopeData.getUserId() != null) {
-            Long currentUserId = requestScopeData.getUserId();
-            userLikedNoteIds = noteLikeService.findUserLikedNoteIds(currentUserId, noteIds);
-            userCollectedNoteIds = collectionNoteService.findUserCollectedNoteIds(currentUserId, noteIds);
-        } else {  // 未登录状态直接设置为空集合
-            userLikedNoteIds = Collections.emptySet();
-            userCollectedNoteIds = Collections.emptySet();
+        CompletableFuture<Map<Integer, Question>> questionFuture =
+                CompletableFuture.supplyAsync(() -> questionService.getQuestionMapByIds(questionIds), noteQueryExecutor);
+
+        Map<Long, User> userResult = awaitOrDefault(userFuture, deadline, null, "作者信息");
+        Map<Integer, Question> questionResult = awaitOrDefault(questionFuture, deadline, null, "问题信息");
+        boolean complete = userResult != null && questionResult != null;
+
+        Map<Long, User> userMapByIds = userResult != null ? userResult : Collections.emptyMap();
+        Map<Integer, Question> questionMapByIds = questionResult != null ? questionResult : Collections.emptyMap();
+
+        List<NoteVO> noteVOs = notes.stream().map(note -> {
+            NoteVO noteVO = noteConverter.toNoteVO(note);
+
+            // 填充作者信息
+            User author = userMapByIds.get(note.getAuthorId());
+            if (author != null) {
+                noteVO.setAuthor(noteConverter.toSimpleAuthorVO(author));
+            }
+
+            // 填充问题信息
+            Question question = questionMapByIds.get(note.getQuestionId());
+            if (question != null) {
+                noteVO.setQuestion(noteConverter.toSimpleQuestionVO(question));
+            }
+
+            // 折叠标记与简介已在发布 / 更新笔记时计算好，这里不再解析 Markdown
+            // 尚未回填预览的存量笔记先按不折叠处理
+            if (note.getNeedCollapsed() == null) {
+                noteVO.setNeedCollapsed(false);
+            }
+
+            return noteVO;
+        }).toList();
+
+        return new SharedNoteVOs(noteVOs, complete);
+    }
+
+    /**
+     * 异步查询用户点赞过的笔记，未登录时直接返回空集合
+     */
+    private CompletableFuture<Set<Integer>> findUserLikedNoteIdsAsync(Long userId, List<Integer> noteIds) {
+        if (userId == null || noteIds.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptySet());
         }
+        return CompletableFuture.supplyAsync(() -> noteLikeService.findUserLikedNoteIds(userId, noteIds), noteQueryExecutor);
+    }
 
-        // 用户的点赞信息
-        // 用户的收藏信息
+    /**
+     * 异步查询用户收藏过的笔记，未登录时直接返回空集合
+     */
+    private CompletableFuture<Set<Integer>> findUserCollectedNoteIdsAsync(Long userId, List<Integer> noteIds) {
+        if (userId == null || noteIds.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptySet());
+        }
+        return CompletableFuture.supplyAsync(() -> collectionNoteService.findUserCollectedNoteIds(userId, noteIds), noteQueryExecutor);
+    }
+
+    /**
+     * 在截止时间前等待结果，超时或失败时返回默认值
+     */
+    private <T> T awaitOrDefault(CompletableFuture<T> future, long deadline, T defaultValue, String name) {
         try {
-            List<NoteVO> noteVOs = notes.stream().map(note -> {
-                NoteVO noteVO = new NoteVO();
-                BeanUtils.copyProperties(note, noteVO);
-
-                // 填充作者信息
-                User author = userMapByIds.get(note.getAuthorId());
-                if (author != null) {
-                    NoteVO.SimpleAuthorVO authorVO = new NoteVO.SimpleAuthorVO();
-                    BeanUtils.copyProperties(author, authorVO);
-                    noteVO.setAuthor(authorVO);
-                }
+            return future.get(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("查询{}超出时间预算 {}ms，按默认值处理", name, enrichTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("查询{}失败，按默认值处理", name, e.getCause());
+        }
+        return defaultValue;
+    }
 
-                // 填充问题信息
-                Question question = questionMapByIds.get(note.getQuestionId());
-                if (question != null) {
-                    NoteVO.SimpleQuestionVO questionVO = new NoteVO.SimpleQuestionVO();
-                    BeanUtils.copyProperties(question, questionVO);
-                    noteVO.setQuestion(questionVO);
-                }
+    /**
+     * 本次请求补全数据的截止时间
+     */
+    private long enrichDeadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(enrichTimeoutMillis);
+    }
 
-                // 填充用户行为信息
-                NoteVO.UserActionsVO userActionsVO = new NoteVO.UserActionsVO();
-                if (userLikedNoteIds != null && userLikedNoteIds.contains(note.getNoteId())) {
-                    userActionsVO.setIsLiked(true);
-                }
-                if (userCollectedNoteIds != null && userCollectedNoteIds.contains(note.getNoteId())) {
-                    userActionsVO.setIsCollected(true);
-                }
+    private long remainingNanos(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
 
-                // 处理笔记内容折叠内容
-                if (MarkdownUtil.needCollapsed(note.getContent())) {
-                    noteVO.setNeedCollapsed(true);
-                    noteVO.setDisplayContent(MarkdownUtil.extractIntroduction(note.getContent()));
-                } else {
-                    noteVO.setNeedCollapsed(false);
-                }
+    /**
+     * 在共享的笔记列表上叠加当前用户的点赞 / 收藏状态
+     * 共享列表可能来自缓存，这里复制一份再填充，不修改原对象
+     */
+    private List<NoteVO> applyUserActions(List<NoteVO> sharedNoteVOs,
+                                          Set<Integer> userLikedNoteIds,
+                                          Set<Integer> userCollectedNoteIds) {
+
+        return sharedNoteVOs.stream().map(sharedNoteVO -> {
+            NoteVO noteVO = noteConverter.copy(sharedNoteVO);
+
+            // 填充用户行为信息
+            NoteVO.UserActionsVO userActionsVO = new NoteVO.UserActionsVO();
+            if (userLikedNoteIds != null && userLikedNoteIds.contains(noteVO.getNoteId())) {
+                userActionsVO.setIsLiked(true);
+            }
+            if (userCollectedNoteIds != null && userCollectedNoteIds.contains(noteVO.getNoteId())) {
+                userActionsVO.setIsCollected(true);
+            }
 
-                noteVO.setUserActions(userActionsVO);
-                return noteVO;
-            }).toList();
+            noteVO.setUserActions(userActionsVO);
+            return noteVO;
+        }).toList();
+    }
 
-            return ApiResponseUtil.success("获取笔记列表成功", noteVOs, pagination);
-        } catch (Exception e) {
-            // TODO: 打印日志
-            System.out.println(Arrays.toString(e.getStackTrace()));
-            return ApiResponseUtil.error("获取笔记列表失败");
-        }
+    /**
+     * 从数据库查询出的一页笔记（尚未补全作者、问题等信息）
+     */
+    @Data
+    @AllArgsConstructor
+    private static class NotePage {
+        private List<Note> notes;
+        private Integer total;
+        private Boolean totalEstimated;
+        private String nextCursor;
+        private Boolean hasMore;
+    }
+
+    /**
+     * 补全了作者、问题等共享信息的笔记列表
+     */
+    @Data
+    @AllArgsConstructor
+    private static class SharedNoteVOs {
+        private List<NoteVO> notes;
+        /**
+         * 作者和问题信息是否都已在时间预算内取到
+         */
+        private boolean complete;
     }
 
     @Override
     @NeedLogin
+    @Transactional(rollbackFor = Exception.class)
     public ApiResponse<CreateNoteVO> createNote(CreateNoteRequest request) {
         Long userId = requestScopeData.getUserId();
         Integer questionId = request.getQuestionId();
@@ -161,13 +422,19 @@ public class NoteServiceImpl implements NoteService {
         Note note = new Note();
         BeanUtils.copyProperties(request, note);
         note.setAuthorId(userId);
+        fillPreview(note);
 
         try {
             noteMapper.insert(note);
+            noteDailyAuthorCountMapper.increment(LocalDate.now(), userId);
+            eventPublisher.publishEvent(NoteEvent.createEvent(this, note));
             CreateNoteVO createNoteVO = new CreateNoteVO();
             createNoteVO.setNoteId(note.getNoteId());
             return ApiResponseUtil.success("创建笔记成功", createNoteVO);
         } catch (Exception e) {
+            // 异常已被捕获，需要手动回滚，保证笔记与每日统计一致
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            log.error("创建笔记失败", e);
             return ApiResponseUtil.error("创建笔记失败");
         }
     }
@@ -190,7 +457,12 @@ public class NoteServiceImpl implements NoteService {
 
         try {
             note.setContent(request.getContent());
-            noteMapper.update(note);
+            fillPreview(note);
+            // 笔记在查询后被删除时不更新任何记录，不能发布更新事件
+            if (noteMapper.update(note) == 0) {
+                return ApiResponseUtil.error("笔记不存在");
+            }
+            eventPublisher.publishEvent(NoteEvent.updateEvent(this, note));
             return ApiResponseUtil.success("更新笔记成功");
         } catch (Exception e) {
             return ApiResponseUtil.error("更新笔记失败");
@@ -199,6 +471,7 @@ public class NoteServiceImpl implements NoteService {
 
     @Override
     @NeedLogin
+    @Transactional(rollbackFor = Exception.class)
     public ApiResponse<EmptyVO> deleteNote(Integer noteId) {
 
         Long userId = requestScopeData.getUserId();
@@ -216,12 +489,25 @@ public class NoteServiceImpl implements NoteService {
 
         try {
             noteMapper.deleteById(noteId);
+            noteDailyAuthorCountMapper.decrement(note.getCreatedAt().toLocalDate(), note.getAuthorId());
+            eventPublisher.publishEvent(NoteEvent.deleteEvent(this, note));
             return ApiResponseUtil.success("删除笔记成功");
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            log.error("删除笔记失败, noteId={}", noteId, e);
             return ApiResponseUtil.error("删除笔记失败");
         }
     }
 
+    /**
+     * 根据笔记内容计算折叠标记与简介，随笔记一起持久化
+     */
+    private void fillPreview(Note note) {
+        String preview = MarkdownUtil.buildPreview(note.getContent());
+        note.setNeedCollapsed(preview != null);
+        note.setDisplayContent(preview);
+    }
+
     // 下载笔记
     @Override
     @NeedLogin
@@ -229,95 +515,39 @@ public class NoteServiceImpl implements NoteService {
 
         Long userId = requestScopeData.getUserId();
 
-        // 获取所有笔记
-        List<Note> userNotes = noteMapper.findByAuthorId(userId);
+        // 分类分组与内容拼接统一由导出服务完成，新的客户端应使用流式导出接口 /notes/export
+        String markdown = noteExportService.exportMarkdown(userId);
 
-        // 将笔记转为 key = questionId, value = note 的 map 对象
-        Map<Integer, Note> questionNoteMap = userNotes.stream()
-                .collect(Collectors.toMap(Note::getQuestionId, note -> note));
-
-        if (userNotes.isEmpty()) {
+        if (markdown == null) {
             return ApiResponseUtil.error("不存在任何笔记");
         }
 
-        // 获取分类树
-        List<CategoryVO> categoryTree = categoryService.buildCategoryTree();
-
-        // 根据分类树，创建 markdown 文件
-        StringBuilder markdownContent = new StringBuilder();
-
-        // 将 note 中的所有 questionId 提取出来
-        List<Integer> questionIds = userNotes.stream()
-                .map(Note::getQuestionId)
-                .toList();
-
-        List<Question> questions = questionMapper.findByIdBatch(questionIds);
-
-        for (CategoryVO categoryVO : categoryTree) {
-
-            boolean hasTopLevelToc = false;
-
-            if (categoryVO.getChildren().isEmpty()) {
-                continue;
-            }
-
-            for (CategoryVO.ChildrenCategoryVO childrenCategoryVO : categoryVO.getChildren()) {
-
-                boolean hasSubLevelToc = false;
-                Integer categoryId = childrenCategoryVO.getCategoryId();
-
-                // 用户在该分类下的笔记对应的所有问题
-                List<Question> categoryQuestionList = questions.stream()
-                        .filter(question -> question.getCategoryId().equals(categoryId))
-                        .toList();
-
-                if (categoryQuestionList.isEmpty()) {
-                    continue;
-                }
-
-                for (Question question : categoryQuestionList) {
-
-                    if (!hasTopLevelToc) {  // 设置一级标题
-                        markdownContent.append("# ").append(categoryVO.getName()).append("\n");
-                        hasTopLevelToc = true;
-                    }
-
-                    if (!hasSubLevelToc) {  // 设置二级标题
-                        markdownContent.append("## ").append(childrenCategoryVO.getName()).append("\n");
-                        hasSubLevelToc = true;
-                    }
-
-                    markdownContent.append("### [")
-                            .append(question.getTitle())
-                            .append("]")
-                            .append("(https://notes.kamacoder.com/questions/")
-                            .append(question.getQuestionId())
-                            .append(")\n");
-
-                    Note note = questionNoteMap.get(question.getQuestionId());
-
-                    markdownContent.append(note.getContent()).append("\n");
-                }
-            }
-        }
-
         // 设置笔记内容
         DownloadNoteVO downloadNoteVO = new DownloadNoteVO();
-        downloadNoteVO.setMarkdown(markdownContent.toString());
+        downloadNoteVO.setMarkdown(markdown);
 
         return ApiResponseUtil.success("生成笔记成功", downloadNoteVO);
     }
 
     @Override
-    public ApiResponse<List<NoteRankListItem>> submitNoteRank() {
-        return ApiResponseUtil.success("获取笔记排行榜成功", noteMapper.submitNoteRank());
+    public ApiResponse<List<NoteRankListItem>> submitNoteRank(String window) {
+        if (!NoteLeaderboard.isValidWindow(window)) {
+            return ApiResponseUtil.error("window 必须为 day、week 或 month");
+        }
+        return ApiResponseUtil.success("获取笔记排行榜成功", noteLeaderboard.getTop(window));
     }
 
     @Override
     @NeedLogin
     public ApiResponse<List<NoteHeatMapItem>> submitNoteHeatMap() {
         Long userId = requestScopeData.getUserId();
-        return ApiResponseUtil.success("获取笔记热力图成功", noteMapper.submitNoteHeatMap(userId));
+        LocalDate today = LocalDate.now();
+
+        // 读取预聚合的每日统计，排名已由 NoteDailyRankTask 计算好
+        List<NoteHeatMapItem> heatMap =
+                noteDailyAuthorCountMapper.findHeatMap(userId, today.minusDays(HEAT_MAP_DAYS), today);
+
+        return ApiResponseUtil.success("获取笔记热力图成功", heatMap);
     }
 
     @Override
@@ -326,7 +556,13 @@ public class NoteServiceImpl implements NoteService {
 
         Long userId = requestScopeData.getUserId();
 
-        Top3Count top3Count = noteMapper.submitNoteTop3Count(userId);
+        LocalDate thisMonthStart = LocalDate.now().withDayOfMonth(1);
+
+        Top3Count top3Count = noteDailyAuthorCountMapper.countTop3(
+                userId,
+                thisMonthStart.minusMonths(1),
+                thisMonthStart,
+                thisMonthStart.plusMonths(1).minusDays(1));
 
         return ApiResponseUtil.success("获取笔记top3成功", top3Count);
     }
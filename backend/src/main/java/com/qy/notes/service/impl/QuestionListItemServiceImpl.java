@@ -1,5 +1,6 @@
 package com.qy.notes.service.impl;
 
+import com.qy.notes.converter.QuestionConverter;
 import com.qy.notes.mapper.NoteMapper;
 import com.qy.notes.mapper.QuestionListItemMapper;
 import com.qy.notes.mapper.QuestionListMapper;
@@ -47,6 +48,9 @@ public class QuestionListItemServiceImpl implements QuestionListItemService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private QuestionConverter questionConverter;
+
     @Override
     public ApiResponse<List<QuestionListItemUserVO>> userGetQuestionListItems(QuestionListItemQueryParams queryParams) {
         // 需要获取题单信息
@@ -87,8 +91,7 @@ public class QuestionListItemServiceImpl implements QuestionListItemService {
         // 将 QuestionListItemVO 映射为带用户状态的 QuestionListItemUserVO
         List<QuestionListItemUserVO> list = questionListItems.stream().map(questionListItemVO -> {
 
-            QuestionListItemUserVO questionListItemUserVO = new QuestionListItemUserVO();
-            BeanUtils.copyProperties(questionListItemVO, questionListItemUserVO);
+            QuestionListItemUserVO questionListItemUserVO = questionConverter.toQuestionListItemUserVO(questionListItemVO);
 
             QuestionListItemUserVO.UserQuestionStatus userQuestionStatus =
                     new QuestionListItemUserVO.UserQuestionStatus();
@@ -1,11 +1,14 @@
 package com.qy.notes.service.impl;
 
+import com.qy.notes.cache.TotalCountCache;
+import com.qy.notes.converter.QuestionConverter;
 import com.qy.notes.mapper.CategoryMapper;
 import com.qy.notes.mapper.NoteMapper;
 import com.qy.notes.mapper.QuestionMapper;
 import com.qy.notes.model.base.ApiResponse;
 import com.qy.notes.model.base.EmptyVO;
 import com.qy.notes.model.base.Pagination;
+import com.qy.notes.model.base.TotalCount;
 import com.qy.notes.model.dto.question.CreateQuestionBody;
 import com.qy.notes.model.dto.question.QuestionQueryParam;
 import com.qy.notes.model.dto.question.SearchQuestionBody;
@@ -18,9 +21,11 @@ import com.qy.notes.model.vo.question.QuestionNoteVO;
 import com.qy.notes.model.vo.question.QuestionUserVO;
 import com.qy.notes.model.vo.question.QuestionVO;
 import com.qy.notes.scope.RequestScopeData;
+import com.qy.notes.search.QuestionTypeahead;
 import com.qy.notes.service.QuestionService;
 import com.qy.notes.utils.ApiResponseUtil;
 import com.qy.notes.utils.PaginationUtils;
+import com.qy.notes.utils.TransactionUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -34,6 +39,11 @@ import java.util.stream.Collectors;
 @Service
 public class QuestionServiceImpl implements QuestionService {
 
+    /**
+     * 搜索框联想最多返回的题目数
+     */
+    private static final int SEARCH_LIMIT = 10;
+
     @Autowired
     private QuestionMapper questionMapper;
 
@@ -46,6 +56,15 @@ public class QuestionServiceImpl implements QuestionService {
     @Autowired
     private NoteMapper noteMapper;
 
+    @Autowired
+    private QuestionConverter questionConverter;
+
+    @Autowired
+    private TotalCountCache totalCountCache;
+
+    @Autowired
+    private QuestionTypeahead questionTypeahead;
+
     @Override
     public Question findById(Integer questionId) {
         return questionMapper.findById(questionId);
@@ -65,16 +84,12 @@ public class QuestionServiceImpl implements QuestionService {
     public ApiResponse<List<QuestionVO>> getQuestions(QuestionQueryParam queryParams) {
 
         int offset = PaginationUtils.calculateOffset(queryParams.getPage(), queryParams.getPageSize());
-        int total = questionMapper.countByQueryParam(queryParams);
+        TotalCount total = countQuestions(queryParams);
 
         Pagination pagination = new Pagination(queryParams.getPage(), queryParams.getPageSize(), total);
         List<Question> questions = questionMapper.findByQueryParam(queryParams, offset, queryParams.getPageSize());
 
-        List<QuestionVO> questionVOs = questions.stream().map(question -> {
-            QuestionVO questionVO = new QuestionVO();
-            BeanUtils.copyProperties(question, questionVO);
-            return questionVO;
-        }).toList();
+        List<QuestionVO> questionVOs = questions.stream().map(questionConverter::toQuestionVO).toList();
 
         return ApiResponseUtil.success("获取问题列表成功", questionVOs, pagination);
     }
@@ -93,6 +108,8 @@ public class QuestionServiceImpl implements QuestionService {
 
         try {
             questionMapper.insert(question);
+            TransactionUtils.afterCommit(() -> totalCountCache.evict(TotalCountCache.QUESTION));
+            questionTypeahead.rebuildAfterCommit();
             CreateQuestionVO createQuestionVO = new CreateQuestionVO();
             createQuestionVO.setQuestionId(question.getQuestionId());
             return ApiResponseUtil.success("创建问题成功", createQuestionVO);
@@ -109,6 +126,7 @@ public class QuestionServiceImpl implements QuestionService {
         // 更新问题
         try {
             questionMapper.update(question);
+            questionTypeahead.rebuildAfterCommit();
             return ApiResponseUtil.success("更新问题成功");
         } catch (Exception e) {
             return ApiResponseUtil.error("更新问题失败");
@@ -118,6 +136,8 @@ public class QuestionServiceImpl implements QuestionService {
     @Override
     public ApiResponse<EmptyVO> deleteQuestion(Integer questionId) {
         if (questionMapper.deleteById(questionId) > 0) {
+            TransactionUtils.afterCommit(() -> totalCountCache.evict(TotalCountCache.QUESTION));
+            questionTypeahead.rebuildAfterCommit();
             return ApiResponseUtil.success("删除问题成功");
         } else {
             return ApiResponseUtil.error("删除问题失败");
@@ -130,7 +150,7 @@ public class QuestionServiceImpl implements QuestionService {
 
         // 分页相关信息
         int offset = PaginationUtils.calculateOffset(queryParams.getPage(), queryParams.getPageSize());
-        int total = questionMapper.countByQueryParam(queryParams);
+        TotalCount total = countQuestions(queryParams);
         Pagination pagination = new Pagination(queryParams.getPage(), queryParams.getPageSize(), total);
 
         // 根据 queryParams 查询出符合条件的问题列表
@@ -150,7 +170,7 @@ public class QuestionServiceImpl implements QuestionService {
         }
 
         List<QuestionUserVO> questionUserVOs = questions.stream().map(question -> {
-            QuestionUserVO questionUserVO = new QuestionUserVO();
+            QuestionUserVO questionUserVO = questionConverter.toQuestionUserVO(question);
             QuestionUserVO.UserQuestionStatus userQuestionStatus = new QuestionUserVO.UserQuestionStatus();
 
             // 判断用户是否完成该道题目
@@ -158,8 +178,6 @@ public class QuestionServiceImpl implements QuestionService {
                 userQuestionStatus.setFinished(true);  // 用户完成了该道题目
             }
 
-            BeanUtils.copyProperties(question, questionUserVO);
-
             // 设置用户完成状态
             questionUserVO.setUserQuestionStatus(userQuestionStatus);
             return questionUserVO;
@@ -177,7 +195,7 @@ public class QuestionServiceImpl implements QuestionService {
             return ApiResponseUtil.error("questionId 非法");
         }
 
-        QuestionNoteVO questionNoteVO = new QuestionNoteVO();
+        QuestionNoteVO questionNoteVO = questionConverter.toQuestionNoteVO(question);
         QuestionNoteVO.UserNote userNote = new QuestionNoteVO.UserNote();
 
         // 如果是登录状态，则查询出当前用户笔记
@@ -185,11 +203,10 @@ public class QuestionServiceImpl implements QuestionService {
             Note note = noteMapper.findByAuthorIdAndQuestionId(requestScopeData.getUserId(), questionId);
             if (note != null) {
                 userNote.setFinished(true);
-                BeanUtils.copyProperties(note, userNote);
+                questionConverter.updateUserNote(note, userNote);
             }
         }
 
-        BeanUtils.copyProperties(question, questionNoteVO);
         questionNoteVO.setUserNote(userNote);
 
         // 增加问题的点击量
@@ -201,17 +218,25 @@ public class QuestionServiceImpl implements QuestionService {
 
     @Override
     public ApiResponse<List<QuestionVO>> searchQuestions(SearchQuestionBody body) {
-        String keyword = body.getKeyword();
-
-        // TODO: 简单实现搜索问题功能，后续需要优化
-        List<Question> questionList = questionMapper.findByKeyword(keyword);
+        // 输入联想，每次按键都会调用，直接查询内存索引
+        List<Question> questionList = questionTypeahead.suggest(body.getKeyword(), SEARCH_LIMIT);
 
-        List<QuestionVO> questionVOList = questionList.stream().map(question -> {
-            QuestionVO questionVO = new QuestionVO();
-            BeanUtils.copyProperties(question, questionVO);
-            return questionVO;
-        }).toList();
+        List<QuestionVO> questionVOList = questionList.stream().map(questionConverter::toQuestionVO).toList();
 
         return ApiResponseUtil.success("搜索问题成功", questionVOList);
     }
+
+    /**
+     * 统计问题总数，翻页时复用缓存的总数，不按分类筛选时可能返回估算值
+     */
+    private TotalCount countQuestions(QuestionQueryParam queryParams) {
+        String filterKey = TotalCountCache.filterKey(queryParams.getCategoryId());
+
+        if (queryParams.getCategoryId() == null) {
+            return totalCountCache.countOrEstimate(TotalCountCache.QUESTION, filterKey, "question",
+                    () -> questionMapper.countByQueryParam(queryParams));
+        }
+        return totalCountCache.count(TotalCountCache.QUESTION, filterKey,
+                () -> questionMapper.countByQueryParam(queryParams));
+    }
 }
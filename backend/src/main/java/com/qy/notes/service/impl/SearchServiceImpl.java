@@ -1,20 +1,47 @@
 package com.qy.notes.service.impl;
 
+import com.qy.notes.cache.NoteSearchCache;
+import com.qy.notes.cache.UserProfileCache;
+import com.qy.notes.config.SearchRankingProperties;
+import com.qy.notes.converter.NoteConverter;
+import com.qy.notes.mapper.CommentMapper;
 import com.qy.notes.mapper.NoteMapper;
 import com.qy.notes.mapper.UserMapper;
 import com.qy.notes.model.base.ApiResponse;
+import com.qy.notes.model.dto.search.RankingEvaluationParams;
+import com.qy.notes.model.entity.Comment;
 import com.qy.notes.model.entity.Note;
 import com.qy.notes.model.entity.User;
+import com.qy.notes.model.vo.comment.CommentSearchGroupVO;
+import com.qy.notes.model.vo.comment.CommentSearchHitVO;
+import com.qy.notes.model.vo.comment.CommentVO;
+import com.qy.notes.model.vo.note.NoteSearchHitVO;
+import com.qy.notes.model.vo.search.RankingEvaluationVO;
+import com.qy.notes.search.CommentSearchIndex;
+import com.qy.notes.search.NoteRanker;
+import com.qy.notes.search.NoteSearchIndex;
+import com.qy.notes.search.NoteTagIndex;
+import com.qy.notes.search.RankingEvaluator;
+import com.qy.notes.search.SearchQueryLogger;
+import com.qy.notes.search.TextSegmenter;
+import com.qy.notes.search.UserSearchIndex;
 import com.qy.notes.service.SearchService;
 import com.qy.notes.utils.ApiResponseUtil;
 import com.qy.notes.utils.SearchUtils;
+import com.qy.notes.utils.SnippetUtil;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Log4j2
 @Service
@@ -27,37 +54,72 @@ public class SearchServiceImpl implements SearchService {
     private UserMapper userMapper;
 
     @Autowired
-    private RedisTemplate<String, Object> redisTemplate;
+    private CommentMapper commentMapper;
 
-    private static final String NOTE_SEARCH_CACHE_KEY = "search:note:%s:%d:%d";
-    private static final String USER_SEARCH_CACHE_KEY = "search:user:%s:%d:%d";
-    private static final String NOTE_TAG_SEARCH_CACHE_KEY = "search:note:tag:%s:%s:%d:%d";
-    private static final long CACHE_EXPIRE_TIME = 30; // 分钟
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private RankingEvaluator rankingEvaluator;
+
+    @Autowired
+    private SearchRankingProperties searchRankingProperties;
+
+    @Autowired
+    private NoteSearchIndex noteSearchIndex;
+
+    @Autowired
+    private NoteSearchCache noteSearchCache;
+
+    @Autowired
+    private NoteRanker noteRanker;
+
+    @Autowired
+    private CommentSearchIndex commentSearchIndex;
+
+    @Autowired
+    private NoteTagIndex noteTagIndex;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private TextSegmenter textSegmenter;
+
+    @Autowired
+    private SearchQueryLogger searchQueryLogger;
+
+    @Autowired
+    private NoteConverter noteConverter;
+
+    /**
+     * 一次搜索最多返回的结果数，翻页不超过该范围
+     */
+    private static final int MAX_SEARCH_RESULTS = 1000;
+
+    /**
+     * 评论搜索结果中每篇笔记展示的评论数
+     */
+    private static final int COMMENTS_PER_NOTE = 3;
 
     @Override
-    public ApiResponse<List<Note>> searchNotes(String keyword, int page, int pageSize) {
+    public ApiResponse<List<NoteSearchHitVO>> searchNotes(String keyword, int page, int pageSize) {
         try {
-            String cacheKey = String.format(NOTE_SEARCH_CACHE_KEY, keyword, page, pageSize);
-            
-            // 尝试从缓存获取
-            List<Note> cachedResult = (List<Note>) redisTemplate.opsForValue().get(cacheKey);
-            if (cachedResult != null) {
-                return ApiResponseUtil.success("搜索成功", cachedResult);
+            // 分词，与建索引使用同一套规则，缓存也按分词结果命中
+            long start = System.nanoTime();
+            List<String> terms = textSegmenter.tokenize(keyword);
+            if (terms.isEmpty()) {
+                return ApiResponseUtil.success("搜索成功", Collections.emptyList());
             }
+            if (!noteSearchIndex.isReady()) {
+                return ApiResponseUtil.error("搜索服务正在初始化，请稍后再试");
+            }
+
+            List<Integer> noteIds = rankedNoteIds(terms);
+            List<NoteSearchHitVO> hits = toSearchHits(findPage(noteIds, page, pageSize), terms);
 
-            // 处理关键词
-            keyword = SearchUtils.preprocessKeyword(keyword);
-            
-            // 计算偏移量
-            int offset = (page - 1) * pageSize;
-            
-            // 执行搜索
-            List<Note> notes = noteMapper.searchNotes(keyword, pageSize, offset);
-            
-            // 存入缓存
-            redisTemplate.opsForValue().set(cacheKey, notes, CACHE_EXPIRE_TIME, TimeUnit.MINUTES);
-            
-            return ApiResponseUtil.success("搜索成功", notes);
+            searchQueryLogger.logNoteSearch(terms, null, noteIds.size(), start);
+            return ApiResponseUtil.success("搜索成功", hits);
         } catch (Exception e) {
             log.error("搜索笔记失败", e);
             return ApiResponseUtil.error("搜索失败");
@@ -67,23 +129,16 @@ public class SearchServiceImpl implements SearchService {
     @Override
     public ApiResponse<List<User>> searchUsers(String keyword, int page, int pageSize) {
         try {
-            String cacheKey = String.format(USER_SEARCH_CACHE_KEY, keyword, page, pageSize);
-            
-            // 尝试从缓存获取
-            List<User> cachedResult = (List<User>) redisTemplate.opsForValue().get(cacheKey);
-            if (cachedResult != null) {
-                return ApiResponseUtil.success("搜索成功", cachedResult);
-            }
+            long start = System.nanoTime();
+            int offset = SearchUtils.calculateOffset(page, pageSize);
 
-            // 计算偏移量
-            int offset = (page - 1) * pageSize;
-            
-            // 执行搜索
-            List<User> users = userMapper.searchUsers(keyword, pageSize, offset);
-            
-            // 存入缓存
-            redisTemplate.opsForValue().set(cacheKey, users, CACHE_EXPIRE_TIME, TimeUnit.MINUTES);
-            
+            // 前缀索引在 Redis 中，搜索不查询数据库；索引重建完成前回退到数据库，返回的字段与索引相同
+            List<User> users = userSearchIndex.isReady()
+                    ? userSearchIndex.search(keyword, offset, pageSize)
+                    : userMapper.searchUsers(keyword, Math.min(pageSize, UserSearchIndex.MAX_RESULTS), offset)
+                            .stream().map(UserSearchIndex::toProfile).toList();
+
+            searchQueryLogger.logUserSearch(keyword, users.size(), start);
             return ApiResponseUtil.success("搜索成功", users);
         } catch (Exception e) {
             log.error("搜索用户失败", e);
@@ -92,32 +147,237 @@ public class SearchServiceImpl implements SearchService {
     }
 
     @Override
-    public ApiResponse<List<Note>> searchNotesByTag(String keyword, String tag, int page, int pageSize) {
+    public ApiResponse<List<NoteSearchHitVO>> searchNotesByTag(String keyword, String tag, int page, int pageSize) {
         try {
-            String cacheKey = String.format(NOTE_TAG_SEARCH_CACHE_KEY, keyword, tag, page, pageSize);
-            
-            // 尝试从缓存获取
-            List<Note> cachedResult = (List<Note>) redisTemplate.opsForValue().get(cacheKey);
-            if (cachedResult != null) {
-                return ApiResponseUtil.success("搜索成功", cachedResult);
+            long start = System.nanoTime();
+            List<String> terms = textSegmenter.tokenize(keyword);
+            if (!noteTagIndex.isReady() || (!terms.isEmpty() && !noteSearchIndex.isReady())) {
+                return ApiResponseUtil.error("搜索服务正在初始化，请稍后再试");
+            }
+
+            // 名称包含 tag 的所有标签下的笔记
+            BitSet tagged = noteTagIndex.findNotesByTagName(tag);
+            if (tagged.isEmpty()) {
+                searchQueryLogger.logNoteSearch(terms, tag, 0, start);
+                return ApiResponseUtil.success("搜索成功", Collections.emptyList());
+            }
+
+            List<Integer> noteIds = new ArrayList<>();
+            if (terms.isEmpty()) {
+                // 只按标签筛选，最新的笔记在前
+                for (int noteId = tagged.previousSetBit(Integer.MAX_VALUE - 1);
+                     noteId >= 0 && noteIds.size() < MAX_SEARCH_RESULTS;
+                     noteId = tagged.previousSetBit(noteId - 1)) {
+                    noteIds.add(noteId);
+                }
+            } else {
+                // 全文检索结果与标签位图求交集，保持相关度顺序
+                for (Integer noteId : rankedNoteIds(terms)) {
+                    if (tagged.get(noteId)) {
+                        noteIds.add(noteId);
+                    }
+                }
             }
 
-            // 处理关键词
-            keyword = SearchUtils.preprocessKeyword(keyword);
-            
-            // 计算偏移量
-            int offset = (page - 1) * pageSize;
-            
-            // 执行搜索
-            List<Note> notes = noteMapper.searchNotesByTag(keyword, tag, pageSize, offset);
-            
-            // 存入缓存
-            redisTemplate.opsForValue().set(cacheKey, notes, CACHE_EXPIRE_TIME, TimeUnit.MINUTES);
-            
-            return ApiResponseUtil.success("搜索成功", notes);
+            List<NoteSearchHitVO> hits = toSearchHits(findPage(noteIds, page, pageSize), terms);
+
+            searchQueryLogger.logNoteSearch(terms, tag, noteIds.size(), start);
+            return ApiResponseUtil.success("搜索成功", hits);
         } catch (Exception e) {
             log.error("搜索笔记失败", e);
             return ApiResponseUtil.error("搜索失败");
         }
     }
-} 
\ No newline at end of file
+
+    @Override
+    public ApiResponse<List<CommentSearchGroupVO>> searchComments(String keyword, int page, int pageSize) {
+        try {
+            List<String> terms = textSegmenter.tokenize(keyword);
+            if (terms.isEmpty()) {
+                return ApiResponseUtil.success("搜索成功", Collections.emptyList());
+            }
+            if (!commentSearchIndex.isReady()) {
+                return ApiResponseUtil.error("搜索服务正在初始化，请稍后再试");
+            }
+
+            List<CommentSearchIndex.NoteGroup> groups = commentSearchIndex.search(terms, MAX_SEARCH_RESULTS);
+            int offset = SearchUtils.calculateOffset(page, pageSize);
+            if (offset >= groups.size()) {
+                return ApiResponseUtil.success("搜索成功", Collections.emptyList());
+            }
+            groups = groups.subList(offset, Math.min(offset + pageSize, groups.size()));
+
+            // 每篇笔记只展示最相关的几条评论，一次批量查询
+            List<Integer> commentIds = new ArrayList<>();
+            for (CommentSearchIndex.NoteGroup group : groups) {
+                List<Integer> groupCommentIds = group.getCommentIds();
+                commentIds.addAll(groupCommentIds.subList(0, Math.min(COMMENTS_PER_NOTE, groupCommentIds.size())));
+            }
+            Map<Integer, Comment> commentMap = commentMapper.findByIds(commentIds).stream()
+                    .collect(Collectors.toMap(Comment::getCommentId, Function.identity()));
+
+            Map<Long, User> authorMap = userProfileCache.getAll(
+                    commentMap.values().stream().map(Comment::getAuthorId).toList());
+
+            List<CommentSearchGroupVO> result = new ArrayList<>(groups.size());
+            for (CommentSearchIndex.NoteGroup group : groups) {
+                List<CommentSearchHitVO> hits = new ArrayList<>();
+                for (Integer commentId : group.getCommentIds()) {
+                    if (hits.size() >= COMMENTS_PER_NOTE) {
+                        break;
+                    }
+                    Comment comment = commentMap.get(commentId);
+                    if (comment != null) {
+                        hits.add(toCommentSearchHit(comment, authorMap.get(comment.getAuthorId()), terms));
+                    }
+                }
+                // 索引中的评论在刷新前已被删除
+                if (hits.isEmpty()) {
+                    continue;
+                }
+
+                CommentSearchGroupVO groupVO = new CommentSearchGroupVO();
+                groupVO.setNoteId(group.getNoteId());
+                groupVO.setHitCount(group.getCommentIds().size());
+                groupVO.setComments(hits);
+                result.add(groupVO);
+            }
+
+            return ApiResponseUtil.success("搜索成功", result);
+        } catch (Exception e) {
+            log.error("搜索评论失败", e);
+            return ApiResponseUtil.error("搜索失败");
+        }
+    }
+
+    @Override
+    public int warmUpNoteSearch(String query) {
+        if (!noteSearchIndex.isReady()) {
+            return -1;
+        }
+        List<String> terms = List.of(query.split(" "));
+        return searchIndex(terms).size();
+    }
+
+    @Override
+    public ApiResponse<RankingEvaluationVO> evaluateRanking(RankingEvaluationParams params) {
+        if (!noteSearchIndex.isReady()) {
+            return ApiResponseUtil.error("搜索索引尚未就绪");
+        }
+
+        // 候选权重在当前配置的基础上覆盖指定的项
+        SearchRankingProperties candidate = new SearchRankingProperties();
+        BeanUtils.copyProperties(searchRankingProperties, candidate);
+        Optional.ofNullable(params.getTextWeight()).ifPresent(candidate::setTextWeight);
+        Optional.ofNullable(params.getEngagementWeight()).ifPresent(candidate::setEngagementWeight);
+        Optional.ofNullable(params.getFreshnessWeight()).ifPresent(candidate::setFreshnessWeight);
+        Optional.ofNullable(params.getLikeWeight()).ifPresent(candidate::setLikeWeight);
+        Optional.ofNullable(params.getCollectWeight()).ifPresent(candidate::setCollectWeight);
+        Optional.ofNullable(params.getCommentWeight()).ifPresent(candidate::setCommentWeight);
+        Optional.ofNullable(params.getFreshnessHalfLifeDays()).ifPresent(candidate::setFreshnessHalfLifeDays);
+
+        try {
+            RankingEvaluationVO result = rankingEvaluator.evaluate(params.getDays(), params.getQueryLimit(), candidate);
+            return ApiResponseUtil.success("评估完成", result);
+        } catch (Exception e) {
+            log.error("评估搜索排序失败", e);
+            return ApiResponseUtil.error("评估失败");
+        }
+    }
+
+    /**
+     * 按综合得分排序的笔记ID，缓存整个结果列表，翻页时不再查询索引
+     */
+    private List<Integer> rankedNoteIds(List<String> terms) {
+        List<Integer> noteIds = noteSearchCache.get(terms);
+        return noteIds != null ? noteIds : searchIndex(terms);
+    }
+
+    /**
+     * 查询索引并重排，结果写入缓存
+     */
+    private List<Integer> searchIndex(List<String> terms) {
+        long indexVersion = noteSearchIndex.getVersion();
+        NoteSearchIndex.Hits hits = noteSearchIndex.search(terms, MAX_SEARCH_RESULTS);
+        // 前 N 条结合互动数据和发布时间重新排序
+        noteRanker.rerank(hits);
+        List<Integer> noteIds = hits.toNoteIdList();
+        // 查询期间索引发生变化时，对应的失效可能已经执行过，不写入缓存
+        if (noteSearchIndex.getVersion() == indexVersion) {
+            noteSearchCache.put(terms, noteIds);
+        }
+        return noteIds;
+    }
+
+    /**
+     * 取出当前页，笔记内容实时批量查询
+     */
+    private List<Note> findPage(List<Integer> noteIds, int page, int pageSize) {
+        int offset = SearchUtils.calculateOffset(page, pageSize);
+        if (offset >= noteIds.size()) {
+            return Collections.emptyList();
+        }
+        return findNotesInOrder(noteIds.subList(offset, Math.min(offset + pageSize, noteIds.size())));
+    }
+
+    /**
+     * 笔记转换为搜索结果，内容只保留与检索词最相关的片段
+     */
+    private List<NoteSearchHitVO> toSearchHits(List<Note> notes, List<String> terms) {
+        List<NoteSearchHitVO> hits = new ArrayList<>(notes.size());
+        for (Note note : notes) {
+            SnippetUtil.Snippet snippet = SnippetUtil.build(note.getContent(), terms, SnippetUtil.DEFAULT_MAX_LENGTH);
+
+            NoteSearchHitVO hit = noteConverter.toNoteSearchHitVO(note);
+            hit.setSnippet(snippet.getText());
+            hit.setSnippetStartOmitted(snippet.isStartOmitted());
+            hit.setSnippetEndOmitted(snippet.isEndOmitted());
+            hit.setHighlights(snippet.getHighlights());
+            hits.add(hit);
+        }
+        return hits;
+    }
+
+    private CommentSearchHitVO toCommentSearchHit(Comment comment, User author, List<String> terms) {
+        SnippetUtil.Snippet snippet = SnippetUtil.build(comment.getContent(), terms, SnippetUtil.DEFAULT_MAX_LENGTH);
+
+        CommentSearchHitVO hit = new CommentSearchHitVO();
+        hit.setCommentId(comment.getCommentId());
+        hit.setParentId(comment.getParentId());
+        hit.setLikeCount(comment.getLikeCount());
+        hit.setCreatedAt(comment.getCreatedAt());
+        if (author != null) {
+            CommentVO.SimpleAuthorVO authorVO = new CommentVO.SimpleAuthorVO();
+            authorVO.setUserId(author.getUserId());
+            authorVO.setUsername(author.getUsername());
+            authorVO.setAvatarUrl(author.getAvatarUrl());
+            hit.setAuthor(authorVO);
+        }
+        hit.setSnippet(snippet.getText());
+        hit.setSnippetStartOmitted(snippet.isStartOmitted());
+        hit.setSnippetEndOmitted(snippet.isEndOmitted());
+        hit.setHighlights(snippet.getHighlights());
+        return hit;
+    }
+
+    /**
+     * 批量查询笔记，按传入的ID顺序返回，已删除的笔记跳过
+     */
+    private List<Note> findNotesInOrder(List<Integer> noteIds) {
+        if (noteIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Integer, Note> noteMap = noteMapper.findByIds(noteIds).stream()
+                .collect(Collectors.toMap(Note::getNoteId, Function.identity()));
+
+        List<Note> notes = new ArrayList<>(noteIds.size());
+        for (Integer noteId : noteIds) {
+            Note note = noteMap.get(noteId);
+            if (note != null) {
+                notes.add(note);
+            }
+        }
+        return notes;
+    }
+}
@@ -1,8 +1,16 @@
 package com.qy.notes.service.impl;
 
 import com.qy.notes.annotation.NeedLogin;
+import com.qy.notes.cache.LastLoginBuffer;
+import com.qy.notes.cache.TokenRevocationRegistry;
+import com.qy.notes.cache.TotalCountCache;
+import com.qy.notes.cache.UserProfileCache;
+import com.qy.notes.cache.VerifiedTokenCache;
+import com.qy.notes.converter.UserConverter;
 import com.qy.notes.model.base.ApiResponse;
+import com.qy.notes.model.base.EmptyVO;
 import com.qy.notes.model.base.Pagination;
+import com.qy.notes.model.base.TotalCount;
 import com.qy.notes.model.dto.user.LoginRequest;
 import com.qy.notes.model.dto.user.RegisterRequest;
 import com.qy.notes.model.dto.user.UpdateUserRequest;
@@ -14,22 +22,23 @@ import com.qy.notes.model.vo.user.RegisterVO;
 import com.qy.notes.model.vo.user.LoginUserVO;
 import com.qy.notes.model.vo.user.UserVO;
 import com.qy.notes.scope.RequestScopeData;
+import com.qy.notes.search.UserSearchIndex;
 import com.qy.notes.service.EmailService;
 import com.qy.notes.service.FileService;
 import com.qy.notes.service.UserService;
 import com.qy.notes.utils.ApiResponseUtil;
 import com.qy.notes.utils.JwtUtil;
 import com.qy.notes.utils.PaginationUtils;
+import com.qy.notes.utils.PasswordHasher;
+import com.qy.notes.utils.TransactionUtils;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 
 @Log4j2
@@ -40,7 +49,7 @@ public class UserServiceImpl implements UserService {
     private UserMapper userMapper;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private JwtUtil jwtUtil;
@@ -54,6 +63,27 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private UserConverter userConverter;
+
+    @Autowired
+    private TotalCountCache totalCountCache;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private LastLoginBuffer lastLoginBuffer;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -86,19 +116,28 @@ public class UserServiceImpl implements UserService {
         // 创建新用户
         User user = new User();
         BeanUtils.copyProperties(request, user);
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        try {
+            user.setPassword(passwordHasher.encode(request.getPassword()));
+        } catch (PasswordHasher.BusyException e) {
+            return ApiResponseUtil.error("注册人数过多，请稍后再试");
+        }
         user.setEmailVerified(request.getEmail() != null && !request.getEmail().isEmpty()); // 只有提供邮箱时才设置验证状态
 
         try {
             // 保存用户
             userMapper.insert(user);
+            Long newUserId = user.getUserId();
+            TransactionUtils.afterCommit(() -> {
+                totalCountCache.evict(TotalCountCache.USER);
+                userSearchIndex.refresh(newUserId);
+            });
 
             String token = jwtUtil.generateToken(user.getUserId());
 
-            RegisterVO registerVO = new RegisterVO();
-            BeanUtils.copyProperties(user, registerVO);
+            RegisterVO registerVO = userConverter.toRegisterVO(user);
 
-            userMapper.updateLastLoginAt(user.getUserId());
+            // 用户行提交后才能被批量更新命中
+            TransactionUtils.afterCommit(() -> lastLoginBuffer.record(newUserId));
 
             return ApiResponseUtil.success("注册成功", registerVO, token);
         } catch (Exception e) {
@@ -125,18 +164,29 @@ public class UserServiceImpl implements UserService {
             return ApiResponseUtil.error("用户不存在");
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            return ApiResponseUtil.error("密码错误");
+        try {
+            if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
+                return ApiResponseUtil.error("密码错误");
+            }
+        } catch (PasswordHasher.BusyException e) {
+            return ApiResponseUtil.error("登录人数过多，请稍后再试");
+        }
+
+        // BCrypt 成本调整后，按新成本重新哈希，不影响本次登录
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            Long userId = user.getUserId();
+            String oldPassword = user.getPassword();
+            passwordHasher.rehashAsync(request.getPassword(),
+                    newPassword -> userMapper.updatePassword(userId, oldPassword, newPassword));
         }
 
         // 生成JWT
         String token = jwtUtil.generateToken(user.getUserId());
 
-        LoginUserVO userVO = new LoginUserVO();
-        BeanUtils.copyProperties(user, userVO);
+        LoginUserVO userVO = userConverter.toLoginUserVO(user);
 
-        // 更新登录时间
-        userMapper.updateLastLoginAt(user.getUserId());
+        // 更新登录时间，由 LastLoginBuffer 合并后批量写入
+        lastLoginBuffer.record(user.getUserId());
 
         return ApiResponseUtil.success("登录成功", userVO, token);
     }
@@ -164,17 +214,44 @@ public class UserServiceImpl implements UserService {
             }
 
             // 映射用户信息到 VO
-            LoginUserVO userVO = new LoginUserVO();
-            BeanUtils.copyProperties(user, userVO);
+            LoginUserVO userVO = userConverter.toLoginUserVO(user);
 
             // 更新登录时间并返回响应
-            userMapper.updateLastLoginAt(userId);
+            lastLoginBuffer.record(userId);
             return ApiResponseUtil.success("自动登录成功", userVO, newToken);
         } catch (Exception e) {
             return ApiResponseUtil.error("系统错误");
         }
     }
 
+    @Override
+    @NeedLogin
+    public ApiResponse<EmptyVO> logout() {
+        Long userId = requestScopeData.getUserId();
+
+        try {
+            verifiedTokenCache.revoke(requestScopeData.getToken());
+            return ApiResponseUtil.success("退出登录成功");
+        } catch (Exception e) {
+            log.error("退出登录失败, userId={}", userId, e);
+            return ApiResponseUtil.error("退出登录失败");
+        }
+    }
+
+    @Override
+    @NeedLogin
+    public ApiResponse<EmptyVO> logoutAll() {
+        Long userId = requestScopeData.getUserId();
+
+        try {
+            tokenRevocationRegistry.revokeAll(userId);
+            return ApiResponseUtil.success("已退出所有设备");
+        } catch (Exception e) {
+            log.error("退出所有设备失败, userId={}", userId, e);
+            return ApiResponseUtil.error("退出所有设备失败");
+        }
+    }
+
     @Override
     public ApiResponse<UserVO> getUserInfo(Long userId) {
 
@@ -184,8 +261,7 @@ public class UserServiceImpl implements UserService {
             return ApiResponseUtil.error("用户不存在");
         }
 
-        UserVO userVO = new UserVO();
-        BeanUtils.copyProperties(user, userVO);
+        UserVO userVO = userConverter.toUserVO(user);
 
         return ApiResponseUtil.success("获取用户信息成功", userVO);
     }
@@ -204,6 +280,12 @@ public class UserServiceImpl implements UserService {
 
         try {
             userMapper.update(user);
+            TransactionUtils.afterCommit(() -> {
+                // 用户名变化会影响按用户名筛选的总数
+                totalCountCache.evict(TotalCountCache.USER);
+                userSearchIndex.refresh(userId);
+                userProfileCache.evict(userId);
+            });
             return ApiResponseUtil.success("更新成功");
         } catch (Exception e) {
             return ApiResponseUtil.error("更新失败");
@@ -213,21 +295,15 @@ public class UserServiceImpl implements UserService {
     @Override
     public Map<Long, User> getUserMapByIds(List<Long> authorIds) {
 
-        // 处理空数组的情况
-        if (authorIds.isEmpty()) return Collections.emptyMap();
-
-        // 查询用户列表
-        List<User> users = userMapper.findByIdBatch(authorIds);
-
-        return users.stream()
-                .collect(Collectors.toMap(User::getUserId, user -> user));
+        // 本地缓存 -> Redis -> 数据库，只包含公开资料
+        return userProfileCache.getAll(authorIds);
     }
 
     @Override
     public ApiResponse<List<User>> getUserList(UserQueryParam userQueryParam) {
 
         // 分页数据
-        int total = userMapper.countByQueryParam(userQueryParam);
+        TotalCount total = countUsers(userQueryParam);
         int offset = PaginationUtils.calculateOffset(userQueryParam.getPage(), userQueryParam.getPageSize());
         Pagination pagination = new Pagination(userQueryParam.getPage(), userQueryParam.getPageSize(), total);
 
@@ -240,6 +316,28 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    /**
+     * 统计用户总数，翻页时复用缓存的总数，不带筛选条件时可能返回估算值
+     */
+    private TotalCount countUsers(UserQueryParam userQueryParam) {
+        String filterKey = TotalCountCache.filterKey(
+                userQueryParam.getUserId(),
+                userQueryParam.getAccount(),
+                userQueryParam.getUsername(),
+                userQueryParam.getIsAdmin(),
+                userQueryParam.getIsBanned());
+
+        boolean unfiltered = userQueryParam.getUserId() == null
+                && userQueryParam.getAccount() == null
+                && userQueryParam.getUsername() == null
+                && userQueryParam.getIsAdmin() == null
+                && userQueryParam.getIsBanned() == null;
+
+        return unfiltered
+                ? totalCountCache.countOrEstimate(TotalCountCache.USER, filterKey, "user", () -> userMapper.countByQueryParam(userQueryParam))
+                : totalCountCache.count(TotalCountCache.USER, filterKey, () -> userMapper.countByQueryParam(userQueryParam));
+    }
+
     @Override
     public ApiResponse<AvatarVO> uploadAvatar(MultipartFile file) {
         try {
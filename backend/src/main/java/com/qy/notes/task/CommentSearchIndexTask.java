@@ -0,0 +1,39 @@
+package com.qy.notes.task;
+
+import com.qy.notes.search.CommentSearchIndex;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * 评论搜索索引的全量重建任务
+ * 启动后在后台构建索引；每天凌晨重建一次，修正丢失的变更通知
+ */
+@Log4j2
+@Component
+public class CommentSearchIndexTask {
+
+    @Autowired
+    private CommentSearchIndex commentSearchIndex;
+
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        taskScheduler.execute(this::rebuild);
+    }
+
+    @Scheduled(cron = "0 45 3 * * ?")
+    public void rebuild() {
+        try {
+            commentSearchIndex.rebuild();
+        } catch (Exception e) {
+            log.error("[定时任务]重建评论搜索索引失败, 错误详情={}", e.getMessage());
+        }
+    }
+}
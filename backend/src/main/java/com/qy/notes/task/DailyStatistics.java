@@ -1,5 +1,6 @@
 package com.qy.notes.task;
 
+import com.qy.notes.cache.LastLoginBuffer;
 import com.qy.notes.mapper.StatisticMapper;
 import com.qy.notes.mapper.NoteMapper;
 import com.qy.notes.mapper.UserMapper;
@@ -24,6 +25,9 @@ public class DailyStatistics {
     @Autowired
     StatisticMapper statisticMapper;
 
+    @Autowired
+    LastLoginBuffer lastLoginBuffer;
+
     /**
      * 统计日常提交笔记、登录数据
      */
@@ -34,7 +38,8 @@ public class DailyStatistics {
         /**
          * 获取统计数据
          */
-        // 用户
+        // 用户，先写入缓冲中的登录时间
+        lastLoginBuffer.flush();
         int todayLoginCount = userMapper.getTodayLoginCount();
         int todayRegisterCount = userMapper.getTodayRegisterCount();
         int totalRegisterCount = userMapper.getTotalRegisterCount();
@@ -0,0 +1,93 @@
+package com.qy.notes.task;
+
+import com.qy.notes.mapper.SearchQueryLogMapper;
+import com.qy.notes.model.vo.search.SearchQueryCount;
+import com.qy.notes.search.HotQueryTracker;
+import com.qy.notes.service.SearchService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 热门查询预热任务
+ * 启动时根据最近 7 天的搜索日志恢复热门查询统计；在访问高峰前预先计算热门查询的结果并写入搜索结果缓存；
+ * 每天凌晨将统计减半，使热门查询随时间更替
+ */
+@Log4j2
+@Component
+public class HotQueryWarmupTask {
+
+    private static final int RESTORE_DAYS = 7;
+
+    private static final int RESTORE_LIMIT = 500;
+
+    @Autowired
+    private SearchQueryLogMapper searchQueryLogMapper;
+
+    @Autowired
+    private HotQueryTracker hotQueryTracker;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    /**
+     * 每次预热的查询数
+     */
+    @Value("${notes.search.hot-query.warmup-size:50}")
+    private int warmupSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        taskScheduler.execute(this::restore);
+    }
+
+    private void restore() {
+        try {
+            List<SearchQueryCount> counts = searchQueryLogMapper.findTopNoteQueries(
+                    LocalDateTime.now().minusDays(RESTORE_DAYS), RESTORE_LIMIT);
+            for (SearchQueryCount count : counts) {
+                hotQueryTracker.add(count.getQuery(), count.getSearchCount());
+            }
+            log.info("热门查询统计恢复完成, 查询数={}", counts.size());
+        } catch (Exception e) {
+            log.error("恢复热门查询统计失败, 错误详情={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 访问高峰（午间、晚间）前预热
+     */
+    @Scheduled(cron = "${notes.search.hot-query.warmup-cron:0 30 11,19 * * ?}")
+    public void warmUp() {
+        List<String> queries = hotQueryTracker.top(warmupSize);
+        int warmed = 0;
+        for (String query : queries) {
+            try {
+                if (searchService.warmUpNoteSearch(query) < 0) {
+                    log.info("[定时任务]笔记搜索索引未就绪，跳过热门查询预热");
+                    return;
+                }
+                warmed++;
+            } catch (Exception e) {
+                log.warn("[定时任务]预热热门查询失败, query={}, 错误详情={}", query, e.getMessage());
+            }
+        }
+        log.info("[定时任务]热门查询预热完成, 查询数={}", warmed);
+    }
+
+    @Scheduled(cron = "0 0 4 * * ?")
+    public void decay() {
+        hotQueryTracker.decay();
+    }
+}
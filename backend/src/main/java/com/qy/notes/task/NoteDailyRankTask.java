@@ -0,0 +1,157 @@
+package com.qy.notes.task;
+
+import com.qy.notes.cache.NoteLeaderboard;
+import com.qy.notes.mapper.NoteDailyAuthorCountMapper;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 笔记每日作者统计的排名维护与回填任务
+ * <p>
+ * 笔记数在发布 / 删除笔记的事务中直接增减，而排名涉及当天所有作者，
+ * 放在写事务里会锁住当天的所有行，因此只记录哪些日期需要重排，由定时任务合并后统一重算。
+ */
+@Log4j2
+@Component
+public class NoteDailyRankTask {
+
+    /**
+     * 回填时每次处理的天数，避免单个事务过大
+     */
+    private static final int REBUILD_DAYS_PER_BATCH = 30;
+
+    /**
+     * 启动时检查的排行榜天数，覆盖本月榜单需要的所有日期
+     */
+    private static final int LEADERBOARD_REBUILD_DAYS = 31;
+
+    @Autowired
+    private NoteDailyAuthorCountMapper noteDailyAuthorCountMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @Autowired
+    private NoteLeaderboard noteLeaderboard;
+
+    private final Set<LocalDate> dirtyDates = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 标记某天的排名需要重算
+     */
+    public void markDirty(LocalDate noteDate) {
+        dirtyDates.add(noteDate);
+    }
+
+    /**
+     * 重算有变化的日期的排名，同一天内的多次变化只重算一次
+     */
+    @Scheduled(fixedDelay = 10000)
+    public void refreshDirtyRanks() {
+        if (dirtyDates.isEmpty()) {
+            return;
+        }
+
+        List<LocalDate> dates = new ArrayList<>(dirtyDates);
+        dirtyDates.removeAll(dates);
+
+        for (LocalDate date : dates) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    noteDailyAuthorCountMapper.deleteEmpty(date, date);
+                    noteDailyAuthorCountMapper.refreshRanks(date, date);
+                });
+            } catch (Exception e) {
+                // 下一轮重试
+                dirtyDates.add(date);
+                log.error("[定时任务]重算每日笔记排名失败, date={}, 错误详情={}", date, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 每天凌晨根据 note 表重建前一天的统计，修正异常情况下可能产生的偏差
+     */
+    @Scheduled(cron = "0 10 0 * * ?")
+    public void reconcileYesterday() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        try {
+            rebuild(yesterday, yesterday);
+            noteLeaderboard.rebuild(yesterday);
+            log.info("[定时任务]重建每日笔记统计完成, date={}", yesterday);
+        } catch (Exception e) {
+            log.error("[定时任务]重建每日笔记统计失败, date={}, 错误详情={}", yesterday, e.getMessage());
+        }
+    }
+
+    /**
+     * 首次上线时统计表为空，启动后在后台根据 note 表回填全部历史数据
+     * 排行榜依赖该表重建，因此在回填完成之后再恢复 Redis 中缺失的排行榜
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        taskScheduler.execute(() -> {
+            try {
+                backfillIfEmpty();
+                noteLeaderboard.rebuildMissing(LEADERBOARD_REBUILD_DAYS);
+            } catch (Exception e) {
+                log.error("[定时任务]回填每日笔记统计失败, 错误详情={}", e.getMessage());
+            }
+        });
+    }
+
+    private void backfillIfEmpty() {
+        if (noteDailyAuthorCountMapper.existsAny() != null) {
+            return;
+        }
+
+        LocalDate earliest = noteDailyAuthorCountMapper.findEarliestNoteDate();
+        if (earliest == null) {
+            return;
+        }
+
+        rebuild(earliest, LocalDate.now());
+        log.info("[定时任务]回填每日笔记统计完成, 起始日期={}", earliest);
+    }
+
+    /**
+     * 根据 note 表重建日期范围内的统计和排名，按批提交
+     *
+     * @param startDate 起始日期（包含）
+     * @param endDate   结束日期（包含）
+     */
+    public void rebuild(LocalDate startDate, LocalDate endDate) {
+        LocalDate batchStart = startDate;
+        while (!batchStart.isAfter(endDate)) {
+            LocalDate batchEnd = batchStart.plusDays(REBUILD_DAYS_PER_BATCH - 1);
+            if (batchEnd.isAfter(endDate)) {
+                batchEnd = endDate;
+            }
+
+            LocalDate from = batchStart;
+            LocalDate to = batchEnd;
+            transactionTemplate.executeWithoutResult(status -> {
+                noteDailyAuthorCountMapper.deleteRange(from, to);
+                noteDailyAuthorCountMapper.rebuildRange(from, to);
+                noteDailyAuthorCountMapper.refreshRanks(from, to);
+            });
+
+            batchStart = batchEnd.plusDays(1);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.qy.notes.task;
+
+import com.qy.notes.mapper.NoteMapper;
+import com.qy.notes.model.entity.Note;
+import com.qy.notes.utils.MarkdownUtil;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 存量笔记预览回填任务
+ * 应用启动后在后台分批为 need_collapsed 为 NULL 的笔记计算折叠标记与简介
+ */
+@Log4j2
+@Component
+public class NotePreviewBackfillTask {
+
+    private static final int BATCH_SIZE = 200;
+
+    @Autowired
+    private NoteMapper noteMapper;
+
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        taskScheduler.execute(this::backfill);
+    }
+
+    /**
+     * 按 note_id 递增分批回填，单条失败不影响其他笔记
+     */
+    public void backfill() {
+        int lastNoteId = 0;
+        int total = 0;
+
+        try {
+            while (true) {
+                List<Note> notes = noteMapper.findPreviewMissing(lastNoteId, BATCH_SIZE);
+                if (notes.isEmpty()) {
+                    break;
+                }
+
+                for (Note note : notes) {
+                    lastNoteId = note.getNoteId();
+                    try {
+                        String preview = MarkdownUtil.buildPreview(note.getContent());
+                        // 只更新仍未回填的笔记，读取之后被修改过的笔记已按新内容写入预览，不能覆盖
+                        total += noteMapper.updatePreview(note.getNoteId(), preview != null, preview);
+                    } catch (Exception e) {
+                        log.error("[定时任务]回填笔记预览失败, noteId={}, 错误详情={}", note.getNoteId(), e.getMessage());
+                    }
+                }
+            }
+            if (total > 0) {
+                log.info("[定时任务]回填笔记预览完成, 共回填 {} 条", total);
+            }
+        } catch (Exception e) {
+            log.error("[定时任务]回填笔记预览中断, lastNoteId={}, 错误详情={}", lastNoteId, e.getMessage());
+        }
+    }
+}
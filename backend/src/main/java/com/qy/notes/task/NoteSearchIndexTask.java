@@ -0,0 +1,39 @@
+package com.qy.notes.task;
+
+import com.qy.notes.search.NoteSearchIndex;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * 笔记搜索索引的全量重建任务
+ * 启动后在后台构建索引；每天凌晨重建一次，修正增量维护遗漏的变更（如 Redis 断连期间丢失的变更通知）
+ */
+@Log4j2
+@Component
+public class NoteSearchIndexTask {
+
+    @Autowired
+    private NoteSearchIndex noteSearchIndex;
+
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        taskScheduler.execute(this::rebuild);
+    }
+
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void rebuild() {
+        try {
+            noteSearchIndex.rebuild();
+        } catch (Exception e) {
+            log.error("[定时任务]重建笔记搜索索引失败, 错误详情={}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.qy.notes.task;
+
+import com.qy.notes.search.UserSearchIndex;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户搜索索引的重建任务
+ * 索引保存在 Redis 中，启动时发现索引不存在（首次上线或 Redis 数据丢失）才在后台重建
+ */
+@Log4j2
+@Component
+public class UserSearchIndexTask {
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        taskScheduler.execute(() -> {
+            try {
+                if (!userSearchIndex.isReady()) {
+                    userSearchIndex.rebuild();
+                }
+            } catch (Exception e) {
+                log.error("[定时任务]重建用户搜索索引失败, 错误详情={}", e.getMessage());
+            }
+        });
+    }
+}
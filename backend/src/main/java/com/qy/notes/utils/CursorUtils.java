@@ -0,0 +1,58 @@
+package com.qy.notes.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 游标分页工具类
+ * 游标由 (created_at, note_id) 组成，对外以 Base64 编码后的不透明字符串传递
+ */
+public class CursorUtils {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 将排序键编码为游标
+     *
+     * @param createdAt 当前页最后一条记录的创建时间
+     * @param id        当前页最后一条记录的 ID
+     * @return 不透明的游标字符串
+     */
+    public static String encode(LocalDateTime createdAt, Integer id) {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标
+     *
+     * @param cursor 游标字符串，为空时表示从第一页开始
+     * @return 解析后的游标，游标为空时返回 null
+     * @throws IllegalArgumentException 如果游标格式非法
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            LocalDateTime createdAt = LocalDateTime.parse(raw.substring(0, index));
+            Integer id = Integer.valueOf(raw.substring(index + 1));
+            return new Cursor(createdAt, id);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("游标 (cursor) 格式非法");
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Cursor {
+        private LocalDateTime createdAt;
+        private Integer id;
+    }
+}
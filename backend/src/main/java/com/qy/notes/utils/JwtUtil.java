@@ -1,8 +1,10 @@
 package com.qy.notes.utils;
 
+import com.qy.notes.cache.TokenRevocationRegistry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -13,18 +15,27 @@ import java.util.Map;
 @Component
 public class JwtUtil {
 
+    /**
+     * 签发时用户的 token 代数，见 TokenRevocationRegistry；早于吊销功能签发的 token 没有该字段，视为 0
+     */
+    public static final String GENERATION_CLAIM = "gen";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
     /**
      * 生成JWT令牌
      */
     public String generateToken(Long userId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
+        claims.put(GENERATION_CLAIM, tokenRevocationRegistry.currentGeneration(userId));
         
         return Jwts.builder()
                 .setClaims(claims)
@@ -35,31 +46,35 @@ public class JwtUtil {
     }
 
     /**
-     * 从token中获取用户ID
+     * 解析并验证token，签名错误、格式错误或已过期时返回 null
      */
-    public Long getUserIdFromToken(String token) {
+    public Claims parseToken(String token) {
         try {
-            Claims claims = Jwts.parser()
+            return Jwts.parser()
                     .setSigningKey(secret)
                     .parseClaimsJws(token)
                     .getBody();
-            
-            return Long.valueOf(claims.get("userId").toString());
         } catch (Exception e) {
             return null;
         }
     }
 
+    /**
+     * 从token中获取用户ID
+     */
+    public Long getUserIdFromToken(String token) {
+        Claims claims = parseToken(token);
+        if (claims == null || claims.get("userId") == null) {
+            return null;
+        }
+        return Long.valueOf(claims.get("userId").toString());
+    }
+
     /**
      * 验证token是否有效
      */
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser().setSigningKey(secret).parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return parseToken(token) != null;
     }
 
     /**
@@ -1,14 +1,130 @@
 package com.qy.notes.utils;
 
+import com.vladsch.flexmark.ast.*;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.ast.Node;
+
 public class MarkdownUtil {
 
+    /**
+     * 列表中笔记折叠与简介的长度限制
+     */
+    public static final int PREVIEW_MAX_CHARS = 250;
+
+    /**
+     * Parser 构建后不可变且线程安全，全局共享一个实例，避免每次解析都重新构建
+     */
+    private static final Parser PARSER = Parser.builder().build();
+
     public static boolean needCollapsed(String markdown) {
-        MarkdownAST ast = new MarkdownAST(markdown);
-        return ast.shouldCollapse(250);
+        return analyze(markdown).isNeedCollapsed();
     }
 
     public static String extractIntroduction(String markdown) {
-        MarkdownAST ast = new MarkdownAST(markdown);
-        return ast.extractIntroduction(250);
+        return analyze(markdown).getIntroduction();
+    }
+
+    /**
+     * 计算笔记预览，只解析一次 Markdown
+     *
+     * @return 需要折叠时返回折叠展示的简介，不需要折叠时返回 null
+     */
+    public static String buildPreview(String markdown) {
+        NoteMetadata metadata = analyze(markdown);
+        return metadata.isNeedCollapsed() ? metadata.getIntroduction() : null;
+    }
+
+    /**
+     * 解析一次 Markdown，在一次遍历中计算简介、图片、标题、代码块和字数
+     *
+     * @param markdown Markdown 文本
+     * @return 笔记元数据
+     */
+    public static NoteMetadata analyze(String markdown) {
+        return analyze(markdown, PREVIEW_MAX_CHARS);
+    }
+
+    /**
+     * @param introMaxChars 简介和折叠判断的长度限制
+     */
+    public static NoteMetadata analyze(String markdown, int introMaxChars) {
+        Document document = PARSER.parse(markdown);
+
+        MetadataVisitor visitor = new MetadataVisitor(introMaxChars);
+        for (Node block : document.getChildren()) {
+            // 简介只取一级节点中的标题和段落
+            visitor.visit(block, block instanceof Heading || block instanceof Paragraph);
+        }
+
+        NoteMetadata metadata = visitor.metadata;
+        metadata.setIntroduction(visitor.introduction.toString().trim() + "...");
+        metadata.setCharCount(markdown.length());
+        metadata.setNeedCollapsed(!metadata.getImageUrls().isEmpty() || markdown.length() > introMaxChars);
+        return metadata;
+    }
+
+    /**
+     * 深度优先遍历整棵语法树，每个节点只访问一次
+     */
+    private static class MetadataVisitor {
+
+        private final int introMaxChars;
+        private final NoteMetadata metadata = new NoteMetadata();
+        private final StringBuilder introduction = new StringBuilder();
+
+        /**
+         * 当前所在标题的文本，不在标题中时为 null
+         */
+        private StringBuilder headingText;
+
+        MetadataVisitor(int introMaxChars) {
+            this.introMaxChars = introMaxChars;
+        }
+
+        void visit(Node node, boolean inIntroBlock) {
+            if (node instanceof Text text) {
+                onText(text.getChars().toString(), inIntroBlock);
+            } else if (node instanceof Image image) {
+                metadata.getImageUrls().add(image.getUrl().toString());
+            } else if (node instanceof FencedCodeBlock codeBlock) {
+                metadata.setCodeBlockCount(metadata.getCodeBlockCount() + 1);
+                String language = codeBlock.getInfoDelimitedByAny(" ").toString().trim();
+                if (!language.isEmpty()) {
+                    metadata.getCodeLanguages().add(language);
+                }
+                return;
+            } else if (node instanceof IndentedCodeBlock) {
+                metadata.setCodeBlockCount(metadata.getCodeBlockCount() + 1);
+                return;
+            } else if (node instanceof Heading heading) {
+                headingText = new StringBuilder();
+                visitChildren(node, inIntroBlock);
+                metadata.getHeadings().add(new NoteMetadata.HeadingItem(heading.getLevel(), headingText.toString()));
+                headingText = null;
+                return;
+            }
+
+            visitChildren(node, inIntroBlock);
+        }
+
+        private void visitChildren(Node node, boolean inIntroBlock) {
+            for (Node child : node.getChildren()) {
+                visit(child, inIntroBlock);
+            }
+        }
+
+        private void onText(String text, boolean inIntroBlock) {
+            metadata.setTextCharCount(metadata.getTextCharCount() + text.length());
+
+            if (headingText != null) {
+                headingText.append(text);
+            }
+
+            if (inIntroBlock && introduction.length() < introMaxChars) {
+                int remainingChars = introMaxChars - introduction.length();
+                introduction.append(text, 0, Math.min(remainingChars, text.length()));
+            }
+        }
     }
 }
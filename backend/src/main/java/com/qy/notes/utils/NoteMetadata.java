@@ -0,0 +1,63 @@
+package com.qy.notes.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 一次解析 Markdown 得到的笔记元数据
+ */
+@Data
+public class NoteMetadata {
+
+    /**
+     * 简介：一级节点中的标题和段落的文本，超出长度时截断，末尾带省略号
+     */
+    private String introduction;
+
+    /**
+     * 所有图片地址，包括段落、列表、引用中的行内图片
+     */
+    private List<String> imageUrls = new ArrayList<>();
+
+    /**
+     * 所有标题
+     */
+    private List<HeadingItem> headings = new ArrayList<>();
+
+    /**
+     * 代码块数量（围栏代码块和缩进代码块）
+     */
+    private int codeBlockCount;
+
+    /**
+     * 代码块声明的语言，按出现顺序去重
+     */
+    private Set<String> codeLanguages = new LinkedHashSet<>();
+
+    /**
+     * Markdown 原文的字符数
+     */
+    private int charCount;
+
+    /**
+     * 纯文本的字符数（不含 Markdown 标记和代码块）
+     */
+    private int textCharCount;
+
+    /**
+     * 是否需要在列表中折叠：包含图片或原文超过长度限制
+     */
+    private boolean needCollapsed;
+
+    @Data
+    @AllArgsConstructor
+    public static class HeadingItem {
+        private int level;
+        private String text;
+    }
+}
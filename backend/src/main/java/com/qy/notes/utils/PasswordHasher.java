@@ -0,0 +1,169 @@
+package com.qy.notes.utils;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 密码哈希
+ * <p>
+ * BCrypt 单次计算需要几十到上百毫秒，直接在请求线程上执行时，集中登录会占满 Tomcat 工作线程，拖慢其他接口。
+ * 这里把计算放到独立的有界线程池（passwordHashExecutor）中执行：
+ * 线程数限制了哈希占用的 CPU；排队超过队列容量或等待超时时抛出 BusyException，由调用方返回繁忙提示。
+ * 每分钟输出一次队列深度、拒绝次数等统计
+ */
+@Log4j2
+@Component
+public class PasswordHasher {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    @Qualifier("passwordHashExecutor")
+    private ThreadPoolTaskExecutor passwordHashExecutor;
+
+    @Value("${notes.password-hash.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    /**
+     * 请求线程等待哈希结果的最长时间
+     */
+    @Value("${notes.password-hash.timeout-ms:3000}")
+    private long timeoutMs;
+
+    private final AtomicLong completedCount = new AtomicLong();
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    /**
+     * 统计周期内观察到的最大队列深度
+     */
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+
+    /**
+     * 计算密码哈希
+     *
+     * @throws BusyException 线程池繁忙
+     */
+    public String encode(String rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * 校验密码
+     *
+     * @throws BusyException 线程池繁忙
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 已保存的哈希的计算成本与当前配置不一致时需要重新哈希
+     */
+    public boolean needsRehash(String encodedPassword) {
+        // BCrypt 格式：$2a$10$...，第 4、5 位为成本
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(6) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) != bcryptStrength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 在后台按当前成本重新哈希，线程池繁忙时放弃，下次登录再处理
+     *
+     * @param onEncoded 新哈希的处理（保存到数据库），在线程池中执行
+     */
+    public void rehashAsync(String rawPassword, Consumer<String> onEncoded) {
+        try {
+            passwordHashExecutor.execute(() -> {
+                try {
+                    onEncoded.accept(passwordEncoder.encode(rawPassword));
+                } catch (Exception e) {
+                    log.warn("重新哈希密码失败, 错误详情={}", e.getMessage());
+                }
+            });
+        } catch (TaskRejectedException e) {
+            log.info("密码哈希线程池繁忙，跳过重新哈希");
+        }
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = passwordHashExecutor.submit(task);
+        } catch (TaskRejectedException e) {
+            rejectedCount.incrementAndGet();
+            throw new BusyException();
+        }
+        maxQueueDepth.accumulateAndGet(queueDepth(), Math::max);
+
+        try {
+            T result = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            completedCount.incrementAndGet();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeoutCount.incrementAndGet();
+            throw new BusyException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new BusyException();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("密码哈希失败", e.getCause());
+        }
+    }
+
+    private long queueDepth() {
+        return passwordHashExecutor.getThreadPoolExecutor().getQueue().size();
+    }
+
+    /**
+     * 输出上一分钟的统计，没有请求时不输出
+     */
+    @Scheduled(fixedRate = 60000)
+    public void logStats() {
+        long completed = completedCount.getAndSet(0);
+        long rejected = rejectedCount.getAndSet(0);
+        long timeout = timeoutCount.getAndSet(0);
+        long maxDepth = maxQueueDepth.getAndSet(0);
+        if (completed == 0 && rejected == 0 && timeout == 0) {
+            return;
+        }
+
+        String message = "密码哈希统计: 完成={}, 拒绝={}, 超时={}, 最大队列深度={}, 当前队列深度={}, 活跃线程={}";
+        if (rejected > 0 || timeout > 0) {
+            log.warn(message, completed, rejected, timeout, maxDepth, queueDepth(), passwordHashExecutor.getActiveCount());
+        } else {
+            log.info(message, completed, rejected, timeout, maxDepth, queueDepth(), passwordHashExecutor.getActiveCount());
+        }
+    }
+
+    /**
+     * 线程池已满或等待超时，调用方应提示稍后重试
+     */
+    public static class BusyException extends RuntimeException {
+
+        public BusyException() {
+            super("密码校验繁忙");
+        }
+    }
+}
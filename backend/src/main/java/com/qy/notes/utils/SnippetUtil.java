@@ -0,0 +1,157 @@
+package com.qy.notes.utils;
+
+import com.qy.notes.model.vo.note.NoteSearchHitVO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.*;
+
+public class SnippetUtil {
+
+    /**
+     * 搜索结果片段的默认长度
+     */
+    public static final int DEFAULT_MAX_LENGTH = 160;
+
+    /**
+     * 第一个命中位置之前最多保留的上下文长度
+     */
+    private static final int LEADING_CONTEXT = 30;
+
+    /**
+     * 生成搜索结果片段：在原文中查找检索词的所有出现位置，选出包含不同检索词最多（其次是命中次数最多）的窗口
+     * 全程按下标在原文上匹配，不会对整篇内容做大小写转换等复制，只复制最终片段
+     *
+     * @param content   笔记内容
+     * @param terms     检索词（小写，与查询使用同一套分词）
+     * @param maxLength 片段最大长度
+     * @return 片段及高亮位置
+     */
+    public static Snippet build(String content, Collection<String> terms, int maxLength) {
+        if (content == null || content.isEmpty()) {
+            return new Snippet("", false, false, Collections.emptyList());
+        }
+
+        List<Match> matches = findMatches(content, terms);
+
+        int start = 0;
+        int end = Math.min(content.length(), maxLength);
+
+        if (!matches.isEmpty()) {
+            int[] window = bestWindow(matches, maxLength);
+            int first = matches.get(window[0]).start;
+            int span = matches.get(window[1]).end - first;
+
+            start = Math.max(0, first - Math.min(LEADING_CONTEXT, Math.max(0, maxLength - span)));
+            end = Math.min(content.length(), start + maxLength);
+            start = Math.max(0, end - maxLength);
+        }
+
+        // 不拆开代理对，避免出现半个 emoji
+        if (start > 0 && Character.isLowSurrogate(content.charAt(start))) {
+            start++;
+        }
+        if (end < content.length() && end > start && Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+
+        List<NoteSearchHitVO.Highlight> highlights = new ArrayList<>();
+        for (Match match : matches) {
+            if (match.start >= start && match.end <= end) {
+                highlights.add(new NoteSearchHitVO.Highlight(match.start - start, match.end - match.start));
+            }
+        }
+
+        // 换行等空白替换为空格，长度不变，高亮下标仍然有效
+        String text = content.substring(start, end).replace('\n', ' ').replace('\r', ' ').replace('\t', ' ');
+        return new Snippet(text, start > 0, end < content.length(), highlights);
+    }
+
+    /**
+     * 从左到右扫描，同一位置优先匹配较长的词，匹配结果互不重叠
+     */
+    private static List<Match> findMatches(String content, Collection<String> terms) {
+        // 首字符 -> 以该字符开头的词（按长度降序）
+        Map<Character, List<String>> termsByFirstChar = new HashMap<>();
+        List<String> distinctTerms = new ArrayList<>(new LinkedHashSet<>(terms));
+        for (String term : distinctTerms) {
+            if (!term.isEmpty()) {
+                termsByFirstChar.computeIfAbsent(Character.toLowerCase(term.charAt(0)), k -> new ArrayList<>()).add(term);
+            }
+        }
+        termsByFirstChar.values().forEach(list -> list.sort(Comparator.comparingInt(String::length).reversed()));
+
+        List<Match> matches = new ArrayList<>();
+        int i = 0;
+        while (i < content.length()) {
+            List<String> candidates = termsByFirstChar.get(Character.toLowerCase(content.charAt(i)));
+            int matchedLength = 0;
+            if (candidates != null) {
+                for (String term : candidates) {
+                    if (content.regionMatches(true, i, term, 0, term.length())) {
+                        matchedLength = term.length();
+                        matches.add(new Match(i, i + matchedLength, distinctTerms.indexOf(term)));
+                        break;
+                    }
+                }
+            }
+            i += Math.max(1, matchedLength);
+        }
+        return matches;
+    }
+
+    /**
+     * 双指针遍历所有跨度不超过 maxLength 的连续命中区间
+     *
+     * @return 最佳区间的首尾命中下标
+     */
+    private static int[] bestWindow(List<Match> matches, int maxLength) {
+        Map<Integer, Integer> termCounts = new HashMap<>();
+        int[] best = {0, 0};
+        int bestDistinct = 0;
+        int bestCount = 0;
+
+        int left = 0;
+        for (int right = 0; right < matches.size(); right++) {
+            termCounts.merge(matches.get(right).termIndex, 1, Integer::sum);
+
+            while (left < right && matches.get(right).end - matches.get(left).start > maxLength) {
+                termCounts.computeIfPresent(matches.get(left).termIndex, (k, v) -> v == 1 ? null : v - 1);
+                left++;
+            }
+
+            int distinct = termCounts.size();
+            int count = right - left + 1;
+            if (distinct > bestDistinct || (distinct == bestDistinct && count > bestCount)) {
+                bestDistinct = distinct;
+                bestCount = count;
+                best = new int[]{left, right};
+            }
+        }
+        return best;
+    }
+
+    private static class Match {
+
+        private final int start;
+
+        private final int end;
+
+        private final int termIndex;
+
+        Match(int start, int end, int termIndex) {
+            this.start = start;
+            this.end = end;
+            this.termIndex = termIndex;
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Snippet {
+        private String text;
+        private boolean startOmitted;
+        private boolean endOmitted;
+        private List<NoteSearchHitVO.Highlight> highlights;
+    }
+}
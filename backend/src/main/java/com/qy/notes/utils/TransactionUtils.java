@@ -0,0 +1,26 @@
+package com.qy.notes.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TransactionUtils {
+
+    /**
+     * 在当前事务提交后执行，没有事务时立即执行
+     * 用于维护缓存、索引等事务外的数据，避免读到未提交或被回滚的数据
+     *
+     * @param action 提交后执行的操作
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
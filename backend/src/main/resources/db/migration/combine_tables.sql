@@ -138,3 +138,41 @@ CREATE TABLE IF NOT EXISTS `note_tag` (
   INDEX `idx_note_id` (`note_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='笔记标签关联表';
 
+
+-- ------------- 笔记预览 (V20250420_1) -------------
+-- 折叠标记与简介在笔记发布 / 更新时计算并持久化，列表接口不再解析 Markdown
+-- 存量数据由 NotePreviewBackfillTask 在启动后分批回填（need_collapsed 为 NULL 表示尚未回填）
+ALTER TABLE note ADD COLUMN IF NOT EXISTS need_collapsed TINYINT(1) DEFAULT NULL COMMENT '是否需要折叠';
+ALTER TABLE note ADD COLUMN IF NOT EXISTS display_content TEXT DEFAULT NULL COMMENT '折叠时展示的简介';
+
+-- ------------- 笔记每日作者统计 (V20250421_1) -------------
+-- 热力图、月度 top3 统计不再对 note 表做窗口函数聚合，改为读取按天预聚合的结果
+-- note_count 随笔记发布 / 删除在同一事务内增减，note_rank 由 NoteDailyRankTask 在提交后异步重算
+-- 首次上线时表为空，由 NoteDailyRankTask 在启动后根据 note 表回填
+CREATE TABLE IF NOT EXISTS `note_daily_author_count` (
+  `note_date` DATE NOT NULL COMMENT '日期',
+  `author_id` BIGINT UNSIGNED NOT NULL COMMENT '作者ID',
+  `note_count` INT NOT NULL DEFAULT 0 COMMENT '当天发布的笔记数',
+  `note_rank` INT DEFAULT NULL COMMENT '当天按笔记数的排名，NULL 表示尚未计算',
+  `updated_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`note_date`, `author_id`),
+  INDEX `idx_author_date` (`author_id`, `note_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='笔记每日作者统计表';
+
+-- ------------- 笔记预览重算 (V20250422_1) -------------
+-- 之前只识别一级节点中的图片，段落内的行内图片没有触发折叠；重置这部分笔记，由 NotePreviewBackfillTask 重新计算
+UPDATE note SET need_collapsed = NULL WHERE need_collapsed = 0 AND content LIKE '%![%';
+
+-- ------------- 搜索日志 (V20250423_1) -------------
+-- 由 SearchQueryLogger 缓冲后批量写入，用于统计热门查询、调整分词词典
+CREATE TABLE IF NOT EXISTS `search_query_log` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '日志ID',
+  `query_type` VARCHAR(16) NOT NULL COMMENT '搜索类型：NOTE / NOTE_TAG / USER',
+  `query` VARCHAR(255) NOT NULL COMMENT '规范化后的查询',
+  `tag` VARCHAR(50) DEFAULT NULL COMMENT '按标签搜索时的标签',
+  `hit_count` INT NOT NULL DEFAULT 0 COMMENT '命中的结果数',
+  `latency_ms` INT NOT NULL DEFAULT 0 COMMENT '耗时（毫秒）',
+  `created_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '搜索时间',
+  PRIMARY KEY (`id`),
+  INDEX `idx_created_at` (`created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='搜索日志表';
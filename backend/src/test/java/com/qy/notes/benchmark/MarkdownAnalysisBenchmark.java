@@ -0,0 +1,101 @@
+package com.qy.notes.benchmark;
+
+import com.qy.notes.utils.MarkdownUtil;
+import com.qy.notes.utils.NoteMetadata;
+import com.vladsch.flexmark.ast.Heading;
+import com.vladsch.flexmark.ast.Image;
+import com.vladsch.flexmark.ast.Paragraph;
+import com.vladsch.flexmark.ast.Text;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.ast.Node;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 笔记预览（折叠判断 + 简介）的计算开销
+ * <p>
+ * legacy 复现改造前 MarkdownAST 的做法：每次调用都构建新的 Parser，
+ * 再分别遍历一级节点查找图片、提取简介；analyze 为共享 Parser 的一次遍历，同时得到全部元数据。
+ * <p>
+ * 运行：mvn test-compile 后在 IDE 中运行 main 方法
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class MarkdownAnalysisBenchmark {
+
+    /**
+     * 笔记中重复的段落数，控制笔记长度
+     */
+    @Param({"1", "20", "200"})
+    private int sections;
+
+    private String markdown;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < sections; i++) {
+            builder.append("## 第 ").append(i).append(" 节\n\n")
+                    .append("HashMap 在 **JDK 8** 之后使用数组 + 链表 + 红黑树，链表长度超过 8 时转为红黑树。\n\n")
+                    .append("![结构图](https://example.com/").append(i).append(".png)\n\n")
+                    .append("```java\nMap<String, Integer> map = new HashMap<>();\n```\n\n");
+        }
+        markdown = builder.toString();
+    }
+
+    @Benchmark
+    public String legacy() {
+        Document document = Parser.builder().build().parse(markdown);
+        boolean hasImages = false;
+        for (Node node : document.getChildren()) {
+            if (node instanceof Image) {
+                hasImages = true;
+            }
+        }
+        if (!hasImages && markdown.length() <= MarkdownUtil.PREVIEW_MAX_CHARS) {
+            return null;
+        }
+
+        StringBuilder introText = new StringBuilder();
+        for (Node node : document.getChildren()) {
+            if (node instanceof Heading || node instanceof Paragraph) {
+                String renderedText = getNodeText(node);
+                int remainingChars = MarkdownUtil.PREVIEW_MAX_CHARS - introText.length();
+                introText.append(renderedText, 0, Math.min(remainingChars, renderedText.length()));
+                if (introText.length() >= MarkdownUtil.PREVIEW_MAX_CHARS) {
+                    break;
+                }
+            }
+        }
+        return introText.toString().trim() + "...";
+    }
+
+    @Benchmark
+    public NoteMetadata analyze() {
+        return MarkdownUtil.analyze(markdown);
+    }
+
+    private static String getNodeText(Node node) {
+        StringBuilder text = new StringBuilder();
+        if (node instanceof Text) {
+            text.append(((Text) node).getChars());
+        }
+        for (Node child : node.getChildren()) {
+            text.append(getNodeText(child));
+        }
+        return text.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MarkdownAnalysisBenchmark.class.getSimpleName()).build()).run();
+    }
+}
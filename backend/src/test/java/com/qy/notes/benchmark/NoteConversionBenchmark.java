@@ -0,0 +1,92 @@
+package com.qy.notes.benchmark;
+
+import com.qy.notes.converter.NoteConverter;
+import com.qy.notes.model.entity.Note;
+import com.qy.notes.model.entity.Question;
+import com.qy.notes.model.entity.User;
+import com.qy.notes.model.vo.note.NoteVO;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 笔记列表中单条笔记转换为 NoteVO（含作者、问题）的开销
+ * <p>
+ * beanUtils 为改造前 BeanUtils.copyProperties 的写法，mapStruct 为 NoteConverter 生成的代码
+ * <p>
+ * 运行：mvn test-compile 后在 IDE 中运行 main 方法
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class NoteConversionBenchmark {
+
+    private final NoteConverter noteConverter = Mappers.getMapper(NoteConverter.class);
+
+    private Note note;
+
+    private User author;
+
+    private Question question;
+
+    @Setup
+    public void setUp() {
+        note = new Note();
+        note.setNoteId(1);
+        note.setAuthorId(1L);
+        note.setQuestionId(1);
+        note.setContent("content");
+        note.setLikeCount(10);
+        note.setCommentCount(2);
+        note.setCollectCount(3);
+        note.setNeedCollapsed(true);
+        note.setDisplayContent("display content");
+        note.setCreatedAt(LocalDateTime.now());
+        note.setUpdatedAt(LocalDateTime.now());
+
+        author = new User();
+        author.setUserId(1L);
+        author.setUsername("author");
+        author.setAvatarUrl("https://example.com/avatar.png");
+
+        question = new Question();
+        question.setQuestionId(1);
+        question.setTitle("question");
+    }
+
+    @Benchmark
+    public NoteVO beanUtils() {
+        NoteVO noteVO = new NoteVO();
+        BeanUtils.copyProperties(note, noteVO);
+
+        NoteVO.SimpleAuthorVO authorVO = new NoteVO.SimpleAuthorVO();
+        BeanUtils.copyProperties(author, authorVO);
+        noteVO.setAuthor(authorVO);
+
+        NoteVO.SimpleQuestionVO questionVO = new NoteVO.SimpleQuestionVO();
+        BeanUtils.copyProperties(question, questionVO);
+        noteVO.setQuestion(questionVO);
+        return noteVO;
+    }
+
+    @Benchmark
+    public NoteVO mapStruct() {
+        NoteVO noteVO = noteConverter.toNoteVO(note);
+        noteVO.setAuthor(noteConverter.toSimpleAuthorVO(author));
+        noteVO.setQuestion(noteConverter.toSimpleQuestionVO(question));
+        return noteVO;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NoteConversionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
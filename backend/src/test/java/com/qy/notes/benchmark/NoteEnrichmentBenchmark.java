@@ -0,0 +1,171 @@
+package com.qy.notes.benchmark;
+
+import com.qy.notes.converter.NoteConverter;
+import com.qy.notes.mapper.NoteMapper;
+import com.qy.notes.model.base.ApiResponse;
+import com.qy.notes.model.dto.note.NoteQueryParams;
+import com.qy.notes.model.entity.Note;
+import com.qy.notes.model.entity.Question;
+import com.qy.notes.model.entity.User;
+import com.qy.notes.model.vo.note.NoteVO;
+import com.qy.notes.scope.RequestScopeData;
+import com.qy.notes.service.CollectionNoteService;
+import com.qy.notes.service.NoteLikeService;
+import com.qy.notes.service.QuestionService;
+import com.qy.notes.service.UserService;
+import com.qy.notes.service.impl.NoteServiceImpl;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * getNotes 补全查询（作者、问题、点赞、收藏）的延迟分布
+ * <p>
+ * 使用真实的 NoteServiceImpl，四个补全查询替换为固定延迟的桩，模拟一次数据库往返；
+ * 线程池大小为 1 时四个查询依次执行，相当于改造前的串行调用，为 8 时并发执行。
+ * 以 SampleTime 模式输出 p50 / p99。
+ * <p>
+ * 运行：mvn test-compile 后在 IDE 中运行 main 方法
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class NoteEnrichmentBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    /**
+     * 单个补全查询的模拟延迟（毫秒）
+     */
+    @Param({"2", "5"})
+    private int lookupMillis;
+
+    /**
+     * 补全查询线程池大小，1 即串行
+     */
+    @Param({"1", "8"})
+    private int poolSize;
+
+    private NoteServiceImpl noteService;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private NoteQueryParams params;
+
+    @Setup
+    public void setUp() {
+        List<Note> notes = new ArrayList<>();
+        for (int i = 1; i <= PAGE_SIZE; i++) {
+            Note note = new Note();
+            note.setNoteId(i);
+            note.setAuthorId((long) (i % 5 + 1));
+            note.setQuestionId(i % 7 + 1);
+            note.setContent("content " + i);
+            note.setNeedCollapsed(false);
+            note.setCreatedAt(LocalDateTime.now());
+            notes.add(note);
+        }
+
+        NoteMapper noteMapper = mock(NoteMapper.class);
+        when(noteMapper.countNotes(any())).thenReturn(1000);
+        when(noteMapper.findByQueryParams(any(), anyInt(), anyInt())).thenReturn(notes);
+
+        UserService userService = mock(UserService.class);
+        when(userService.getUserMapByIds(anyList())).thenAnswer(invocation -> {
+            simulateLatency();
+            Map<Long, User> users = new HashMap<>();
+            for (Long userId : invocation.<List<Long>>getArgument(0)) {
+                User user = new User();
+                user.setUserId(userId);
+                user.setUsername("user" + userId);
+                users.put(userId, user);
+            }
+            return users;
+        });
+
+        QuestionService questionService = mock(QuestionService.class);
+        when(questionService.getQuestionMapByIds(anyList())).thenAnswer(invocation -> {
+            simulateLatency();
+            Map<Integer, Question> questions = new HashMap<>();
+            for (Integer questionId : invocation.<List<Integer>>getArgument(0)) {
+                Question question = new Question();
+                question.setQuestionId(questionId);
+                question.setTitle("question" + questionId);
+                questions.put(questionId, question);
+            }
+            return questions;
+        });
+
+        NoteLikeService noteLikeService = mock(NoteLikeService.class);
+        when(noteLikeService.findUserLikedNoteIds(anyLong(), anyList())).thenAnswer(invocation -> {
+            simulateLatency();
+            return Set.of(1, 2);
+        });
+
+        CollectionNoteService collectionNoteService = mock(CollectionNoteService.class);
+        when(collectionNoteService.findUserCollectedNoteIds(anyLong(), anyList())).thenAnswer(invocation -> {
+            simulateLatency();
+            return Set.of(3);
+        });
+
+        RequestScopeData requestScopeData = new RequestScopeData();
+        requestScopeData.setLogin(true);
+        requestScopeData.setUserId(1L);
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(1000);
+        executor.initialize();
+
+        noteService = new NoteServiceImpl();
+        ReflectionTestUtils.setField(noteService, "noteMapper", noteMapper);
+        ReflectionTestUtils.setField(noteService, "userService", userService);
+        ReflectionTestUtils.setField(noteService, "questionService", questionService);
+        ReflectionTestUtils.setField(noteService, "noteLikeService", noteLikeService);
+        ReflectionTestUtils.setField(noteService, "collectionNoteService", collectionNoteService);
+        ReflectionTestUtils.setField(noteService, "requestScopeData", requestScopeData);
+        ReflectionTestUtils.setField(noteService, "noteQueryExecutor", executor);
+        ReflectionTestUtils.setField(noteService, "noteConverter", Mappers.getMapper(NoteConverter.class));
+        ReflectionTestUtils.setField(noteService, "enrichTimeoutMillis", 500L);
+
+        // 按收藏夹筛选的列表不走列表缓存，每次都执行补全查询
+        params = new NoteQueryParams();
+        params.setCollectionId(1);
+        params.setPageSize(PAGE_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public ApiResponse<List<NoteVO>> getNotes() {
+        return noteService.getNotes(params);
+    }
+
+    private void simulateLatency() {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(lookupMillis));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NoteEnrichmentBenchmark.class.getSimpleName()).build()).run();
+    }
+}
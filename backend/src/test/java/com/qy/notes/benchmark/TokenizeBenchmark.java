@@ -0,0 +1,91 @@
+package com.qy.notes.benchmark;
+
+import com.qy.notes.mapper.QuestionMapper;
+import com.qy.notes.mapper.TagMapper;
+import com.qy.notes.model.entity.Question;
+import com.qy.notes.search.TextSegmenter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 分词吞吐量
+ * <p>
+ * tokenize 在多个线程上并发调用同一个 TextSegmenter，对应查询时的并发分词；
+ * sequential 与 batch 分别逐条、并行切分一批笔记，对应重建索引。
+ * 题目和标签的自定义词替换为固定的桩数据，不访问数据库。
+ * <p>
+ * 运行：mvn test-compile 后在 IDE 中运行 main 方法
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class TokenizeBenchmark {
+
+    private static final int BATCH_SIZE = 200;
+
+    private static final String QUERY = "ConcurrentHashMap 和 红黑树 的实现原理";
+
+    private TextSegmenter textSegmenter;
+
+    private List<String> notes;
+
+    @Setup
+    public void setUp() {
+        Question question = new Question();
+        question.setTitle("ConcurrentHashMap 与 HashMap 的区别");
+
+        QuestionMapper questionMapper = mock(QuestionMapper.class);
+        when(questionMapper.findAll()).thenReturn(List.of(question));
+        TagMapper tagMapper = mock(TagMapper.class);
+        when(tagMapper.findAllNames()).thenReturn(List.of("Java", "数据结构"));
+
+        textSegmenter = new TextSegmenter();
+        ReflectionTestUtils.setField(textSegmenter, "questionMapper", questionMapper);
+        ReflectionTestUtils.setField(textSegmenter, "tagMapper", tagMapper);
+        textSegmenter.init();
+
+        notes = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            notes.add("## 第 " + i + " 题\n\nHashMap 在 JDK 8 之后使用数组 + 链表 + 红黑树，"
+                    + "链表长度超过 8 时转为红黑树；ConcurrentHashMap 使用 CAS 和 synchronized 保证线程安全。");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        textSegmenter.destroy();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<String> tokenize() {
+        return textSegmenter.tokenize(QUERY);
+    }
+
+    @Benchmark
+    public List<List<String>> sequential() {
+        return notes.stream().map(textSegmenter::tokenize).toList();
+    }
+
+    @Benchmark
+    public List<List<String>> batch() {
+        return textSegmenter.tokenizeBatch(notes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenizeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,161 @@
+package com.qy.notes.search;
+
+import com.qy.notes.mapper.CommentMapper;
+import com.qy.notes.model.entity.Comment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class CommentSearchIndexTest {
+
+    private CommentSearchIndex commentSearchIndex;
+
+    private CommentMapper commentMapper;
+
+    private StringRedisTemplate stringRedisTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        commentMapper = mock(CommentMapper.class);
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+
+        // 按空白切分，便于手算 BM25
+        TextSegmenter textSegmenter = mock(TextSegmenter.class);
+        when(textSegmenter.tokenizeBatch(anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0)
+                .stream()
+                .map(text -> Arrays.stream(text.split("\\s+")).filter(token -> !token.isEmpty()).toList())
+                .toList());
+
+        commentSearchIndex = new CommentSearchIndex();
+        ReflectionTestUtils.setField(commentSearchIndex, "commentMapper", commentMapper);
+        ReflectionTestUtils.setField(commentSearchIndex, "textSegmenter", textSegmenter);
+        ReflectionTestUtils.setField(commentSearchIndex, "stringRedisTemplate", stringRedisTemplate);
+
+        // 评论长度分别为 3、2、1、2，平均长度 2；评论 2 是评论 1 的回复
+        when(commentMapper.findAfterId(anyInt(), anyInt())).thenReturn(List.of(
+                comment(1, 10, null, "redis redis cluster"),
+                comment(2, 10, 1, "redis java"),
+                comment(3, 20, null, "redis"),
+                comment(4, 30, null, "java kafka")));
+        commentSearchIndex.rebuild();
+    }
+
+    @Test
+    public void groupScoreIsBestCommentPlusTenPercentOfOthers() {
+        List<CommentSearchIndex.NoteGroup> groups = commentSearchIndex.search(List.of("redis"), 10);
+
+        double idf = Math.log(1 + (4 - 3 + 0.5) / (3 + 0.5));
+        double comment1 = bm25(idf, 2, 3, 2);
+        double comment2 = bm25(idf, 1, 2, 2);
+        double comment3 = bm25(idf, 1, 1, 2);
+        // 单条评论 3 的得分高于评论 1，但笔记 10 有两条命中
+        assertTrue(comment3 > comment1);
+
+        assertEquals(List.of(10, 20), groups.stream().map(CommentSearchIndex.NoteGroup::getNoteId).toList());
+        assertEquals(comment1 + 0.1 * comment2, groups.get(0).getScore(), 1e-9);
+        assertEquals(List.of(1, 2), groups.get(0).getCommentIds());
+        assertEquals(comment3, groups.get(1).getScore(), 1e-9);
+    }
+
+    @Test
+    public void maxNotesLimitsGroups() {
+        assertEquals(1, commentSearchIndex.search(List.of("redis"), 1).size());
+        assertTrue(commentSearchIndex.search(List.of("redis"), 0).isEmpty());
+        assertTrue(commentSearchIndex.search(List.of(), 10).isEmpty());
+        assertTrue(commentSearchIndex.search(List.of("mysql"), 10).isEmpty());
+    }
+
+    @Test
+    public void refreshReindexesEditedComment() {
+        when(commentMapper.findByIds(anyList())).thenReturn(List.of(comment(4, 30, null, "mysql")));
+
+        commentSearchIndex.markDirty(4);
+        commentSearchIndex.refreshDirty();
+
+        assertEquals(List.of(30), noteIds(commentSearchIndex.search(List.of("mysql"), 10)));
+        assertEquals(List.of(10), noteIds(commentSearchIndex.search(List.of("java"), 10)));
+    }
+
+    @Test
+    public void deletedCommentTakesRepliesWithIt() {
+        when(commentMapper.findByIds(anyList())).thenReturn(List.of());
+
+        commentSearchIndex.markDirty(1);
+        commentSearchIndex.refreshDirty();
+
+        assertEquals(List.of(20), noteIds(commentSearchIndex.search(List.of("redis"), 10)));
+        assertEquals(List.of(30), noteIds(commentSearchIndex.search(List.of("java"), 10)));
+    }
+
+    @Test
+    public void removedNoteIsAppliedOnRefresh() {
+        commentSearchIndex.removeNote(10);
+        assertEquals(List.of(10, 20), noteIds(commentSearchIndex.search(List.of("redis"), 10)));
+
+        commentSearchIndex.refreshDirty();
+
+        assertEquals(List.of(20), noteIds(commentSearchIndex.search(List.of("redis"), 10)));
+    }
+
+    @Test
+    public void changesArePublishedOncePerRefreshNotOnWrite() {
+        when(commentMapper.findByIds(anyList())).thenReturn(List.of());
+
+        commentSearchIndex.markDirty(3);
+        commentSearchIndex.removeNote(30);
+        verifyNoInteractions(stringRedisTemplate);
+
+        commentSearchIndex.refreshDirty();
+        verify(stringRedisTemplate).convertAndSend("search:comment:changed", "3|30");
+
+        // 已广播的变更不再重复发送
+        commentSearchIndex.refreshDirty();
+        verify(stringRedisTemplate, times(1)).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    public void receivedChangesAreAppliedButNotRepublished() {
+        when(commentMapper.findByIds(anyList())).thenReturn(List.of());
+
+        ReflectionTestUtils.invokeMethod(commentSearchIndex, "onChangeMessage", "3|10");
+        commentSearchIndex.refreshDirty();
+
+        assertTrue(commentSearchIndex.search(List.of("redis"), 10).isEmpty());
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    public void removedNoteSurvivesRebuildThatReadOldData() {
+        commentSearchIndex.removeNote(10);
+        // 重建读到的仍是删除前的数据
+        commentSearchIndex.rebuild();
+        commentSearchIndex.refreshDirty();
+
+        assertEquals(List.of(20), noteIds(commentSearchIndex.search(List.of("redis"), 10)));
+    }
+
+    private static double bm25(double idf, int tf, int length, double avgLength) {
+        return idf * tf * 2.2 / (tf + 1.2 * (0.25 + 0.75 * length / avgLength));
+    }
+
+    private static List<Integer> noteIds(List<CommentSearchIndex.NoteGroup> groups) {
+        return groups.stream().map(CommentSearchIndex.NoteGroup::getNoteId).toList();
+    }
+
+    private static Comment comment(int commentId, int noteId, Integer parentId, String content) {
+        Comment comment = new Comment();
+        comment.setCommentId(commentId);
+        comment.setNoteId(noteId);
+        comment.setParentId(parentId);
+        comment.setContent(content);
+        return comment;
+    }
+}
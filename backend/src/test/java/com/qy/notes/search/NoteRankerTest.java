@@ -0,0 +1,167 @@
+package com.qy.notes.search;
+
+import com.qy.notes.config.SearchRankingProperties;
+import com.qy.notes.model.entity.Note;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class NoteRankerTest {
+
+    private NoteRanker noteRanker;
+
+    private SearchRankingProperties properties;
+
+    private NoteFeatureCache.Features features;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new SearchRankingProperties();
+        features = new NoteFeatureCache.Features(16);
+
+        NoteFeatureCache noteFeatureCache = mock(NoteFeatureCache.class);
+        when(noteFeatureCache.features()).thenReturn(features);
+
+        noteRanker = new NoteRanker();
+        ReflectionTestUtils.setField(noteRanker, "properties", properties);
+        ReflectionTestUtils.setField(noteRanker, "noteFeatureCache", noteFeatureCache);
+    }
+
+    @Test
+    public void textOnlyKeepsOrderAndNormalizesScores() {
+        onlyWeights(1, 0, 0);
+        NoteSearchIndex.Hits hits = hits(new int[]{1, 2, 3}, new double[]{8, 4, 2});
+
+        noteRanker.rerank(hits);
+
+        assertArrayEquals(new int[]{1, 2, 3}, hits.noteIds());
+        assertArrayEquals(new double[]{1, 0.5, 0.25}, hits.scores(), 1e-9);
+    }
+
+    @Test
+    public void engagementBreaksTextTie() {
+        onlyWeights(1, 1, 0);
+        feature(1, 0, 0, 0, null);
+        feature(2, 10, 5, 3, null);
+
+        NoteSearchIndex.Hits hits = hits(new int[]{1, 2}, new double[]{5, 5});
+        noteRanker.rerank(hits);
+
+        assertArrayEquals(new int[]{2, 1}, hits.noteIds());
+        assertEquals(2.0, hits.scores()[0], 1e-9);
+        assertEquals(1.0, hits.scores()[1], 1e-9);
+    }
+
+    @Test
+    public void engagementUsesConfiguredWeights() {
+        onlyWeights(0, 1, 0);
+        // 评论权重调高后，1 条评论的分值超过 10 次点赞
+        properties.setCommentWeight(100);
+        feature(1, 10, 0, 0, null);
+        feature(2, 0, 0, 1, null);
+
+        NoteSearchIndex.Hits hits = hits(new int[]{1, 2}, new double[]{1, 1});
+        noteRanker.rerank(hits);
+
+        assertArrayEquals(new int[]{2, 1}, hits.noteIds());
+    }
+
+    @Test
+    public void newerNoteIsFresher() {
+        onlyWeights(0, 0, 1);
+        feature(1, 0, 0, 0, LocalDateTime.now().minusDays(30));
+        feature(2, 0, 0, 0, LocalDateTime.now().minusDays(1));
+
+        NoteSearchIndex.Hits hits = hits(new int[]{1, 2}, new double[]{1, 1});
+        noteRanker.rerank(hits);
+
+        assertArrayEquals(new int[]{2, 1}, hits.noteIds());
+        // 满一个半衰期（30 天）新鲜度为 0.5
+        assertEquals(0.5, hits.scores()[1], 0.01);
+    }
+
+    @Test
+    public void noteMissingFromCacheIsTreatedAsNew() {
+        onlyWeights(0, 0, 1);
+        feature(1, 0, 0, 0, LocalDateTime.now().minusDays(60));
+
+        NoteSearchIndex.Hits hits = hits(new int[]{1, 9}, new double[]{1, 1});
+        noteRanker.rerank(hits);
+
+        assertArrayEquals(new int[]{9, 1}, hits.noteIds());
+        assertEquals(1.0, hits.scores()[0], 1e-9);
+    }
+
+    @Test
+    public void equalScoresPutLargerNoteIdFirst() {
+        onlyWeights(1, 0, 0);
+        NoteSearchIndex.Hits hits = hits(new int[]{3, 7, 5}, new double[]{1, 1, 1});
+
+        noteRanker.rerank(hits);
+
+        assertArrayEquals(new int[]{7, 5, 3}, hits.noteIds());
+    }
+
+    @Test
+    public void onlyCandidatesAreReranked() {
+        onlyWeights(0, 1, 0);
+        properties.setCandidateSize(2);
+        feature(2, 10, 0, 0, null);
+        feature(3, 100, 0, 0, null);
+
+        NoteSearchIndex.Hits hits = hits(new int[]{1, 2, 3}, new double[]{3, 2, 1});
+        noteRanker.rerank(hits);
+
+        assertArrayEquals(new int[]{2, 1, 3}, hits.noteIds());
+        assertEquals(1.0, hits.scores()[2], 1e-9);
+    }
+
+    @Test
+    public void explicitPropertiesOverrideConfigured() {
+        onlyWeights(0, 1, 0);
+        feature(2, 10, 0, 0, null);
+        SearchRankingProperties textOnly = new SearchRankingProperties();
+        textOnly.setEngagementWeight(0);
+        textOnly.setFreshnessWeight(0);
+
+        NoteSearchIndex.Hits hits = hits(new int[]{1, 2}, new double[]{2, 1});
+        noteRanker.rerank(hits, textOnly);
+
+        assertArrayEquals(new int[]{1, 2}, hits.noteIds());
+    }
+
+    @Test
+    public void singleHitIsUntouched() {
+        NoteSearchIndex.Hits hits = hits(new int[]{1}, new double[]{3.5});
+
+        noteRanker.rerank(hits);
+
+        assertEquals(3.5, hits.scores()[0]);
+    }
+
+    private void onlyWeights(double text, double engagement, double freshness) {
+        properties.setTextWeight(text);
+        properties.setEngagementWeight(engagement);
+        properties.setFreshnessWeight(freshness);
+    }
+
+    private void feature(int noteId, int likes, int collects, int comments, LocalDateTime createdAt) {
+        Note note = new Note();
+        note.setNoteId(noteId);
+        note.setLikeCount(likes);
+        note.setCollectCount(collects);
+        note.setCommentCount(comments);
+        note.setCreatedAt(createdAt);
+        features.set(noteId, note);
+    }
+
+    private static NoteSearchIndex.Hits hits(int[] noteIds, double[] scores) {
+        return new NoteSearchIndex.Hits(noteIds, scores);
+    }
+}
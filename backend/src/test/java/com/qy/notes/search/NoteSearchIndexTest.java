@@ -0,0 +1,157 @@
+package com.qy.notes.search;
+
+import com.qy.notes.cache.NoteSearchCache;
+import com.qy.notes.mapper.NoteMapper;
+import com.qy.notes.model.vo.note.NoteSearchDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class NoteSearchIndexTest {
+
+    private NoteSearchIndex noteSearchIndex;
+
+    private NoteMapper noteMapper;
+
+    private NoteSearchCache noteSearchCache;
+
+    @BeforeEach
+    public void setUp() {
+        noteMapper = mock(NoteMapper.class);
+        noteSearchCache = mock(NoteSearchCache.class);
+
+        // 按空白切分，便于手算 BM25
+        TextSegmenter textSegmenter = mock(TextSegmenter.class);
+        when(textSegmenter.tokenizeBatch(anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0)
+                .stream()
+                .map(text -> Arrays.stream(text.split("\\s+")).filter(token -> !token.isEmpty()).toList())
+                .toList());
+
+        noteSearchIndex = new NoteSearchIndex();
+        ReflectionTestUtils.setField(noteSearchIndex, "noteMapper", noteMapper);
+        ReflectionTestUtils.setField(noteSearchIndex, "textSegmenter", textSegmenter);
+        ReflectionTestUtils.setField(noteSearchIndex, "noteSearchCache", noteSearchCache);
+        ReflectionTestUtils.setField(noteSearchIndex, "stringRedisTemplate", mock(StringRedisTemplate.class));
+
+        // 文档长度分别为 3、2、1，平均长度 2
+        when(noteMapper.findSearchDocuments(anyInt(), anyInt())).thenReturn(List.of(
+                document(1, "redis", "redis cluster"),
+                document(2, null, "redis java"),
+                document(3, null, "java")));
+    }
+
+    @Test
+    public void notReadyUntilRebuilt() {
+        assertFalse(noteSearchIndex.isReady());
+        assertEquals(0, noteSearchIndex.search(List.of("redis"), 10).size());
+
+        noteSearchIndex.rebuild();
+
+        assertTrue(noteSearchIndex.isReady());
+    }
+
+    @Test
+    public void scoresFollowBm25() {
+        noteSearchIndex.rebuild();
+
+        NoteSearchIndex.Hits hits = noteSearchIndex.search(List.of("redis"), 10);
+
+        assertArrayEquals(new int[]{1, 2}, hits.noteIds());
+        double idf = Math.log(1 + (3 - 2 + 0.5) / (2 + 0.5));
+        assertEquals(bm25(idf, 2, 3, 2), hits.scores()[0], 1e-9);
+        assertEquals(bm25(idf, 1, 2, 2), hits.scores()[1], 1e-9);
+    }
+
+    @Test
+    public void rareTermOutweighsCommonTerm() {
+        noteSearchIndex.rebuild();
+
+        // cluster 只出现在笔记 1，java 出现在笔记 2、3
+        NoteSearchIndex.Hits hits = noteSearchIndex.search(List.of("cluster", "java"), 10);
+
+        assertEquals(1, hits.noteIds()[0]);
+        assertEquals(3, hits.size());
+    }
+
+    @Test
+    public void repeatedQueryTermsCountOnce() {
+        noteSearchIndex.rebuild();
+
+        assertArrayEquals(noteSearchIndex.search(List.of("redis"), 10).scores(),
+                noteSearchIndex.search(List.of("redis", "redis"), 10).scores(), 1e-12);
+    }
+
+    @Test
+    public void unknownTermsAndEmptyQueriesMatchNothing() {
+        noteSearchIndex.rebuild();
+
+        assertEquals(0, noteSearchIndex.search(List.of("kafka"), 10).size());
+        assertEquals(0, noteSearchIndex.search(List.of(), 10).size());
+        assertEquals(0, noteSearchIndex.search(List.of("redis"), 0).size());
+    }
+
+    @Test
+    public void topKKeepsBestAndPrefersNewerOnTies() {
+        when(noteMapper.findSearchDocuments(anyInt(), anyInt())).thenReturn(List.of(
+                document(4, null, "java"),
+                document(5, null, "java"),
+                document(6, null, "java")));
+        noteSearchIndex.rebuild();
+
+        NoteSearchIndex.Hits hits = noteSearchIndex.search(List.of("java"), 2);
+
+        assertArrayEquals(new int[]{6, 5}, hits.noteIds());
+    }
+
+    @Test
+    public void refreshAppliesUpdatesAndDeletes() {
+        noteSearchIndex.rebuild();
+        long version = noteSearchIndex.getVersion();
+
+        when(noteMapper.findSearchDocumentsByIds(anyList())).thenReturn(List.of(document(2, null, "kafka")));
+        noteSearchIndex.markDirty(2);
+        noteSearchIndex.markDirty(3);
+        noteSearchIndex.refreshDirty();
+
+        assertArrayEquals(new int[]{2}, noteSearchIndex.search(List.of("kafka"), 10).noteIds());
+        assertArrayEquals(new int[]{1}, noteSearchIndex.search(List.of("redis"), 10).noteIds());
+        assertEquals(0, noteSearchIndex.search(List.of("java"), 10).size());
+        assertTrue(noteSearchIndex.getVersion() > version);
+
+        verify(noteSearchCache).evictByTerms(argThat(terms -> terms.containsAll(Set.of("redis", "java", "kafka"))));
+    }
+
+    @Test
+    public void failedRefreshIsRetried() {
+        noteSearchIndex.rebuild();
+
+        when(noteMapper.findSearchDocumentsByIds(anyList()))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(List.of(document(3, null, "kafka")));
+        noteSearchIndex.markDirty(3);
+        noteSearchIndex.refreshDirty();
+        assertEquals(0, noteSearchIndex.search(List.of("kafka"), 10).size());
+
+        noteSearchIndex.refreshDirty();
+        assertArrayEquals(new int[]{3}, noteSearchIndex.search(List.of("kafka"), 10).noteIds());
+    }
+
+    private static double bm25(double idf, int tf, int length, double avgLength) {
+        return idf * tf * 2.2 / (tf + 1.2 * (0.25 + 0.75 * length / avgLength));
+    }
+
+    private static NoteSearchDocument document(int noteId, String title, String content) {
+        NoteSearchDocument document = new NoteSearchDocument();
+        document.setNoteId(noteId);
+        document.setTitle(title);
+        document.setContent(content);
+        return document;
+    }
+}
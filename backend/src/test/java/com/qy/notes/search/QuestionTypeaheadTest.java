@@ -0,0 +1,114 @@
+package com.qy.notes.search;
+
+import com.qy.notes.mapper.QuestionMapper;
+import com.qy.notes.model.entity.Question;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class QuestionTypeaheadTest {
+
+    private QuestionTypeahead questionTypeahead;
+
+    private QuestionMapper questionMapper;
+
+    private TextSegmenter textSegmenter;
+
+    private final List<Question> questions = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        questionMapper = mock(QuestionMapper.class);
+        when(questionMapper.findAll()).thenReturn(questions);
+        textSegmenter = mock(TextSegmenter.class);
+
+        questionTypeahead = new QuestionTypeahead();
+        ReflectionTestUtils.setField(questionTypeahead, "questionMapper", questionMapper);
+        ReflectionTestUtils.setField(questionTypeahead, "textSegmenter", textSegmenter);
+
+        question(1, "Redis 持久化机制", 10);
+        question(2, "Redis 的集群方案", 50);
+        question(3, "HashMap 的实现原理", 30);
+        question(4, "Map 与 Set 的区别", 30);
+        question(5, "MySQL 索引", 0);
+    }
+
+    @Test
+    public void blankKeywordOrZeroLimitReturnsNothing() {
+        assertTrue(questionTypeahead.suggest(" ", 10).isEmpty());
+        assertTrue(questionTypeahead.suggest(null, 10).isEmpty());
+        assertTrue(questionTypeahead.suggest("redis", 0).isEmpty());
+    }
+
+    @Test
+    public void matchesAreOrderedByViewCountThenId() {
+        assertEquals(List.of(2, 1), ids(questionTypeahead.suggest("redis", 10)));
+        assertEquals(List.of(3, 4), ids(questionTypeahead.suggest("map", 10)));
+    }
+
+    @Test
+    public void caseAndWhitespaceAreIgnored() {
+        assertEquals(List.of(1), ids(questionTypeahead.suggest("REDIS持久化", 10)));
+        assertEquals(List.of(1), ids(questionTypeahead.suggest("redis 持 久化", 10)));
+    }
+
+    @Test
+    public void singleCharacterKeywordUsesPostings() {
+        assertEquals(List.of(5), ids(questionTypeahead.suggest("索", 10)));
+    }
+
+    @Test
+    public void longKeywordIsVerifiedAsContiguousSubstring() {
+        // "hashmap" 的二元组 "ma"、"ap" 也出现在题目 4 中，但题目 4 不包含完整的关键词
+        assertEquals(List.of(3), ids(questionTypeahead.suggest("hashmap", 10)));
+        assertTrue(questionTypeahead.suggest("hashset", 10).isEmpty());
+    }
+
+    @Test
+    public void limitIsRespected() {
+        assertEquals(List.of(2), ids(questionTypeahead.suggest("redis", 1)));
+    }
+
+    @Test
+    public void tokensAreMatchedWhenSubstringMatchIsShort() {
+        when(textSegmenter.tokenize("redis 集群")).thenReturn(List.of("redis", "集群"));
+
+        assertEquals(List.of(2), ids(questionTypeahead.suggest("redis 集群", 10)));
+    }
+
+    @Test
+    public void tokenMatchesAreNotDuplicated() {
+        when(textSegmenter.tokenize("Redis 持久化")).thenReturn(List.of("redis", "持久化"));
+
+        assertEquals(List.of(1), ids(questionTypeahead.suggest("Redis 持久化", 10)));
+    }
+
+    @Test
+    public void rebuildPicksUpChanges() {
+        assertTrue(questionTypeahead.suggest("kafka", 10).isEmpty());
+
+        question(6, "Kafka 消息可靠性", 5);
+        questionTypeahead.rebuild();
+
+        assertEquals(List.of(6), ids(questionTypeahead.suggest("kafka", 10)));
+    }
+
+    private void question(int questionId, String title, int viewCount) {
+        Question question = new Question();
+        question.setQuestionId(questionId);
+        question.setTitle(title);
+        question.setViewCount(viewCount);
+        questions.add(question);
+    }
+
+    private static List<Integer> ids(List<Question> questions) {
+        return questions.stream().map(Question::getQuestionId).toList();
+    }
+}
@@ -0,0 +1,85 @@
+package com.qy.notes.search;
+
+import com.qy.notes.mapper.QuestionMapper;
+import com.qy.notes.mapper.TagMapper;
+import com.qy.notes.model.entity.Question;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TextSegmenterTest {
+
+    private static TextSegmenter textSegmenter;
+
+    @BeforeAll
+    public static void setUp() {
+        Question question = new Question();
+        question.setTitle("ZooKeeper 与 Node.js 的使用场景");
+
+        QuestionMapper questionMapper = mock(QuestionMapper.class);
+        when(questionMapper.findAll()).thenReturn(List.of(question));
+        TagMapper tagMapper = mock(TagMapper.class);
+        when(tagMapper.findAllNames()).thenReturn(List.of("笔记检索"));
+
+        textSegmenter = new TextSegmenter();
+        ReflectionTestUtils.setField(textSegmenter, "questionMapper", questionMapper);
+        ReflectionTestUtils.setField(textSegmenter, "tagMapper", tagMapper);
+        textSegmenter.init();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        textSegmenter.destroy();
+    }
+
+    @Test
+    public void blankTextHasNoTokens() {
+        assertTrue(textSegmenter.tokenize(null).isEmpty());
+        assertTrue(textSegmenter.tokenize("  ").isEmpty());
+    }
+
+    @Test
+    public void punctuationIsDroppedAndCaseIsFolded() {
+        assertEquals(List.of("hashmap", "arraylist"), textSegmenter.tokenize("HashMap，ArrayList!"));
+    }
+
+    @Test
+    public void stopWordsAreRemovedAndDuplicatesKept() {
+        List<String> tokens = textSegmenter.tokenize("java 的 Java");
+
+        assertEquals(List.of("java", "java"), tokens);
+    }
+
+    @Test
+    public void techDictionaryTermsStayWhole() {
+        assertTrue(textSegmenter.tokenize("红黑树的插入").contains("红黑树"));
+
+        List<String> tokens = textSegmenter.tokenize("C++ 和 B+树");
+        assertTrue(tokens.contains("c++"), tokens.toString());
+        assertTrue(tokens.contains("b+树"), tokens.toString());
+    }
+
+    @Test
+    public void domainTermsFromTagsStayWhole() {
+        assertTrue(textSegmenter.tokenize("如何实现笔记检索").contains("笔记检索"));
+    }
+
+    @Test
+    public void batchMatchesSingleTokenize() {
+        List<String> texts = List.of("红黑树的插入", "HashMap，ArrayList!", "", "C++ 和 B+树");
+
+        List<List<String>> batch = textSegmenter.tokenizeBatch(texts);
+
+        assertEquals(texts.size(), batch.size());
+        for (int i = 0; i < texts.size(); i++) {
+            assertEquals(textSegmenter.tokenize(texts.get(i)), batch.get(i));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.qy.notes.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CursorUtilsTest {
+
+    @Test
+    public void encodeThenDecodeReturnsSameKey() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 4, 1, 12, 30, 15, 123_000_000);
+
+        CursorUtils.Cursor cursor = CursorUtils.decode(CursorUtils.encode(createdAt, 42));
+
+        assertEquals(createdAt, cursor.getCreatedAt());
+        assertEquals(42, cursor.getId());
+    }
+
+    @Test
+    public void encodedCursorIsUrlSafe() {
+        String cursor = CursorUtils.encode(LocalDateTime.of(2025, 4, 1, 0, 0), Integer.MAX_VALUE);
+
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+    }
+
+    @Test
+    public void emptyCursorMeansFirstPage() {
+        assertNull(CursorUtils.decode(null));
+        assertNull(CursorUtils.decode(""));
+    }
+
+    @Test
+    public void invalidBase64IsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CursorUtils.decode("not base64!"));
+    }
+
+    @Test
+    public void missingSeparatorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CursorUtils.decode(encodeRaw("2025-04-01T00:00")));
+    }
+
+    @Test
+    public void tamperedTimestampIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CursorUtils.decode(encodeRaw("2025-13-01T00:00|1")));
+    }
+
+    @Test
+    public void tamperedIdIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CursorUtils.decode(encodeRaw("2025-04-01T00:00|1 OR 1=1")));
+        assertThrows(IllegalArgumentException.class, () -> CursorUtils.decode(encodeRaw("2025-04-01T00:00|")));
+    }
+
+    @Test
+    public void wellFormedCursorOnlyMovesThePosition() {
+        // 游标不签名，格式合法的改写只会改变翻页位置
+        CursorUtils.Cursor cursor = CursorUtils.decode(encodeRaw("2020-01-01T08:00|7"));
+
+        assertEquals(LocalDateTime.of(2020, 1, 1, 8, 0), cursor.getCreatedAt());
+        assertEquals(7, cursor.getId());
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
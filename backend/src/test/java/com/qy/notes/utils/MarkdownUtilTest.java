@@ -0,0 +1,69 @@
+package com.qy.notes.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MarkdownUtilTest {
+
+    @Test
+    public void introductionJoinsTopLevelHeadingsAndParagraphs() {
+        NoteMetadata metadata = MarkdownUtil.analyze("# 标题\n\n正文 **加粗** 内容\n\n```java\nint a = 1;\n```\n");
+
+        assertEquals("标题正文 加粗 内容...", metadata.getIntroduction());
+        assertFalse(metadata.isNeedCollapsed());
+    }
+
+    @Test
+    public void introductionIsTruncatedToLimit() {
+        String markdown = "a".repeat(300);
+
+        NoteMetadata metadata = MarkdownUtil.analyze(markdown);
+
+        assertEquals("a".repeat(MarkdownUtil.PREVIEW_MAX_CHARS) + "...", metadata.getIntroduction());
+        assertEquals(300, metadata.getCharCount());
+        assertTrue(metadata.isNeedCollapsed());
+        assertEquals("a".repeat(10) + "...", MarkdownUtil.analyze(markdown, 10).getIntroduction());
+    }
+
+    @Test
+    public void nestedImagesAreCollectedAndForceCollapse() {
+        NoteMetadata metadata = MarkdownUtil.analyze("- item ![a](http://x/1.png)\n\n> ![b](http://x/2.png)\n");
+
+        assertEquals(List.of("http://x/1.png", "http://x/2.png"), metadata.getImageUrls());
+        assertTrue(metadata.isNeedCollapsed());
+    }
+
+    @Test
+    public void headingsKeepLevelAndInlineText() {
+        NoteMetadata metadata = MarkdownUtil.analyze("# A\n\n## B *c*\n");
+
+        assertEquals(List.of(new NoteMetadata.HeadingItem(1, "A"), new NoteMetadata.HeadingItem(2, "B c")),
+                metadata.getHeadings());
+    }
+
+    @Test
+    public void codeBlocksAreCountedAndExcludedFromText() {
+        String markdown = "```java\nx\n```\n\n```\ny\n```\n\n```Java\nz\n```\n\n    indented\n";
+
+        NoteMetadata metadata = MarkdownUtil.analyze(markdown);
+
+        assertEquals(4, metadata.getCodeBlockCount());
+        assertEquals(List.of("java", "Java"), List.copyOf(metadata.getCodeLanguages()));
+        assertEquals(0, metadata.getTextCharCount());
+    }
+
+    @Test
+    public void textCharCountIgnoresMarkup() {
+        assertEquals(4, MarkdownUtil.analyze("**ab** c").getTextCharCount());
+    }
+
+    @Test
+    public void previewIsNullUnlessCollapsed() {
+        assertNull(MarkdownUtil.buildPreview("短笔记"));
+        assertNotNull(MarkdownUtil.buildPreview("![图](http://x/a.png)"));
+        assertEquals(MarkdownUtil.extractIntroduction("a".repeat(300)), MarkdownUtil.buildPreview("a".repeat(300)));
+    }
+}
@@ -0,0 +1,105 @@
+package com.qy.notes.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnippetUtilTest {
+
+    @Test
+    public void emptyContentGivesEmptySnippet() {
+        SnippetUtil.Snippet snippet = SnippetUtil.build("", List.of("java"), 40);
+
+        assertEquals("", snippet.getText());
+        assertFalse(snippet.isStartOmitted());
+        assertFalse(snippet.isEndOmitted());
+        assertTrue(snippet.getHighlights().isEmpty());
+    }
+
+    @Test
+    public void noMatchTakesLeadingText() {
+        String content = "a".repeat(100);
+
+        SnippetUtil.Snippet snippet = SnippetUtil.build(content, List.of("java"), 40);
+
+        assertEquals("a".repeat(40), snippet.getText());
+        assertFalse(snippet.isStartOmitted());
+        assertTrue(snippet.isEndOmitted());
+        assertTrue(snippet.getHighlights().isEmpty());
+    }
+
+    @Test
+    public void highlightOffsetsPointAtMatchedText() {
+        SnippetUtil.Snippet snippet = SnippetUtil.build("Java HashMap 原理", List.of("hashmap", "原理"), 160);
+
+        assertEquals("Java HashMap 原理", snippet.getText());
+        assertFalse(snippet.isStartOmitted());
+        assertFalse(snippet.isEndOmitted());
+        assertEquals(List.of("HashMap", "原理"), highlightedTexts(snippet));
+    }
+
+    @Test
+    public void longerTermWinsAtSamePosition() {
+        SnippetUtil.Snippet snippet = SnippetUtil.build("hashmap", List.of("hash", "hashmap"), 160);
+
+        assertEquals(1, snippet.getHighlights().size());
+        assertEquals(7, snippet.getHighlights().get(0).getLength());
+    }
+
+    @Test
+    public void windowWithMoreDistinctTermsIsChosen() {
+        // 开头只命中 redis，后面同时命中 redis 和 cluster
+        String content = "redis " + "x".repeat(200) + " redis cluster " + "y".repeat(200);
+
+        SnippetUtil.Snippet snippet = SnippetUtil.build(content, List.of("redis", "cluster"), 40);
+
+        assertEquals(content.substring(180, 220), snippet.getText());
+        assertTrue(snippet.isStartOmitted());
+        assertTrue(snippet.isEndOmitted());
+        assertEquals(List.of("redis", "cluster"), highlightedTexts(snippet));
+        assertEquals(27, snippet.getHighlights().get(0).getStart());
+        assertEquals(33, snippet.getHighlights().get(1).getStart());
+    }
+
+    @Test
+    public void whitespaceIsFlattenedWithoutShiftingHighlights() {
+        SnippetUtil.Snippet snippet = SnippetUtil.build("line\r\n\tJava", List.of("java"), 160);
+
+        assertEquals("line   Java", snippet.getText());
+        assertEquals(List.of("Java"), highlightedTexts(snippet));
+    }
+
+    @Test
+    public void snippetStartDoesNotSplitSurrogatePair() {
+        // 窗口起点原本落在第 6 个 emoji 的低位代理上
+        String content = "😀".repeat(20) + "a" + "java" + "z".repeat(100);
+
+        SnippetUtil.Snippet snippet = SnippetUtil.build(content, List.of("java"), 40);
+
+        assertFalse(Character.isLowSurrogate(snippet.getText().charAt(0)));
+        assertEquals(content.substring(12, 51), snippet.getText());
+        assertTrue(snippet.isStartOmitted());
+        assertEquals(List.of("java"), highlightedTexts(snippet));
+    }
+
+    @Test
+    public void snippetEndDoesNotSplitSurrogatePair() {
+        // 截断位置原本落在第 20 个 emoji 的高位代理之后
+        String content = "a" + "😀".repeat(50);
+
+        SnippetUtil.Snippet snippet = SnippetUtil.build(content, List.of("java"), 40);
+
+        assertEquals(content.substring(0, 39), snippet.getText());
+        assertFalse(Character.isHighSurrogate(snippet.getText().charAt(snippet.getText().length() - 1)));
+        assertTrue(snippet.isEndOmitted());
+    }
+
+    private static List<String> highlightedTexts(SnippetUtil.Snippet snippet) {
+        String text = snippet.getText();
+        return snippet.getHighlights().stream()
+                .map(highlight -> text.substring(highlight.getStart(), highlight.getStart() + highlight.getLength()))
+                .toList();
+    }
+}